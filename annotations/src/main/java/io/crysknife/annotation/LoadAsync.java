@@ -0,0 +1,35 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a bean that is loaded on demand. Its factory isn't referenced by the BeanManagerImpl, but
+ * by a generated {@code <Bean>_AsyncModule} that registers the bean once its chunk is loaded, so
+ * the bean, its factory and what only they use can be moved into a separate chunk. The bean must
+ * be looked up with {@code BeanManager.lookupBeanAsync}. Ignored in the JRE, where the bean is
+ * looked up with {@code BeanManager.lookupBeanFuture}.
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface LoadAsync {
+
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.event;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Completion handle of an asynchronous event, the counterpart of the CompletionStage CDI returns
+ * from Event.fireAsync(), which isn't available in J2CL.
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+public interface EventCompletion<U> {
+
+  /**
+   * The action is called once every observer has been notified, with the event, or with the
+   * exception an observer has thrown. It's called at once if the event has already been delivered.
+   */
+  void whenComplete(BiConsumer<? super U, ? super Throwable> action);
+
+  static <U> EventCompletion<U> completed(U event) {
+    return action -> action.accept(event, null);
+  }
+}
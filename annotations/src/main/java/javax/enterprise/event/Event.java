@@ -14,7 +14,19 @@
 
 package javax.enterprise.event;
 
+import io.crysknife.event.EventCompletion;
+
 public interface Event<T> {
 
   void fire(T var1);
+
+  /**
+   * Fires the event after the current task, events fired in a burst are coalesced and delivered in
+   * one batch, in order. Unlike CDI, it returns an EventCompletion, as CompletionStage is not
+   * available in J2CL.
+   */
+  default <U extends T> EventCompletion<U> fireAsync(U var1) {
+    fire(var1);
+    return EventCompletion.completed(var1);
+  }
 }
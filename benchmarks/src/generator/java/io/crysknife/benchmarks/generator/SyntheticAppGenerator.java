@@ -0,0 +1,164 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.benchmarks.generator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Generates the sources of a synthetic application, that is compiled with the ApplicationProcessor
+ * and used by the benchmarks. Size of the application is controlled by the number of beans.
+ *
+ * usage: SyntheticAppGenerator output_dir beans
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+public class SyntheticAppGenerator {
+
+  static final String PACKAGE = "io.crysknife.benchmarks.app";
+
+  private static final String HEADER =
+      "/*\n * Generated by SyntheticAppGenerator, do not edit.\n */\n\n";
+
+  private static final String IMPORTS = "import io.crysknife.annotation.Application;\n"
+      + "import io.crysknife.client.BeanManager;\n" + "import io.crysknife.client.ManagedInstance;\n"
+      + "import java.lang.annotation.ElementType;\n" + "import java.lang.annotation.Retention;\n"
+      + "import java.lang.annotation.RetentionPolicy;\n" + "import java.lang.annotation.Target;\n"
+      + "import javax.enterprise.context.ApplicationScoped;\n"
+      + "import javax.enterprise.context.Dependent;\n" + "import javax.enterprise.event.Event;\n"
+      + "import javax.enterprise.event.Observes;\n" + "import javax.enterprise.inject.Default;\n"
+      + "import javax.enterprise.inject.Produces;\n"
+      + "import javax.enterprise.inject.Specializes;\n" + "import javax.inject.Inject;\n"
+      + "import javax.inject.Named;\n" + "import javax.inject.Qualifier;\n"
+      + "import javax.inject.Singleton;\n";
+
+  private final Path root;
+  private final int widgets;
+  private final int services;
+  private final int observers;
+
+  public SyntheticAppGenerator(Path output, int beans) {
+    this.root = output.resolve(PACKAGE.replace('.', '/'));
+    this.widgets = Math.max(1, beans);
+    this.services = Math.max(1, beans / 10);
+    this.observers = Math.max(1, beans / 10);
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      throw new IllegalArgumentException("usage: SyntheticAppGenerator output_dir beans");
+    }
+    new SyntheticAppGenerator(Paths.get(args[0]), Integer.parseInt(args[1])).generate();
+  }
+
+  public void generate() throws IOException {
+    Files.createDirectories(root);
+
+    write("Service", "public interface Service {\n\n  String name();\n}\n");
+    write("DefaultService", service("@Default", "DefaultService"));
+    for (int i = 0; i < services; i++) {
+      write("NamedService" + i, service("@Named(\"service" + i + "\")", "NamedService" + i));
+    }
+    write("Fast", "@Qualifier\n@Retention(RetentionPolicy.RUNTIME)\n"
+        + "@Target({ElementType.TYPE, ElementType.FIELD, ElementType.PARAMETER})\n"
+        + "public @interface Fast {\n\n}\n");
+    write("FastService", service("@Fast", "FastService"));
+
+    write("Repository", "@Singleton\npublic class Repository {\n\n"
+        + "  public String name() {\n    return \"Repository\";\n  }\n}\n");
+    write("SpecializedRepository", "@Singleton\n@Specializes\n"
+        + "public class SpecializedRepository extends Repository {\n\n" + "  @Override\n"
+        + "  public String name() {\n    return \"SpecializedRepository\";\n  }\n}\n");
+
+    write("Config", "public class Config {\n\n  private final String value;\n\n"
+        + "  public Config(String value) {\n    this.value = value;\n  }\n\n"
+        + "  public String getValue() {\n    return value;\n  }\n}\n");
+    write("ConfigProducer", "public class ConfigProducer {\n\n  @Produces\n  @Singleton\n"
+        + "  public Config getConfig() {\n    return new Config(\"synthetic\");\n  }\n}\n");
+
+    write("Label", "@Dependent\npublic class Label {\n\n  public String text = \"label\";\n}\n");
+    for (int i = 0; i < widgets; i++) {
+      write("Widget" + i, widget(i));
+    }
+
+    write("Ping", "public class Ping {\n\n}\n");
+    for (int i = 0; i < observers; i++) {
+      write("PingObserver" + i,
+          "@Singleton\npublic class PingObserver" + i + " {\n\n  public int count;\n\n"
+              + "  public void onPing(@Observes Ping ping) {\n    count++;\n  }\n}\n");
+    }
+
+    write("SyntheticApp", app());
+    write("SyntheticBeans", beans());
+  }
+
+  private String service(String qualifier, String name) {
+    return "@ApplicationScoped\n" + qualifier + "\npublic class " + name
+        + " implements Service {\n\n  @Override\n  public String name() {\n" + "    return \""
+        + name + "\";\n  }\n}\n";
+  }
+
+  private String widget(int i) {
+    return "@Dependent\npublic class Widget" + i + " {\n\n" + "  @Inject\n  public Label label;\n\n"
+        + "  @Inject\n  public Service service;\n\n" + "  @Inject\n  @Named(\"service"
+        + (i % services) + "\")\n  public Service named;\n\n" + "  @Inject\n  @Fast\n"
+        + "  public Service fast;\n\n" + "  @Inject\n  public Repository repository;\n\n"
+        + "  @Inject\n  public Config config;\n}\n";
+  }
+
+  private String app() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("@Application\npublic class SyntheticApp {\n\n");
+    sb.append("  @Inject\n  public BeanManager beanManager;\n\n");
+    sb.append("  @Inject\n  public ManagedInstance<Service> services;\n\n");
+    sb.append("  @Inject\n  public Event<Ping> ping;\n\n");
+    for (int i = 0; i < observers; i++) {
+      sb.append("  @Inject\n  public PingObserver").append(i).append(" pingObserver").append(i)
+          .append(";\n\n");
+    }
+    for (int i = 0; i < widgets; i++) {
+      sb.append("  @Inject\n  public Widget").append(i).append(" widget").append(i)
+          .append(";\n\n");
+    }
+    sb.setLength(sb.length() - 1);
+    sb.append("}\n");
+    return sb.toString();
+  }
+
+  private String beans() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("public final class SyntheticBeans {\n\n");
+    sb.append("  public static final Class<?>[] WIDGETS = new Class<?>[] {");
+    for (int i = 0; i < widgets; i++) {
+      sb.append(i == 0 ? "" : ", ").append("Widget").append(i).append(".class");
+    }
+    sb.append("};\n\n");
+    sb.append("  public static final String[] SERVICE_NAMES = new String[] {");
+    for (int i = 0; i < services; i++) {
+      sb.append(i == 0 ? "" : ", ").append("\"service").append(i).append('"');
+    }
+    sb.append("};\n\n");
+    sb.append("  private SyntheticBeans() {\n\n  }\n}\n");
+    return sb.toString();
+  }
+
+  private void write(String name, String body) throws IOException {
+    String source = HEADER + "package " + PACKAGE + ";\n\n" + IMPORTS + "\n" + body;
+    Files.write(root.resolve(name + ".java"), source.getBytes(StandardCharsets.UTF_8));
+  }
+}
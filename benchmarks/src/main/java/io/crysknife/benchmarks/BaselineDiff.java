@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.benchmarks;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Compares two JMH json results, usually the baseline committed to the repository and the result of
+ * the current run, and fails if any benchmark regressed more than the threshold.
+ *
+ * usage: BaselineDiff baseline.json result.json [threshold_percent]
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+public class BaselineDiff {
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      throw new IllegalArgumentException(
+          "usage: BaselineDiff baseline.json result.json [threshold_percent]");
+    }
+    double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+
+    Map<String, Score> baseline = read(args[0]);
+    Map<String, Score> current = read(args[1]);
+
+    int regressions = 0;
+    System.out.println(String.format("%-80s %14s %14s %9s", "Benchmark", "Baseline", "Current",
+        "Change"));
+    for (Map.Entry<String, Score> entry : current.entrySet()) {
+      Score now = entry.getValue();
+      Score before = baseline.get(entry.getKey());
+      if (before == null) {
+        System.out.println(String.format("%-80s %14s %14.3f %9s", entry.getKey(), "-", now.score,
+            "new"));
+        continue;
+      }
+      double change = (now.score - before.score) / before.score * 100;
+      // for throughput modes bigger is better, for time modes smaller is better
+      double regression = now.isThroughput() ? -change : change;
+      boolean failed = regression > threshold;
+      if (failed) {
+        regressions++;
+      }
+      System.out.println(String.format("%-80s %14.3f %14.3f %+8.2f%% %s %s", entry.getKey(),
+          before.score, now.score, change, now.unit, failed ? "REGRESSION" : ""));
+    }
+    baseline.keySet().stream().filter(key -> !current.containsKey(key))
+        .forEach(key -> System.out.println(String.format("%-80s %14.3f %14s %9s", key,
+            baseline.get(key).score, "-", "removed")));
+
+    if (regressions > 0) {
+      System.out.println(regressions + " benchmark(s) regressed more than " + threshold + "%");
+      System.exit(1);
+    }
+  }
+
+  private static Map<String, Score> read(String file) throws IOException {
+    Map<String, Score> result = new LinkedHashMap<>();
+    try (Reader reader = Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+      JsonArray benchmarks = new JsonParser().parse(reader).getAsJsonArray();
+      for (JsonElement element : benchmarks) {
+        JsonObject benchmark = element.getAsJsonObject();
+        StringBuilder key = new StringBuilder(benchmark.get("benchmark").getAsString());
+        if (benchmark.has("params")) {
+          benchmark.getAsJsonObject("params").entrySet().forEach(param -> key.append(':')
+              .append(param.getKey()).append('=').append(param.getValue().getAsString()));
+        }
+        JsonObject metric = benchmark.getAsJsonObject("primaryMetric");
+        result.put(key.toString(), new Score(benchmark.get("mode").getAsString(),
+            metric.get("score").getAsDouble(), metric.get("scoreUnit").getAsString()));
+      }
+    }
+    return result;
+  }
+
+  private static class Score {
+
+    private final String mode;
+    private final double score;
+    private final String unit;
+
+    private Score(String mode, double score, String unit) {
+      this.mode = mode;
+      this.score = score;
+      this.unit = unit;
+    }
+
+    private boolean isThroughput() {
+      return "thrpt".equals(mode);
+    }
+  }
+}
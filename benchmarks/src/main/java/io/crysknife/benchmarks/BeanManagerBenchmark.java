@@ -0,0 +1,67 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.benchmarks;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import io.crysknife.client.BeanManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Creates the generated BeanManagerImpl and registers the beans of the synthetic application, what
+ * the application pays once at startup. BeanManagerImpl is a singleton and its init() is private,
+ * so both are reached reflectively.
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeanManagerBenchmark {
+
+  private Constructor<?> constructor;
+
+  private Method init;
+
+  @Setup
+  public void setup() throws ReflectiveOperationException {
+    Class<?> impl = Class.forName(BeanManager.class.getCanonicalName() + "Impl");
+    constructor = impl.getDeclaredConstructor();
+    constructor.setAccessible(true);
+    init = impl.getDeclaredMethod("init");
+    init.setAccessible(true);
+  }
+
+  @Benchmark
+  public Object init() throws ReflectiveOperationException {
+    Object beanManager = constructor.newInstance();
+    init.invoke(beanManager);
+    return beanManager;
+  }
+}
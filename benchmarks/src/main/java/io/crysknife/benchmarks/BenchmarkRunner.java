@@ -0,0 +1,44 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks and writes the results in JMH json format, so they can be compared with
+ * {@link BaselineDiff}.
+ *
+ * usage: BenchmarkRunner result.json [include_regexp]
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+public class BenchmarkRunner {
+
+  public static void main(String[] args) throws RunnerException {
+    if (args.length < 1) {
+      throw new IllegalArgumentException("usage: BenchmarkRunner result.json [include_regexp]");
+    }
+
+    Options options = new OptionsBuilder()
+        .include(args.length > 1 ? args[1] : BenchmarkRunner.class.getPackage().getName() + ".*")
+        .resultFormat(ResultFormatType.JSON).result(args[0]).build();
+
+    new Runner(options).run();
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import io.crysknife.benchmarks.app.SyntheticBeans;
+import io.crysknife.benchmarks.app.Widget0;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Creation of @Dependent beans through the generated factories, every instance is destroyed right
+ * away, so the bean manager doesn't grow during the run.
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DependentCreationBenchmark {
+
+  @Benchmark
+  public void createWidget(SyntheticAppState state, Blackhole blackhole) {
+    Widget0 widget = state.beanManager.lookupBean(Widget0.class).getInstance();
+    blackhole.consume(widget.label);
+    state.beanManager.destroyBean(widget);
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public void createAllWidgets(SyntheticAppState state, Blackhole blackhole) {
+    for (Class<?> type : SyntheticBeans.WIDGETS) {
+      Object widget = state.beanManager.lookupBean(type).getInstance();
+      blackhole.consume(widget);
+      state.beanManager.destroyBean(widget);
+    }
+  }
+}
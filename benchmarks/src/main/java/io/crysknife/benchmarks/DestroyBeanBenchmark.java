@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import io.crysknife.benchmarks.app.Widget0;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * BeanManager.destroyBean(...) of a @Dependent bean, the bean is created before every invocation.
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 1000)
+@Measurement(iterations = 10000)
+@Fork(1)
+@State(Scope.Thread)
+public class DestroyBeanBenchmark {
+
+  private Widget0 widget;
+
+  @Setup(Level.Invocation)
+  public void create(SyntheticAppState state) {
+    widget = state.beanManager.lookupBean(Widget0.class).getInstance();
+  }
+
+  @Benchmark
+  public void destroyBean(SyntheticAppState state) {
+    state.beanManager.destroyBean(widget);
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.benchmarks;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import io.crysknife.benchmarks.app.DefaultService;
+import io.crysknife.benchmarks.app.Repository;
+import io.crysknife.benchmarks.app.Service;
+import io.crysknife.client.SyncBeanDef;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * BeanManager.lookupBean(...) and lookupBeans(...) with the typical qualifiers.
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupBeanBenchmark {
+
+  @Benchmark
+  public SyncBeanDef<DefaultService> lookupByImplementation(SyntheticAppState state) {
+    return state.beanManager.lookupBean(DefaultService.class);
+  }
+
+  @Benchmark
+  public SyncBeanDef<Service> lookupByInterface(SyntheticAppState state) {
+    return state.beanManager.lookupBean(Service.class);
+  }
+
+  @Benchmark
+  public SyncBeanDef<Service> lookupByNamed(SyntheticAppState state) {
+    return state.beanManager.lookupBean(Service.class, state.named);
+  }
+
+  @Benchmark
+  public SyncBeanDef<Service> lookupByQualifier(SyntheticAppState state) {
+    return state.beanManager.lookupBean(Service.class, state.fast);
+  }
+
+  @Benchmark
+  public SyncBeanDef<Repository> lookupSpecialized(SyntheticAppState state) {
+    return state.beanManager.lookupBean(Repository.class);
+  }
+
+  @Benchmark
+  public Collection<SyncBeanDef<Service>> lookupBeans(SyntheticAppState state) {
+    return state.beanManager.lookupBeans(Service.class);
+  }
+}
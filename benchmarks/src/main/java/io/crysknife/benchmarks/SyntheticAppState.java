@@ -0,0 +1,61 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.benchmarks;
+
+import java.lang.annotation.Annotation;
+
+import io.crysknife.benchmarks.app.Fast;
+import io.crysknife.benchmarks.app.SyntheticApp;
+import io.crysknife.benchmarks.app.SyntheticAppBootstrap;
+import io.crysknife.client.BeanManager;
+import io.crysknife.client.internal.QualifierUtil;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.inject.Named;
+
+/**
+ * Bootstraps the synthetic application once per benchmark.
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+@State(Scope.Benchmark)
+public class SyntheticAppState {
+
+  public SyntheticApp app;
+
+  public BeanManager beanManager;
+
+  public Named named;
+
+  public Fast fast;
+
+  @Setup
+  public void setup() {
+    app = new SyntheticApp();
+    new SyntheticAppBootstrap(app).initialize();
+    beanManager = app.beanManager;
+
+    named = QualifierUtil.createNamed("service0");
+    fast = new Fast() {
+
+      @Override
+      public Class<? extends Annotation> annotationType() {
+        return Fast.class;
+      }
+    };
+  }
+}
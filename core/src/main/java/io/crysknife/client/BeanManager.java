@@ -13,11 +13,13 @@
  */
 package io.crysknife.client;
 
+import elemental2.promise.Promise;
 import io.crysknife.client.internal.IOCResolutionException;
 import io.crysknife.client.internal.SyncBeanDefImpl;
 
 import java.lang.annotation.Annotation;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author Dmitrii Tikhomirov Created by treblereel 3/28/19
@@ -76,6 +78,41 @@ public interface BeanManager {
    */
   <T> SyncBeanDef<T> lookupBean(final Class<T> type, Annotation... qualifiers);
 
+  /**
+   * Looks up a bean reference based on type and qualifiers, loading first the chunks of the
+   * {@link io.crysknife.annotation.LoadAsync} beans assignable to the type. J2CL only, the promise
+   * is a JavaScript one, in the JRE it throws an {@link UnsupportedOperationException}, use
+   * {@link #lookupBeanFuture(Class, Annotation...)} instead.
+   *
+   * @param type The type of the bean
+   * @param qualifiers qualifiers to match
+   * @param <T> The type of the bean
+   * @return A promise of the {@link SyncBeanDef} for the matching type and qualifiers, rejected
+   *         with an {@link IOCResolutionException} if the lookup fails, or with the cause reported
+   *         by the {@link ChunkLoader} if a chunk can't be loaded.
+   */
+  <T> Promise<SyncBeanDef<T>> lookupBeanAsync(final Class<T> type, Annotation... qualifiers);
+
+  /**
+   * JRE counterpart of {@link #lookupBeanAsync(Class, Annotation...)}, there are no chunks in the
+   * JRE, so the future is already completed.
+   *
+   * @param type The type of the bean
+   * @param qualifiers qualifiers to match
+   * @param <T> The type of the bean
+   * @return A future of the {@link SyncBeanDef} for the matching type and qualifiers, completed
+   *         exceptionally with an {@link IOCResolutionException} if the lookup fails.
+   */
+  @GwtIncompatible
+  <T> CompletableFuture<SyncBeanDef<T>> lookupBeanFuture(final Class<T> type,
+      Annotation... qualifiers);
+
+  /**
+   * Sets the loader of the chunks of the {@link io.crysknife.annotation.LoadAsync} beans, it's
+   * never called in the JRE.
+   */
+  void setChunkLoader(ChunkLoader chunkLoader);
+
   /**
    * Destroy a bean and all other dependent scoped dependencies of this bean in the bean manager.
    *
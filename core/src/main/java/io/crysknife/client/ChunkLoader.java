@@ -0,0 +1,35 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.client;
+
+import java.util.function.Consumer;
+
+/**
+ * Loads the chunks of the {@link io.crysknife.annotation.LoadAsync} beans, the way the chunks are
+ * built and fetched belongs to the application.
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+public interface ChunkLoader {
+
+  /**
+   * Starts loading a chunk. Once loaded, the chunk must call the {@code load()} method of the
+   * generated {@code <Bean>_AsyncModule}, that registers its bean.
+   *
+   * @param chunk name of the chunk, the fully qualified name of the bean
+   * @param onError called with the cause if the chunk can't be loaded
+   */
+  void load(String chunk, Consumer<Object> onError);
+}
@@ -13,36 +13,213 @@
  */
 package io.crysknife.client.internal;
 
+import elemental2.promise.Promise;
 import io.crysknife.client.BeanManager;
+import io.crysknife.client.ChunkLoader;
+import io.crysknife.client.GwtIncompatible;
 import io.crysknife.client.IOCBeanDef;
 import io.crysknife.client.SyncBeanDef;
 
 import javax.enterprise.inject.Typed;
 import java.lang.annotation.Annotation;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * @author Dmitrii Tikhomirov Created by treblereel 3/28/19
  */
 public abstract class AbstractBeanManager implements BeanManager {
 
+  private static final int[] DEFAULT_QUALIFIER_BITS =
+      QualifierKey.bitsOf(QualifierUtil.DEFAULT_ANNOTATION);
+
+  private static final Promises PROMISES = new JREPromises();
+
   private final Map<Class, BeanDefinitionHolder> beans = new HashMap<>();
 
-  private final Map<Object, BeanFactory> pool = new IdentityHashMap<>();
+  private final Map<Object, CreationalContext> pool = new IdentityHashMap<>();
+
+  /**
+   * The registry and the pool are guarded by the bean manager, but instances are created outside
+   * of the lock, each thread within its own creational context, so in the JRE independent beans
+   * can be created concurrently.
+   */
+  private final CurrentContext creationalContext = CurrentContext.create();
   private final Map<String, Class> beansByBeanName = new HashMap<>();
 
+  /**
+   * Resolution table precomputed by the annotation processor, lookups by type with the default
+   * qualifier end here without walking the subtypes.
+   */
+  private final Map<Class, Class> defaultResolutions = new HashMap<>();
+  private final Map<Class, Map<Integer, Class>> qualifiedResolutions = new HashMap<>();
+
+  /**
+   * Beans registered by {@link #registerLazy(Class, String, Class[], Function)}, that haven't been
+   * touched by a lookup yet, by bean type and by assignable type.
+   */
+  private final Map<Class, PendingBean> pendingBeans = new HashMap<>();
+  private final Map<Class, List<Class>> pendingTypes = new HashMap<>();
+
+  /**
+   * Chunks of the {@link io.crysknife.annotation.LoadAsync} beans by the names of their assignable
+   * types, and the lookups waiting for the chunks being loaded.
+   */
+  private final Map<String, Set<String>> asyncChunks = new HashMap<>();
+  private final Map<String, List<ChunkWaiter>> pendingChunks = new HashMap<>();
+  private final Set<String> loadedChunks = new HashSet<>();
+  private ChunkLoader chunkLoader;
+
+  /**
+   * Number of explicit registrations, lookups cached by the caller are valid as long as it doesn't
+   * change.
+   */
+  private int registrations;
+
   protected AbstractBeanManager() {
 
   }
 
-  public void register(SyncBeanDefImpl beanDefinition) {
+  public synchronized void register(SyncBeanDefImpl beanDefinition) {
+    pendingBeans.remove(beanDefinition.getType());
+    defaultResolutions.remove(beanDefinition.getType());
+    qualifiedResolutions.remove(beanDefinition.getType());
+    beanDefinition.getAssignableTypes().forEach(superType -> {
+      defaultResolutions.remove(superType);
+      qualifiedResolutions.remove(superType);
+    });
+    doRegister(beanDefinition);
+    registrations++;
+  }
+
+  int getRegistrations() {
+    return registrations;
+  }
+
+  /**
+   * Registers a bean, its definition and factory are created the first time a lookup touches the
+   * bean type or any of the assignable types.
+   *
+   * @param type bean type
+   * @param name name of the bean, see {@link SyncBeanDefImpl#getName()}
+   * @param assignableTypes bean type and its supertypes
+   * @param beanDefinition creates the bean definition, assignableTypes are passed to it
+   */
+  protected synchronized void registerLazy(Class<?> type, String name, Class<?>[] assignableTypes,
+      Function<Class<?>[], SyncBeanDefImpl> beanDefinition) {
+    pendingBeans.put(type, new PendingBean(assignableTypes, beanDefinition));
+    for (Class<?> assignableType : assignableTypes) {
+      List<Class> types = pendingTypes.get(assignableType);
+      if (types == null) {
+        types = new LinkedList<>();
+        pendingTypes.put(assignableType, types);
+      }
+      types.add(type);
+      beansByBeanName.put(assignableType.getCanonicalName(), assignableType);
+    }
+    beansByBeanName.put(name, type);
+  }
+
+  /**
+   * Registers the beans of the table generated by the annotation processor, all of them lazily,
+   * see {@link #registerLazy(Class, String, Class[], Function)}. Types, names and qualifiers are
+   * shared by the beans and referenced by index. Each bean is a run of ints: type, scope, name,
+   * {@link Typed} qualifier or -1, number of assignable types followed by their indexes, number of
+   * qualifiers followed by their indexes. The factory of the n-th bean is the n-th provider.
+   */
+  protected void registerBeans(Class<?>[] types, String[] names, Annotation[] qualifiers,
+      FactoryProvider[] factories, int[] beans) {
+    int offset = 0;
+    for (FactoryProvider factory : factories) {
+      Class<?> type = types[beans[offset++]];
+      // the generator writes only scope annotations at the index of the scope
+      @SuppressWarnings("unchecked")
+      Class<? extends Annotation> scope = (Class<? extends Annotation>) types[beans[offset++]];
+      String name = names[beans[offset++]];
+      int typed = beans[offset++];
+
+      Class<?>[] assignableTypes = new Class<?>[beans[offset++]];
+      for (int i = 0; i < assignableTypes.length; i++) {
+        assignableTypes[i] = types[beans[offset++]];
+      }
+      Annotation[] beanQualifiers = new Annotation[beans[offset++]];
+      for (int i = 0; i < beanQualifiers.length; i++) {
+        beanQualifiers[i] = qualifiers[beans[offset++]];
+      }
+
+      registerLazy(type, name, assignableTypes, assignable -> {
+        SyncBeanDefImpl.Builder builder =
+            new SyncBeanDefImpl.Builder(type, scope).withAssignableTypes(assignable);
+        if (beanQualifiers.length > 0) {
+          builder.withQualifiers(beanQualifiers);
+        }
+        if (typed >= 0) {
+          builder.withTyped((Typed) qualifiers[typed]);
+        }
+        return builder.withFactory(factory.create(this)).build();
+      });
+    }
+  }
+
+  /**
+   * Declares the chunk of a {@link io.crysknife.annotation.LoadAsync} bean, by name only, so the
+   * bean and its factory aren't referenced until the chunk is loaded.
+   *
+   * @param chunk name of the chunk
+   * @param assignableTypes names of the bean type and its supertypes
+   */
+  protected synchronized void registerAsync(String chunk, String... assignableTypes) {
+    for (String assignableType : assignableTypes) {
+      Set<String> chunks = asyncChunks.get(assignableType);
+      if (chunks == null) {
+        chunks = new LinkedHashSet<>();
+        asyncChunks.put(assignableType, chunks);
+      }
+      chunks.add(chunk);
+    }
+  }
+
+  /**
+   * Registers the beans of a loaded chunk, see
+   * {@link #registerBeans(Class[], String[], Annotation[], FactoryProvider[], int[])}, called by
+   * the generated {@code <Bean>_AsyncModule}. Resolutions of the types of the chunk are dropped,
+   * as they were computed without its beans, and the pending async lookups are completed.
+   */
+  public void registerChunk(String chunk, Class<?>[] types, String[] names,
+      Annotation[] qualifiers, FactoryProvider[] factories, int[] beans) {
+    List<ChunkWaiter> waiters;
+    synchronized (this) {
+      if (!loadedChunks.add(chunk)) {
+        return;
+      }
+      for (Class<?> type : types) {
+        defaultResolutions.remove(type);
+        qualifiedResolutions.remove(type);
+      }
+      registerBeans(types, names, qualifiers, factories, beans);
+      registrations++;
+      waiters = pendingChunks.remove(chunk);
+    }
+    if (waiters != null) {
+      waiters.forEach(waiter -> waiter.onLoad.run());
+    }
+  }
+
+  private void doRegister(SyncBeanDefImpl beanDefinition) {
     BeanDefinitionHolder holder = get(beanDefinition.getType());
     holder.beanDefinition = beanDefinition;
     beanDefinition.getAssignableTypes().forEach(superType -> {
@@ -53,6 +230,89 @@ public abstract class AbstractBeanManager implements BeanManager {
     beansByBeanName.put(beanDefinition.getName(), beanDefinition.getType());
   }
 
+  /**
+   * Materializes the pending beans assignable to the given type.
+   */
+  private void materialize(Class<?> type) {
+    if (!pendingTypes.isEmpty()) {
+      List<Class> types = pendingTypes.remove(type);
+      if (types != null) {
+        for (Class bean : types) {
+          materializeBean(bean);
+        }
+      }
+    }
+  }
+
+  private SyncBeanDefImpl materializeBean(Class<?> type) {
+    PendingBean pending = pendingBeans.remove(type);
+    if (pending != null) {
+      doRegister(pending.beanDefinition.apply(pending.assignableTypes));
+    }
+    BeanDefinitionHolder holder = beans.get(type);
+    return holder != null ? holder.beanDefinition : null;
+  }
+
+  /**
+   * @return definition of the bean of exactly the given type, null if there is no such bean
+   */
+  synchronized SyncBeanDefImpl lookupBeanDefinition(Class<?> type) {
+    return materializeBean(type);
+  }
+
+  /**
+   * Registers a resolution of the given type with the default qualifier, computed at compile time.
+   */
+  protected synchronized void addResolution(Class<?> type, Class<?> bean) {
+    defaultResolutions.put(type, bean);
+  }
+
+  /**
+   * Registers a resolution of the given type with the single qualifier, computed at compile time.
+   * The qualifier is in the form of {@link BeanManagerUtil#qualifierToString(Annotation)}.
+   */
+  protected synchronized void addResolution(Class<?> type, String qualifier, Class<?> bean) {
+    Map<Integer, Class> resolutions = qualifiedResolutions.get(type);
+    if (resolutions == null) {
+      resolutions = new HashMap<>();
+      qualifiedResolutions.put(type, resolutions);
+    }
+    resolutions.put(QualifierKey.idOf(qualifier), bean);
+  }
+
+  /**
+   * Registers the resolutions of the table generated by the annotation processor, each one is a
+   * run of ints: type, qualifier name or -1 for the default qualifier, and bean.
+   */
+  protected void addResolutions(Class<?>[] types, String[] names, int[] resolutions) {
+    for (int i = 0; i < resolutions.length; i += 3) {
+      if (resolutions[i + 1] < 0) {
+        addResolution(types[resolutions[i]], types[resolutions[i + 2]]);
+      } else {
+        addResolution(types[resolutions[i]], names[resolutions[i + 1]],
+            types[resolutions[i + 2]]);
+      }
+    }
+  }
+
+  private SyncBeanDefImpl getResolution(Class<?> type, Annotation[] qualifiers) {
+    Class<?> bean = null;
+    if (qualifiers == null || qualifiers.length == 0) {
+      bean = defaultResolutions.get(type);
+    } else if (qualifiers.length == 1) {
+      int qualifier = QualifierKey.idOf(qualifiers[0]);
+      if (qualifier == QualifierKey.DEFAULT) {
+        bean = defaultResolutions.get(type);
+      } else {
+        Map<Integer, Class> resolutions = qualifiedResolutions.get(type);
+        if (resolutions != null) {
+          bean = resolutions.get(qualifier);
+        }
+      }
+    }
+    return bean != null ? materializeBean(bean) : null;
+  }
+
   private BeanDefinitionHolder get(Class<?> type) {
     if (!beans.containsKey(type)) {
       BeanDefinitionHolder holder = new BeanDefinitionHolder();
@@ -62,7 +322,7 @@ public abstract class AbstractBeanManager implements BeanManager {
   }
 
   @Override
-  public Collection<SyncBeanDef> lookupBeans(String name) {
+  public synchronized Collection<SyncBeanDef> lookupBeans(String name) {
     if (beansByBeanName.containsKey(name)) {
       return lookupBeans(beansByBeanName.get(name));
     }
@@ -71,7 +331,9 @@ public abstract class AbstractBeanManager implements BeanManager {
     return Collections.EMPTY_SET;
   }
 
-  public <T> Collection<SyncBeanDef<T>> lookupBeans(final Class<T> type, Annotation... qualifiers) {
+  public synchronized <T> Collection<SyncBeanDef<T>> lookupBeans(final Class<T> type,
+      Annotation... qualifiers) {
+    materialize(type);
     Set<SyncBeanDef<T>> result = new HashSet<>();
     if (!beans.containsKey(type)) {
       return result;
@@ -86,28 +348,39 @@ public abstract class AbstractBeanManager implements BeanManager {
       return result;
     }
 
+    int[] bits = QualifierKey.bitsOf(qualifiers);
     if (beans.get(type).beanDefinition != null) {
-      if (compareAnnotations(beans.get(type).beanDefinition.getActualQualifiers(), qualifiers)) {
+      if (matchesActual(beans.get(type).beanDefinition, bits)) {
         result.add(beans.get(type).beanDefinition);
       }
     }
     beans.get(type).subTypes.stream().filter(f -> f.beanDefinition != null)
-        .filter(f -> compareAnnotations(f.beanDefinition.getActualQualifiers(), qualifiers))
+        .filter(f -> matchesActual(f.beanDefinition, bits))
         .forEach(bean -> result.add(bean.beanDefinition));
 
     return result;
   }
 
-  private boolean compareAnnotations(Collection<Annotation> all, Annotation... in) {
-    Annotation[] _all = all.toArray(new Annotation[all.size()]);
-    return QualifierUtil.matches(in, _all);
+  /**
+   * Bean without qualifiers matches everything, otherwise its qualifiers must contain all of the
+   * given ones.
+   */
+  private boolean matchesActual(SyncBeanDefImpl beanDefinition, int[] qualifiers) {
+    int[] actual = beanDefinition.getActualQualifierBits();
+    return QualifierKey.isEmpty(actual) || QualifierKey.containsAll(actual, qualifiers);
   }
 
   public <T> SyncBeanDef<T> lookupBean(final Class<T> type) {
     return lookupBean(type, QualifierUtil.DEFAULT_ANNOTATION);
   }
 
-  public <T> SyncBeanDef<T> lookupBean(final Class<T> type, Annotation... qualifiers) {
+  public synchronized <T> SyncBeanDef<T> lookupBean(final Class<T> type,
+      Annotation... qualifiers) {
+    SyncBeanDefImpl resolved = getResolution(type, qualifiers);
+    if (resolved != null) {
+      return resolved;
+    }
+
     Collection<IOCBeanDef<T>> candidates = doLookupBean(type, qualifiers);
 
     if (candidates.size() > 1) {
@@ -119,69 +392,240 @@ public abstract class AbstractBeanManager implements BeanManager {
     }
   }
 
+  @Override
+  public <T> Promise<SyncBeanDef<T>> lookupBeanAsync(final Class<T> type,
+      Annotation... qualifiers) {
+    // the executor of a Promise never runs in the JRE, the lookup would never complete
+    PROMISES.check(type);
+    return new Promise<>((resolve, reject) -> {
+      Runnable lookup = () -> {
+        try {
+          resolve.onInvoke(lookupBean(type, qualifiers));
+        } catch (IOCResolutionException e) {
+          reject.onInvoke(e);
+        }
+      };
+
+      List<String> chunks = getMissingChunks(type);
+      if (chunks.isEmpty()) {
+        lookup.run();
+        return;
+      }
+      if (chunkLoader == null) {
+        reject.onInvoke(new IOCResolutionException(
+            "No ChunkLoader set to load " + chunks + " for " + type.getName()));
+        return;
+      }
+
+      int[] remaining = {chunks.size()};
+      for (String chunk : chunks) {
+        Runnable onLoad = () -> {
+          if (--remaining[0] == 0) {
+            lookup.run();
+          }
+        };
+        if (awaitChunk(chunk, new ChunkWaiter(onLoad, reject::onInvoke))) {
+          chunkLoader.load(chunk, error -> chunkFailed(chunk, error));
+        }
+      }
+    });
+  }
+
+  @GwtIncompatible
+  @Override
+  public <T> CompletableFuture<SyncBeanDef<T>> lookupBeanFuture(final Class<T> type,
+      Annotation... qualifiers) {
+    CompletableFuture<SyncBeanDef<T>> result = new CompletableFuture<>();
+    try {
+      result.complete(lookupBean(type, qualifiers));
+    } catch (IOCResolutionException e) {
+      result.completeExceptionally(e);
+    }
+    return result;
+  }
+
+  @Override
+  public synchronized void setChunkLoader(ChunkLoader chunkLoader) {
+    this.chunkLoader = chunkLoader;
+  }
+
+  private synchronized List<String> getMissingChunks(Class<?> type) {
+    List<String> result = new LinkedList<>();
+    Set<String> chunks = asyncChunks.get(type.getCanonicalName());
+    if (chunks != null) {
+      chunks.stream().filter(chunk -> !loadedChunks.contains(chunk)).forEach(result::add);
+    }
+    return result;
+  }
+
+  /**
+   * Rejects every lookup waiting for a chunk that failed to load, and forgets them, so the next
+   * lookup loads it again.
+   */
+  private void chunkFailed(String chunk, Object error) {
+    List<ChunkWaiter> waiters;
+    synchronized (this) {
+      waiters = pendingChunks.remove(chunk);
+    }
+    if (waiters != null) {
+      waiters.forEach(waiter -> waiter.onError.accept(error));
+    }
+  }
+
+  /**
+   * @return true if the chunk must be loaded, false if it is already being loaded, or it is loaded
+   *         and the waiter has been called
+   */
+  private boolean awaitChunk(String chunk, ChunkWaiter waiter) {
+    synchronized (this) {
+      if (!loadedChunks.contains(chunk)) {
+        List<ChunkWaiter> waiters = pendingChunks.get(chunk);
+        boolean load = waiters == null;
+        if (load) {
+          waiters = new LinkedList<>();
+          pendingChunks.put(chunk, waiters);
+        }
+        waiters.add(waiter);
+        return load;
+      }
+    }
+    waiter.onLoad.run();
+    return false;
+  }
+
   public void destroyBean(Object ref) {
-    if (pool.containsKey(ref)) {
-      pool.get(ref).onDestroyInternal(ref);
-      pool.remove(ref);
+    List<CreationalContext> destroyed = new ArrayList<>();
+    synchronized (this) {
+      CreationalContext context = pool.remove(ref);
+      if (context == null) {
+        return;
+      }
+      if (context.parent != null) {
+        context.parent.removeDependent(context);
+      }
+      context.detach(pool, destroyed);
+    }
+    // @PreDestroy methods may wait for a thread that needs the lock, so they run without it
+    for (CreationalContext context : destroyed) {
+      context.destroy();
+    }
+  }
+
+  /**
+   * Creates an instance within its own creational context, @Dependent instances created meanwhile
+   * belong to it and are destroyed with it.
+   */
+  <T> T createInstance(BeanFactory<T> factory) {
+    CreationalContext context = new CreationalContext(factory, creationalContext.get());
+    creationalContext.set(context);
+    try {
+      context.instance = factory.createInstance();
+    } finally {
+      creationalContext.set(context.parent);
+    }
+    track(context);
+    return (T) context.instance;
+  }
+
+  /**
+   * @return creational context of the instance that is being created, null if there is none
+   */
+  public CreationalContext getCreationalContext() {
+    return creationalContext.get();
+  }
+
+  /**
+   * @return creational context of the given instance, null if it isn't tracked
+   */
+  public synchronized CreationalContext getCreationalContext(Object instance) {
+    return pool.get(instance);
+  }
+
+  /**
+   * Creates a dependency of an instance that has already been created, like a field injected
+   * lazily by the aspects or by the Interceptor. @Dependent instances created meanwhile belong to
+   * the given context and are destroyed with it.
+   *
+   * @param owner creational context of the instance, null if the instance isn't tracked
+   */
+  public <T> T createDependency(CreationalContext owner, Supplier<T> dependency) {
+    CreationalContext previous = creationalContext.get();
+    creationalContext.set(owner);
+    try {
+      return dependency.get();
+    } finally {
+      creationalContext.set(previous);
     }
   }
 
   <T> T addBeanInstanceToPool(Object instance, BeanFactory factory) {
-    pool.put(instance, factory);
+    CreationalContext context = new CreationalContext(factory, creationalContext.get());
+    context.instance = instance;
+    track(context);
     return (T) instance;
   }
 
-  <T> Collection<IOCBeanDef<T>> doLookupBean(final Class<T> type, Annotation... qualifiers) {
-    Collection<IOCBeanDef<T>> candidates = new HashSet<>();
-    if (beans.containsKey(type)) {
-
-      if (qualifiers == null || qualifiers.length == 0) {
-        qualifiers = new Annotation[] {QualifierUtil.DEFAULT_ANNOTATION};
+  private synchronized void track(CreationalContext context) {
+    if (!context.isDependent()) {
+      pool.put(context.instance, context);
+    } else if (context.isTracked()) {
+      pool.put(context.instance, context);
+      CreationalContext parent = context.parent;
+      if (parent != null) {
+        parent.addDependent(context);
+        // the parent has been created already without being tracked, it is now, as its dependent
+        // must be destroyed with it
+        if (parent.instance != null && !parent.destroyed && !pool.containsKey(parent.instance)) {
+          track(parent);
+        }
       }
+    }
+  }
 
-      if (beans.get(type).beanDefinition != null) {
-        if (beans.get(type).beanDefinition.getTyped().isPresent()) {
-          if (Arrays.stream(((Typed) beans.get(type).beanDefinition.getTyped().get()).value())
+  <T> Collection<IOCBeanDef<T>> doLookupBean(final Class<T> type, Annotation... qualifiers) {
+    if (qualifiers == null || qualifiers.length == 0) {
+      return doLookupBean(type, DEFAULT_QUALIFIER_BITS, true);
+    }
+    return doLookupBean(type, QualifierKey.bitsOf(qualifiers),
+        QualifierKey.idOf(qualifiers[0]) == QualifierKey.DEFAULT && qualifiers.length == 1);
+  }
+
+  synchronized <T> Collection<IOCBeanDef<T>> doLookupBean(final Class<T> type, int[] qualifiers,
+      boolean isDefault) {
+    materialize(type);
+    Collection<IOCBeanDef<T>> candidates = new HashSet<>();
+    BeanDefinitionHolder holder = beans.get(type);
+    if (holder != null) {
+      if (holder.beanDefinition != null) {
+        if (holder.beanDefinition.getTyped().isPresent()) {
+          if (Arrays.stream(((Typed) holder.beanDefinition.getTyped().get()).value())
               .anyMatch(any -> any.equals(type))) {
-            Set<IOCBeanDef<T>> result = new HashSet<>();
-            result.add(beans.get(type).beanDefinition);
-            return result;
+            return Collections.singleton(holder.beanDefinition);
           }
         }
 
-        if (compareAnnotations(beans.get(type).beanDefinition.getQualifiers(), qualifiers)) {
-          if (beans.get(type).beanDefinition.getFactory().isPresent()) {
-            candidates.add(beans.get(type).beanDefinition);
+        if (QualifierKey.containsAll(holder.beanDefinition.getQualifierBits(), qualifiers)) {
+          if (holder.beanDefinition.getFactory().isPresent()) {
+            candidates.add(holder.beanDefinition);
           }
         }
       }
 
-      if (qualifiers.length == 1 && !beans.get(type).subTypes.isEmpty() && isDefault(qualifiers)) {
-        for (BeanDefinitionHolder subType : beans.get(type).subTypes) {
-          if (subType.beanDefinition != null) {
-            if (!subType.beanDefinition.getActualQualifiers().isEmpty()
-                && compareAnnotations(subType.beanDefinition.getActualQualifiers(),
-                    QualifierUtil.SPECIALIZES_ANNOTATION)) {
-              Collection<IOCBeanDef<T>> result = new HashSet<>();
-              result.add(subType.beanDefinition);
-              return result;
-            }
+      if (isDefault && !holder.subTypes.isEmpty()) {
+        for (BeanDefinitionHolder subType : holder.subTypes) {
+          if (subType.beanDefinition != null && QualifierKey
+              .has(subType.beanDefinition.getActualQualifierBits(), QualifierKey.SPECIALIZES)) {
+            return Collections.singleton(subType.beanDefinition);
           }
         }
-        for (BeanDefinitionHolder subType : beans.get(type).subTypes) {
-          if (subType.beanDefinition != null) {
-            if (!subType.beanDefinition.getActualQualifiers().isEmpty() && compareAnnotations(
-                subType.beanDefinition.getActualQualifiers(), QualifierUtil.DEFAULT_ANNOTATION)) {
-              Collection<IOCBeanDef<T>> result = new HashSet<>();
-              result.add(subType.beanDefinition);
-              return result;
-            }
+        for (BeanDefinitionHolder subType : holder.subTypes) {
+          if (subType.beanDefinition != null && QualifierKey
+              .has(subType.beanDefinition.getActualQualifierBits(), QualifierKey.DEFAULT)) {
+            return Collections.singleton(subType.beanDefinition);
           }
         }
-        for (BeanDefinitionHolder subType : beans.get(type).subTypes) {
-          Set<Annotation> annotations = new HashSet<>();
-          annotations.add(QualifierUtil.DEFAULT_ANNOTATION);
-          if (compareAnnotations(subType.beanDefinition.getActualQualifiers(), qualifiers)) {
+        for (BeanDefinitionHolder subType : holder.subTypes) {
+          if (matchesActual(subType.beanDefinition, qualifiers)) {
             if (subType.beanDefinition.getTyped().isPresent()) {
               continue;
             } else if (subType.beanDefinition.getFactory().isPresent())
@@ -189,14 +633,8 @@ public abstract class AbstractBeanManager implements BeanManager {
           }
         }
       } else {
-        Set<Annotation> _qual = new HashSet<>();
-        Collections.addAll(_qual, qualifiers);
-        Collections.addAll(_qual, QualifierUtil.DEFAULT_QUALIFIERS);
-        _qual.toArray(new Annotation[_qual.size()]);
-
-        for (BeanDefinitionHolder subType : beans.get(type).subTypes) {
-          if (compareAnnotations(subType.beanDefinition.getQualifiers(),
-              _qual.toArray(new Annotation[_qual.size()]))) {
+        for (BeanDefinitionHolder subType : holder.subTypes) {
+          if (QualifierKey.containsAll(subType.beanDefinition.getQualifierBits(), qualifiers)) {
             if (subType.beanDefinition.getTyped().isPresent()
                 && !isDefault(subType.beanDefinition.getActualQualifiers())) {
               continue;
@@ -213,23 +651,67 @@ public abstract class AbstractBeanManager implements BeanManager {
     if (qualifiers.isEmpty()) {
       return false;
     }
-    return isDefault(qualifiers.toArray(new Annotation[qualifiers.size()]));
+    return QualifierKey.idOf(qualifiers.iterator().next()) == QualifierKey.DEFAULT;
   }
 
-  private boolean isDefault(Annotation[] qualifiers) {
-    Annotation[] a1 = new Annotation[] {qualifiers[0]};
-    Annotation[] a2 = new Annotation[] {QualifierUtil.DEFAULT_ANNOTATION};
-    return QualifierUtil.matches(a1, a2);
+  private static class BeanDefinitionHolder {
+
+    SyncBeanDefImpl beanDefinition;
+    Set<BeanDefinitionHolder> subTypes = new HashSet<>();
   }
 
-  private boolean compareAnnotations(Annotation[] all, Annotation[] in) {
-    return QualifierUtil.matches(in, all);
+  /**
+   * Creates the factory of a bean, generated factories are referenced by their constructors.
+   */
+  public interface FactoryProvider {
+
+    BeanFactory<?> create(BeanManager beanManager);
   }
 
-  private static class BeanDefinitionHolder {
+  /**
+   * Lookup waiting for a chunk, called once the chunk is registered or has failed to load.
+   */
+  private static class ChunkWaiter {
 
-    SyncBeanDefImpl beanDefinition;
-    Set<BeanDefinitionHolder> subTypes = new HashSet<>();
+    private final Runnable onLoad;
+    private final Consumer<Object> onError;
+
+    private ChunkWaiter(Runnable onLoad, Consumer<Object> onError) {
+      this.onLoad = onLoad;
+      this.onError = onError;
+    }
+  }
+
+  /**
+   * Rejects the Promise lookups in the JRE, the overriding method is stripped in J2CL.
+   */
+  private static class Promises {
+
+    void check(Class<?> type) {
+
+    }
+  }
+
+  private static class JREPromises extends Promises {
+
+    @GwtIncompatible
+    @Override
+    void check(Class<?> type) {
+      throw new UnsupportedOperationException("lookupBeanAsync returns a JavaScript Promise, it's "
+          + "J2CL only, use lookupBeanFuture to look up " + type.getName() + " in the JRE");
+    }
+  }
+
+  private static class PendingBean {
+
+    private final Class<?>[] assignableTypes;
+    private final Function<Class<?>[], SyncBeanDefImpl> beanDefinition;
+
+    private PendingBean(Class<?>[] assignableTypes,
+        Function<Class<?>[], SyncBeanDefImpl> beanDefinition) {
+      this.assignableTypes = assignableTypes;
+      this.beanDefinition = beanDefinition;
+    }
   }
 }
 
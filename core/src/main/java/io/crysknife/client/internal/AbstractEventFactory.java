@@ -14,9 +14,13 @@
 package io.crysknife.client.internal;
 
 import io.crysknife.client.BeanManager;
+import io.crysknife.event.EventCompletion;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 import javax.enterprise.event.Event;
 
@@ -33,6 +37,12 @@ public abstract class AbstractEventFactory {
 
   protected Map<Class, AbstractEventHandler> holder = new HashMap<>();
 
+  private final Map<Class, Map<String, AbstractEventHandler>> qualified = new HashMap<>();
+
+  private final EventScheduler scheduler = EventScheduler.get();
+
+  private List<PendingEvent> pending = new ArrayList<>();
+
   public <T> Event<T> get(Class type) {
     if (!holder.containsKey(type)) {
       holder.put(type, new EventHolder());
@@ -41,10 +51,116 @@ public abstract class AbstractEventFactory {
     return holder.get(type);
   }
 
-  public class EventHolder<T> extends AbstractEventHandler {
+  /**
+   * @param qualifiers qualifiers of the event in the canonical form computed by the processor: their
+   *        sorted and comma separated names, javax.inject.Named("value") for named events
+   */
+  public <T> Event<T> get(Class type, String qualifiers) {
+    if (qualifiers == null || qualifiers.isEmpty()) {
+      return get(type);
+    }
+    Map<String, AbstractEventHandler> handlers = qualified.get(type);
+    if (handlers == null) {
+      handlers = new HashMap<>();
+      qualified.put(type, handlers);
+    }
+    AbstractEventHandler handler = handlers.get(qualifiers);
+    if (handler == null) {
+      handler = new EventHolder();
+      handlers.put(qualifiers, handler);
+    }
+    return handler;
+  }
+
+  /**
+   * Events fired on type and qualifiers are delivered to the observers of target and
+   * targetQualifiers as well, called from the generated factory for every supertype and every subset
+   * of the qualifiers of the event that is observed.
+   */
+  protected void addRoute(Class type, String qualifiers, Class target, String targetQualifiers) {
+    ((AbstractEventHandler) get(type, qualifiers))
+        .addRoute((AbstractEventHandler) get(target, targetQualifiers));
+  }
+
+  private synchronized <U> EventCompletion<U> enqueue(AbstractEventHandler handler, U event) {
+    PendingEvent<U> pendingEvent = new PendingEvent<>(handler, event);
+    pending.add(pendingEvent);
+    if (pending.size() == 1) {
+      scheduler.schedule(this::flush);
+    }
+    return pendingEvent;
+  }
+
+  private void flush() {
+    List<PendingEvent> events;
+    synchronized (this) {
+      events = pending;
+      pending = new ArrayList<>();
+    }
+    for (int i = 0; i < events.size(); i++) {
+      events.get(i).deliver();
+    }
+  }
+
+  public class EventHolder<T> extends AbstractEventHandler<T, Object> {
 
     public EventHolder() {
 
     }
+
+    @Override
+    public <U extends T> EventCompletion<U> fireAsync(U event) {
+      return enqueue(this, event);
+    }
+  }
+
+  /**
+   * An event of the batch, an observer that throws completes its event exceptionally and doesn't
+   * prevent the delivery of the rest of the batch.
+   */
+  private static final class PendingEvent<U> implements EventCompletion<U> {
+
+    private final AbstractEventHandler handler;
+    private final U event;
+    private List<BiConsumer<? super U, ? super Throwable>> actions = new ArrayList<>();
+    private Throwable error;
+
+    private PendingEvent(AbstractEventHandler handler, U event) {
+      this.handler = handler;
+      this.event = event;
+    }
+
+    @Override
+    public void whenComplete(BiConsumer<? super U, ? super Throwable> action) {
+      synchronized (this) {
+        if (actions != null) {
+          actions.add(action);
+          return;
+        }
+      }
+      complete(action);
+    }
+
+    private void deliver() {
+      Throwable error = null;
+      try {
+        handler.fire(event);
+      } catch (RuntimeException e) {
+        error = e;
+      }
+      List<BiConsumer<? super U, ? super Throwable>> actions;
+      synchronized (this) {
+        this.error = error;
+        actions = this.actions;
+        this.actions = null;
+      }
+      for (int i = 0; i < actions.size(); i++) {
+        complete(actions.get(i));
+      }
+    }
+
+    private void complete(BiConsumer<? super U, ? super Throwable> action) {
+      action.accept(error == null ? event : null, error);
+    }
   }
 }
@@ -13,41 +13,84 @@
  */
 package io.crysknife.client.internal;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 import java.util.function.BiConsumer;
 
 import javax.enterprise.event.Event;
 
 /**
+ * Subscribers and routes are kept in copy-on-write arrays, so fire() iterates a snapshot and
+ * doesn't allocate, subscribing and unsubscribing are rare comparing to firing. Routes are the
+ * handlers of the supertypes and the less qualified variants of the event, they are resolved at
+ * compile time.
+ *
  * @author Dmitrii Tikhomirov Created by treblereel 4/1/19
  */
 public abstract class AbstractEventHandler<T, I> implements Event<T> {
 
-  private Map<I, List<BiConsumer<T, I>>> subscribers = new HashMap<>();
+  private static final Subscriber[] NO_SUBSCRIBERS = new Subscriber[0];
+  private static final AbstractEventHandler[] NO_ROUTES = new AbstractEventHandler[0];
+
+  private volatile Subscriber<T, I>[] subscribers = NO_SUBSCRIBERS;
+
+  private volatile AbstractEventHandler<T, ?>[] routes = NO_ROUTES;
 
   public void fire(T t) {
-    subscribers.forEach((instance, subscribers) -> subscribers
-        .forEach(subscriber -> subscriber.accept(t, instance)));
+    deliver(t);
+    AbstractEventHandler<T, ?>[] routes = this.routes;
+    for (int i = 0; i < routes.length; i++) {
+      routes[i].deliver(t);
+    }
   }
 
-  public void addSubscriber(I instance, BiConsumer<T, I> subscriber) {
-    if (!subscribers.containsKey(instance)) {
-      subscribers.put(instance, new ArrayList<>());
+  void deliver(T t) {
+    Subscriber<T, I>[] subscribers = this.subscribers;
+    for (int i = 0; i < subscribers.length; i++) {
+      subscribers[i].consumer.accept(t, subscribers[i].instance);
     }
-    subscribers.get(instance).add(subscriber);
   }
 
-  public void removeSubscriber(I instance, BiConsumer<T, I> subscriber) {
-    if (subscribers.containsKey(instance)) {
-      if (subscribers.get(instance).contains(subscriber)) {
-        subscribers.get(instance).remove(subscriber);
+  public synchronized void addSubscriber(I instance, BiConsumer<T, I> subscriber) {
+    Subscriber<T, I>[] current = subscribers;
+    Subscriber<T, I>[] copy = new Subscriber[current.length + 1];
+    System.arraycopy(current, 0, copy, 0, current.length);
+    copy[current.length] = new Subscriber<>(instance, subscriber);
+    subscribers = copy;
+  }
+
+  public synchronized void removeSubscriber(I instance, BiConsumer<T, I> subscriber) {
+    Subscriber<T, I>[] current = subscribers;
+    for (int i = 0; i < current.length; i++) {
+      if (current[i].instance.equals(instance) && current[i].consumer.equals(subscriber)) {
+        Subscriber<T, I>[] copy = new Subscriber[current.length - 1];
+        System.arraycopy(current, 0, copy, 0, i);
+        System.arraycopy(current, i + 1, copy, i, current.length - i - 1);
+        subscribers = copy;
+        return;
       }
-      if (subscribers.get(instance).isEmpty()) {
-        subscribers.remove(instance);
+    }
+  }
+
+  synchronized void addRoute(AbstractEventHandler<T, ?> route) {
+    AbstractEventHandler<T, ?>[] current = routes;
+    for (AbstractEventHandler<T, ?> handler : current) {
+      if (handler == route) {
+        return;
       }
     }
+    AbstractEventHandler<T, ?>[] copy = new AbstractEventHandler[current.length + 1];
+    System.arraycopy(current, 0, copy, 0, current.length);
+    copy[current.length] = route;
+    routes = copy;
+  }
+
+  private static final class Subscriber<T, I> {
+
+    private final I instance;
+    private final BiConsumer<T, I> consumer;
+
+    private Subscriber(I instance, BiConsumer<T, I> consumer) {
+      this.instance = instance;
+      this.consumer = consumer;
+    }
   }
 }
@@ -29,9 +29,9 @@ public abstract class BeanFactory<T> {
 
   protected SyncBeanDef beanDef;
 
-  protected T instance;
+  protected volatile T instance;
   private T incompleteInstance;
-  private boolean initialized = false;
+  private volatile boolean initialized = false;
 
   protected BeanFactory(BeanManager beanManager) {
     this.beanManager = (AbstractBeanManager) beanManager;
@@ -47,6 +47,15 @@ public abstract class BeanFactory<T> {
 
   public abstract <T> T getInstance();
 
+  /**
+   * @return the instance, if it has been created and initialized, otherwise null. The JRE singleton
+   *         factories create the instance under their lock and return it without the lock once
+   *         it's initialized, initialized is set after the instance, so the instance is visible.
+   */
+  protected T getInitializedInstance() {
+    return initialized ? instance : null;
+  }
+
   public void initInstance(T instance) {
     if (beanDef.getScope().equals(Dependent.class) || !initialized) {
       doInitInstance(instance);
@@ -71,8 +80,7 @@ public abstract class BeanFactory<T> {
   }
 
   protected <T> T createInstanceInternal() {
-    T instance = createInstance();
-    return addBeanInstanceToPool(instance, this);
+    return (T) beanManager.createInstance(this);
   }
 
   public T createContextualInstance(final Class<?>[] typeArgs, final Annotation[] qualifiers) {
@@ -84,10 +92,27 @@ public abstract class BeanFactory<T> {
 
   }
 
+  /**
+   * Instances of factories without destroy callbacks are tracked only if they have dependents that
+   * need to be destroyed, the generated factories override it.
+   */
+  protected boolean hasDestroyCallbacks() {
+    return true;
+  }
+
+  /**
+   * Instances, whose @Dependent fields are injected lazily by the aspects, are tracked, so the
+   * fields find the context they belong to when they are created, the generated factories override
+   * it.
+   */
+  protected boolean hasLazyDependents() {
+    return false;
+  }
+
   void onDestroyInternal(T instance) {
     onDestroy(instance);
-    this.instance = null;
     initialized = false;
+    this.instance = null;
   }
 
   protected <T> T addBeanInstanceToPool(Object instance, BeanFactory factory) {
@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.client.internal;
+
+import javax.enterprise.context.Dependent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks an instance together with the @Dependent instances created for it, they are destroyed with
+ * it. Instances without destroy callbacks and without tracked dependents are not tracked at all.
+ *
+ * It's public only to be captured by the lazily injected fields, see
+ * {@link AbstractBeanManager#createDependency(CreationalContext, java.util.function.Supplier)}.
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+public final class CreationalContext {
+
+  final BeanFactory factory;
+  final CreationalContext parent;
+  Object instance;
+  boolean destroyed;
+  private List<CreationalContext> dependents;
+
+  CreationalContext(BeanFactory factory, CreationalContext parent) {
+    this.factory = factory;
+    this.parent = parent;
+  }
+
+  boolean isDependent() {
+    return factory.beanDef != null && Dependent.class.equals(factory.beanDef.getScope());
+  }
+
+  boolean isTracked() {
+    return factory.hasDestroyCallbacks() || factory.hasLazyDependents() || dependents != null;
+  }
+
+  void addDependent(CreationalContext dependent) {
+    if (dependents == null) {
+      dependents = new ArrayList<>();
+    }
+    dependents.add(dependent);
+  }
+
+  void removeDependent(CreationalContext dependent) {
+    if (dependents != null) {
+      dependents.remove(dependent);
+    }
+  }
+
+  /**
+   * Marks the context and its dependents as destroyed and removes the dependents from the given
+   * contexts. The destroy callbacks run later, in {@link #destroy()}, without the lock of the bean
+   * manager.
+   *
+   * @param destroyed receives the contexts to destroy, in the order they must be destroyed
+   */
+  void detach(Map<Object, CreationalContext> contexts, List<CreationalContext> destroyed) {
+    this.destroyed = true;
+    destroyed.add(this);
+    if (dependents != null) {
+      for (CreationalContext dependent : dependents) {
+        contexts.remove(dependent.instance);
+        dependent.detach(contexts, destroyed);
+      }
+      dependents = null;
+    }
+  }
+
+  void destroy() {
+    factory.onDestroyInternal(instance);
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.client.internal;
+
+import io.crysknife.client.GwtIncompatible;
+
+/**
+ * Creational context of the instance that is being created, a field in J2CL, a thread local in the
+ * JRE, so threads that create instances concurrently don't see each other's contexts.
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+class CurrentContext {
+
+  private CreationalContext context;
+
+  static CurrentContext create() {
+    return new JRECurrentContext();
+  }
+
+  CreationalContext get() {
+    return context;
+  }
+
+  void set(CreationalContext context) {
+    this.context = context;
+  }
+
+  private static class JRECurrentContext extends CurrentContext {
+
+    @GwtIncompatible
+    private final ThreadLocal<CreationalContext> contexts = new ThreadLocal<>();
+
+    @GwtIncompatible
+    @Override
+    CreationalContext get() {
+      return contexts.get();
+    }
+
+    @GwtIncompatible
+    @Override
+    void set(CreationalContext context) {
+      if (context == null) {
+        contexts.remove();
+      } else {
+        contexts.set(context);
+      }
+    }
+  }
+}
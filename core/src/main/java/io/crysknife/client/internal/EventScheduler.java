@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.client.internal;
+
+import io.crysknife.client.GwtIncompatible;
+import jsinterop.annotations.JsFunction;
+import jsinterop.annotations.JsMethod;
+import jsinterop.annotations.JsPackage;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules the delivery of a batch of asynchronous events, a microtask in J2CL, a task of a single
+ * daemon thread in the JRE, so the observers of the batch are called one by one and in order. The
+ * JRE thread stops once it has been idle for a second, shutdown() stops it at once.
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+public class EventScheduler {
+
+  static EventScheduler get() {
+    return new JREEventScheduler();
+  }
+
+  void schedule(Runnable task) {
+    queueMicrotask(task::run);
+  }
+
+  /**
+   * Stops the JRE delivery thread after the scheduled batches have been delivered, a later
+   * fireAsync() starts a new one.
+   *
+   * @return false if the batches haven't been delivered within the timeout
+   */
+  @GwtIncompatible
+  public static boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+    return JREEventScheduler.stop(timeout, unit);
+  }
+
+  @JsMethod(namespace = JsPackage.GLOBAL)
+  private static native void queueMicrotask(Microtask task);
+
+  @JsFunction
+  private interface Microtask {
+
+    void run();
+  }
+
+  private static class JREEventScheduler extends EventScheduler {
+
+    @GwtIncompatible
+    private static ThreadPoolExecutor executor;
+
+    @GwtIncompatible
+    @Override
+    void schedule(Runnable task) {
+      executor().execute(task);
+    }
+
+    @GwtIncompatible
+    private static synchronized Executor executor() {
+      if (executor == null) {
+        executor = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            runnable -> {
+              Thread thread = new Thread(runnable, "crysknife-events");
+              thread.setDaemon(true);
+              return thread;
+            });
+        executor.allowCoreThreadTimeOut(true);
+      }
+      return executor;
+    }
+
+    @GwtIncompatible
+    private static boolean stop(long timeout, TimeUnit unit) throws InterruptedException {
+      ThreadPoolExecutor current;
+      synchronized (JREEventScheduler.class) {
+        current = executor;
+        executor = null;
+      }
+      if (current == null) {
+        return true;
+      }
+      current.shutdown();
+      return current.awaitTermination(timeout, unit);
+    }
+  }
+}
@@ -19,12 +19,19 @@ import io.crysknife.client.IOCBeanDef;
 import io.crysknife.client.ManagedInstance;
 import io.crysknife.client.SyncBeanDef;
 
+import javax.enterprise.context.Dependent;
 import java.lang.annotation.Annotation;
 import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.function.Consumer;
 
 /**
+ * Resolution is cached until a bean is registered, @Dependent instances it hands out are kept, so
+ * they can be destroyed with {@link #destroyAll()}, but only if the bean manager tracks them, as
+ * the others have nothing to destroy.
+ *
  * @author Dmitrii Tikhomirov Created by treblereel 4/25/21
  */
 public class ManagedInstanceImpl<T> implements ManagedInstance<T> {
@@ -35,6 +42,20 @@ public class ManagedInstanceImpl<T> implements ManagedInstance<T> {
 
   private Annotation[] qualifiers;
 
+  private final int[] qualifierBits;
+
+  private final boolean isDefault;
+
+  private final Map<T, Boolean> instances = new IdentityHashMap<>();
+
+  private int registrations = -1;
+
+  private SyncBeanDef<T> bean;
+
+  private Boolean unsatisfied;
+
+  private Boolean ambiguous;
+
   public ManagedInstanceImpl(BeanManager beanManager, Class<T> type) {
     this(beanManager, type, new Annotation[] {});
   }
@@ -43,6 +64,14 @@ public class ManagedInstanceImpl<T> implements ManagedInstance<T> {
     this.type = type;
     this.beanManager = beanManager;
     this.qualifiers = qualifiers;
+    if (qualifiers == null || qualifiers.length == 0) {
+      this.qualifierBits = QualifierKey.bitsOf(QualifierUtil.DEFAULT_ANNOTATION);
+      this.isDefault = true;
+    } else {
+      this.qualifierBits = QualifierKey.bitsOf(qualifiers);
+      this.isDefault =
+          qualifiers.length == 1 && QualifierKey.idOf(qualifiers[0]) == QualifierKey.DEFAULT;
+    }
   }
 
   @Override
@@ -57,44 +86,81 @@ public class ManagedInstanceImpl<T> implements ManagedInstance<T> {
 
   @Override
   public boolean isUnsatisfied() {
-    if (qualifiers == null || qualifiers.length == 0) {
-      qualifiers = new Annotation[] {QualifierUtil.DEFAULT_ANNOTATION};
+    setDefaultQualifier();
+    validate();
+    if (unsatisfied == null) {
+      Collection<IOCBeanDef<T>> result =
+          ((AbstractBeanManager) beanManager).doLookupBean(type, qualifierBits, isDefault);
+      unsatisfied = result.size() != 1;
     }
-
-    Collection<IOCBeanDef<T>> result =
-        ((AbstractBeanManager) beanManager).doLookupBean(type, qualifiers);
-    return result.size() != 1;
+    return unsatisfied;
   }
 
   @Override
   public boolean isAmbiguous() {
-    return beanManager.lookupBeans(type, qualifiers).stream().count() > 1;
+    validate();
+    if (ambiguous == null) {
+      ambiguous = beanManager.lookupBeans(type, qualifiers).size() > 1;
+    }
+    return ambiguous;
   }
 
   @Override
   public void destroy(T instance) {
-
+    if (instances.remove(instance) != null) {
+      beanManager.destroyBean(instance);
+    }
   }
 
   @Override
   public void destroyAll() {
-
+    for (T instance : instances.keySet()) {
+      beanManager.destroyBean(instance);
+    }
+    instances.clear();
   }
 
   @Override
   public Iterator<T> iterator() {
-    return new ManagedInstanceImplIterator<>(beanManager.lookupBeans(type, qualifiers));
+    return new ManagedInstanceImplIterator(beanManager.lookupBeans(type, qualifiers));
   }
 
   @Override
   public T get() {
-    if (qualifiers.length == 0) {
+    setDefaultQualifier();
+    validate();
+    if (bean == null) {
+      bean = beanManager.lookupBean(type, qualifiers);
+    }
+    return track(bean, bean.getInstance());
+  }
+
+  private void setDefaultQualifier() {
+    if (qualifiers == null || qualifiers.length == 0) {
       qualifiers = new Annotation[] {QualifierUtil.DEFAULT_ANNOTATION};
+      ambiguous = null;
+    }
+  }
+
+  private void validate() {
+    int current = ((AbstractBeanManager) beanManager).getRegistrations();
+    if (registrations != current) {
+      registrations = current;
+      bean = null;
+      unsatisfied = null;
+      ambiguous = null;
+    }
+  }
+
+  private T track(SyncBeanDef<T> bean, T instance) {
+    if (Dependent.class.equals(bean.getScope())
+        && ((AbstractBeanManager) beanManager).getCreationalContext(instance) != null) {
+      instances.put(instance, Boolean.TRUE);
     }
-    return beanManager.lookupBean(type, qualifiers).getInstance();
+    return instance;
   }
 
-  private static class ManagedInstanceImplIterator<T> implements Iterator<T> {
+  private class ManagedInstanceImplIterator implements Iterator<T> {
 
     private final Iterator<SyncBeanDef<T>> delegate;
 
@@ -110,8 +176,7 @@ public class ManagedInstanceImpl<T> implements ManagedInstance<T> {
     @Override
     public T next() {
       final SyncBeanDef<T> bean = delegate.next();
-      final T instance = bean.getInstance();
-      return instance;
+      return track(bean, bean.getInstance());
     }
   }
 }
@@ -0,0 +1,168 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.client.internal;
+
+import javax.inject.Named;
+import java.lang.annotation.Annotation;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Canonical registry of qualifiers. Each distinct qualifier, in the sense of
+ * {@link BeanManagerUtil#qualifierToString(Annotation)}, gets a small integer id, so a set of
+ * qualifiers can be stored as a bitset and compared without building strings.
+ *
+ * Bitsets are int based, because long is emulated in J2CL. The registry is shared by all threads
+ * on the JRE, so the lookups are synchronized.
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+public final class QualifierKey {
+
+  private static final int[] EMPTY = new int[0];
+
+  private static final Map<String, Integer> ids = new HashMap<>();
+  private static final Map<Class<? extends Annotation>, Integer> idsByType = new HashMap<>();
+  private static final Map<String, Integer> idsByName = new HashMap<>();
+
+  /**
+   * Generated code shares one instance per qualifier value, so most lookups end here. It's
+   * bounded, as instances created by the application on each lookup would fill it up.
+   */
+  private static final int MAX_INSTANCES = 1024;
+  private static final Map<Annotation, Integer> idsByInstance = new IdentityHashMap<>();
+
+  public static final int DEFAULT = idOf(QualifierUtil.DEFAULT_ANNOTATION);
+  public static final int SPECIALIZES = idOf(QualifierUtil.SPECIALIZES_ANNOTATION);
+
+  private QualifierKey() {
+
+  }
+
+  /**
+   * @param qualifier qualifier in the form of {@link BeanManagerUtil#qualifierToString(Annotation)}
+   * @return id of the qualifier
+   */
+  public static synchronized int idOf(String qualifier) {
+    Integer id = ids.get(qualifier);
+    if (id == null) {
+      id = ids.size();
+      ids.put(qualifier, id);
+    }
+    return id;
+  }
+
+  public static synchronized int idOf(Annotation qualifier) {
+    Integer known = idsByInstance.get(qualifier);
+    if (known != null) {
+      return known;
+    }
+    int id = computeId(qualifier);
+    if (idsByInstance.size() < MAX_INSTANCES) {
+      idsByInstance.put(qualifier, id);
+    }
+    return id;
+  }
+
+  private static int computeId(Annotation qualifier) {
+    if (qualifier instanceof Named) {
+      String name = ((Named) qualifier).value();
+      Integer id = idsByName.get(name);
+      if (id == null) {
+        id = idOf(BeanManagerUtil.qualifierToString(qualifier));
+        idsByName.put(name, id);
+      }
+      return id;
+    }
+
+    Class<? extends Annotation> type = qualifier.annotationType();
+    Integer id = idsByType.get(type);
+    if (id == null) {
+      id = idOf(BeanManagerUtil.qualifierToString(qualifier));
+      idsByType.put(type, id);
+    }
+    return id;
+  }
+
+  public static int[] bitsOf(Annotation... qualifiers) {
+    if (qualifiers == null || qualifiers.length == 0) {
+      return EMPTY;
+    }
+    int[] bits = EMPTY;
+    for (Annotation qualifier : qualifiers) {
+      bits = set(bits, idOf(qualifier));
+    }
+    return bits;
+  }
+
+  public static int[] bitsOf(Collection<Annotation> qualifiers) {
+    if (qualifiers == null || qualifiers.isEmpty()) {
+      return EMPTY;
+    }
+    int[] bits = EMPTY;
+    for (Annotation qualifier : qualifiers) {
+      bits = set(bits, idOf(qualifier));
+    }
+    return bits;
+  }
+
+  private static int[] set(int[] bits, int id) {
+    int word = id >>> 5;
+    if (word >= bits.length) {
+      int[] copy = new int[word + 1];
+      System.arraycopy(bits, 0, copy, 0, bits.length);
+      bits = copy;
+    }
+    bits[word] |= 1 << (id & 31);
+    return bits;
+  }
+
+  public static int[] union(int[] bits, int[] other) {
+    int[] result = new int[Math.max(bits.length, other.length)];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = (i < bits.length ? bits[i] : 0) | (i < other.length ? other[i] : 0);
+    }
+    return result;
+  }
+
+  public static boolean has(int[] bits, int id) {
+    int word = id >>> 5;
+    return word < bits.length && (bits[word] & (1 << (id & 31))) != 0;
+  }
+
+  public static boolean isEmpty(int[] bits) {
+    for (int word : bits) {
+      if (word != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return true iff every qualifier of {@code allOf} is in {@code in}
+   */
+  public static boolean containsAll(int[] in, int[] allOf) {
+    for (int i = 0; i < allOf.length; i++) {
+      int word = i < in.length ? in[i] : 0;
+      if ((allOf[i] & ~word) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -119,22 +119,7 @@ public class QualifierUtil {
     if (allOf.isEmpty())
       return true;
 
-    final Map<String, Annotation> allOfMap = new HashMap<>();
-    final Map<String, Annotation> inMap = new HashMap<>();
-
-    for (final Annotation a : in) {
-      inMap.put(BeanManagerUtil.qualifierToString(a), a);
-    }
-
-    for (final Annotation a : allOf) {
-      allOfMap.put(BeanManagerUtil.qualifierToString(a), a);
-    }
-
-    if (!inMap.keySet().containsAll(allOfMap.keySet())) {
-      return false;
-    }
-
-    return true;
+    return QualifierKey.containsAll(QualifierKey.bitsOf(in), QualifierKey.bitsOf(allOf));
   }
 
   public static boolean isDefaultAnnotations(final Annotation[] annotations) {
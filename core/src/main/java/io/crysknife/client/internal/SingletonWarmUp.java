@@ -0,0 +1,72 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.client.internal;
+
+import io.crysknife.client.BeanManager;
+import io.crysknife.client.GwtIncompatible;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Creates the singletons of a JRE application at startup, instead of on the first lookup. The
+ * singletons come in waves computed by the annotation processor, the beans of a wave depend only
+ * on the beans of the previous waves, so each wave is created in parallel.
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+@GwtIncompatible
+public final class SingletonWarmUp {
+
+  private SingletonWarmUp() {
+
+  }
+
+  public static void run(BeanManager beanManager, Class<?>[][] waves) {
+    AbstractBeanManager manager = (AbstractBeanManager) beanManager;
+    ForkJoinPool pool = new ForkJoinPool();
+    try {
+      for (Class<?>[] wave : waves) {
+        if (wave.length == 1) {
+          create(manager, wave[0]);
+        } else {
+          pool.submit(() -> Arrays.stream(wave).parallel().forEach(type -> create(manager, type)))
+              .get();
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private static void create(AbstractBeanManager manager, Class<?> type) {
+    SyncBeanDefImpl<?> definition = manager.lookupBeanDefinition(type);
+    if (definition != null) {
+      definition.getInstance();
+    }
+  }
+}
@@ -37,9 +37,15 @@ public class SyncBeanDefImpl<T> implements SyncBeanDef<T> {
   private static final List<Annotation> defaultQualifiers =
       Arrays.asList(QualifierUtil.DEFAULT_QUALIFIERS);
 
+  private static final int[] defaultQualifierBits =
+      QualifierKey.bitsOf(QualifierUtil.DEFAULT_QUALIFIERS);
+
   private final Class<T> actualType;
   private final Class<? extends Annotation> scope;
   private List<Annotation> qualifiers;
+  private Collection<Annotation> allQualifiers;
+  private int[] actualQualifierBits = new int[0];
+  private int[] qualifierBits = defaultQualifierBits;
   private List<Class<?>> assignableTypes;
   private Optional<BeanFactory<T>> factory = Optional.empty();
   private Optional<Typed> typed = Optional.empty();
@@ -79,10 +85,27 @@ public class SyncBeanDefImpl<T> implements SyncBeanDef<T> {
 
   @Override
   public Collection<Annotation> getQualifiers() {
-    Set<Annotation> temp = new HashSet<>(defaultQualifiers);
-    if (qualifiers != null)
-      temp.addAll(qualifiers);
-    return Collections.unmodifiableCollection(temp);
+    if (allQualifiers == null) {
+      Set<Annotation> temp = new HashSet<>(defaultQualifiers);
+      if (qualifiers != null)
+        temp.addAll(qualifiers);
+      allQualifiers = Collections.unmodifiableCollection(temp);
+    }
+    return allQualifiers;
+  }
+
+  /**
+   * @return qualifiers of this bean and the default ones, as {@link QualifierKey} bitset
+   */
+  int[] getQualifierBits() {
+    return qualifierBits;
+  }
+
+  /**
+   * @return qualifiers of this bean, as {@link QualifierKey} bitset
+   */
+  int[] getActualQualifierBits() {
+    return actualQualifierBits;
   }
 
   @Override
@@ -101,7 +124,7 @@ public class SyncBeanDefImpl<T> implements SyncBeanDef<T> {
 
   @Override
   public boolean matches(Set<Annotation> annotations) {
-    return QualifierUtil.matches(annotations, getQualifiers());
+    return QualifierKey.containsAll(qualifierBits, QualifierKey.bitsOf(annotations));
   }
 
   @Override
@@ -201,6 +224,9 @@ public class SyncBeanDefImpl<T> implements SyncBeanDef<T> {
       SyncBeanDefImpl<T> definition = new SyncBeanDefImpl(actualType, scope);
       if (qualifiers != null) {
         definition.qualifiers = qualifiers;
+        definition.actualQualifierBits = QualifierKey.bitsOf(qualifiers);
+        definition.qualifierBits =
+            QualifierKey.union(defaultQualifierBits, definition.actualQualifierBits);
       }
 
       if (assignableTypes != null) {
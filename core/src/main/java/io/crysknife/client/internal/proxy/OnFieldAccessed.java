@@ -17,7 +17,10 @@ import java.util.function.BiFunction;
 import java.util.function.Supplier;
 
 import elemental2.core.Reflect;
+import io.crysknife.client.BeanManager;
 import io.crysknife.client.InstanceFactory;
+import io.crysknife.client.internal.AbstractBeanManager;
+import io.crysknife.client.internal.CreationalContext;
 
 /**
  * @author Dmitrii Tikhomirov Created by treblereel 1/1/20
@@ -26,14 +29,31 @@ public final class OnFieldAccessed implements BiFunction<Object, String, Object>
 
   private final Supplier<InstanceFactory> supplier;
 
+  private final AbstractBeanManager beanManager;
+
+  private final CreationalContext owner;
+
   public OnFieldAccessed(Supplier<InstanceFactory> supplier) {
     this.supplier = supplier;
+    this.beanManager = null;
+    this.owner = null;
+  }
+
+  /**
+   * Created within the creational context of the intercepted instance, the field is created later
+   * within the same context, so it's destroyed with the instance.
+   */
+  public OnFieldAccessed(BeanManager beanManager, Supplier<InstanceFactory> supplier) {
+    this.supplier = supplier;
+    this.beanManager = (AbstractBeanManager) beanManager;
+    this.owner = this.beanManager.getCreationalContext();
   }
 
   @Override
   public Object apply(Object o, String propertyKey) {
     if (Reflect.get(o, propertyKey) == null) {
-      Reflect.set(o, propertyKey, supplier.get().getInstance());
+      Reflect.set(o, propertyKey, beanManager == null ? supplier.get().getInstance()
+          : beanManager.createDependency(owner, () -> supplier.get().getInstance()));
     }
     return Reflect.get(o, propertyKey);
   }
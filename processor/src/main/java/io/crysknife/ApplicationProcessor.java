@@ -16,26 +16,23 @@ package io.crysknife;
 
 import com.google.auto.service.AutoService;
 import io.crysknife.annotation.Application;
-import io.crysknife.annotation.Generator;
 import io.crysknife.exception.GenerationException;
 import io.crysknife.generator.BeanManagerGenerator;
 import io.crysknife.generator.FactoryGenerator;
 import io.crysknife.generator.IOCGenerator;
+import io.crysknife.generator.QualifiersGenerator;
 import io.crysknife.generator.context.GenerationContext;
 import io.crysknife.generator.context.IOCContext;
 import io.crysknife.generator.info.BeanInfoGenerator;
 import io.crysknife.logger.PrintWriterTreeLogger;
 import io.crysknife.logger.TreeLogger;
 import io.crysknife.task.*;
-import io.github.classgraph.ClassGraph;
-import io.github.classgraph.ClassInfo;
-import io.github.classgraph.ClassInfoList;
-import io.github.classgraph.ScanResult;
 
 import javax.annotation.processing.AbstractProcessor;
 import javax.annotation.processing.Processor;
 import javax.annotation.processing.RoundEnvironment;
 import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
 import javax.annotation.processing.SupportedSourceVersion;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.TypeElement;
@@ -48,6 +45,12 @@ import java.util.Set;
 @AutoService(Processor.class)
 @SupportedSourceVersion(SourceVersion.RELEASE_8)
 @SupportedAnnotationTypes({"io.crysknife.annotation.Application"})
+@SupportedOptions({GenerationContext.PROXYLESS_OPTION, GenerationContext.EXECUTION_ENV_OPTION,
+    GenerationContext.JRE_DIRECT_INJECTION_OPTION, GenerationContext.JRE_WARM_UP_OPTION,
+    GenerationContext.TREE_SHAKING_OPTION, GenerationContext.KEEP_OPTION,
+    GenerationContext.INCREMENTAL_OPTION, GenerationContext.FULL_SCAN_OPTION,
+    GenerationContext.THREADS_OPTION, GenerationContext.PROFILE_OPTION,
+    GenerationContext.MINIFY_TEMPLATES_OPTION})
 public class ApplicationProcessor extends AbstractProcessor {
 
   private IOCContext iocContext;
@@ -75,7 +78,7 @@ public class ApplicationProcessor extends AbstractProcessor {
 
     initAndRegisterGenerators(logger);
 
-    TaskGroup taskGroup = new TaskGroup(logger.branch(TreeLogger.DEBUG, "start processing"));
+    TaskGroup taskGroup = new TaskGroup(iocContext, logger.branch(TreeLogger.DEBUG, "start processing"));
     // taskGroup.addTask(new InitAndRegisterGeneratorsTask(iocContext, logger));
     taskGroup.addTask(new FireBeforeTask(iocContext, logger));
     taskGroup.addTask(new IOCProviderTask(iocContext, logger));
@@ -84,13 +87,17 @@ public class ApplicationProcessor extends AbstractProcessor {
     // taskGroup.addTask(new FireBeforeTask(iocContext, logger));
     taskGroup.addTask(new ProcessGraphTask(iocContext, logger, application));
     taskGroup.addTask(new CheckCyclesTask(iocContext, logger));
+    taskGroup.addTask(new CheckAsyncBeansTask(iocContext, logger));
 
     taskGroup.addTask(new MethodParamDecoratorTask(iocContext, logger));
+    taskGroup.addTask(new LoadBeanGraphCacheTask(iocContext, logger));
 
     taskGroup.addTask(new FactoryGenerator(iocContext, logger));
     taskGroup.addTask(new BeanInfoGenerator(iocContext, logger));
     taskGroup.addTask(new BeanManagerGenerator(iocContext, logger));
     taskGroup.addTask(new FireAfterTask(iocContext, logger));
+    taskGroup.addTask(new QualifiersGenerator(iocContext, logger));
+    taskGroup.addTask(new SaveBeanGraphCacheTask(iocContext, logger));
     taskGroup.execute();
 
     return false;
@@ -115,20 +122,16 @@ public class ApplicationProcessor extends AbstractProcessor {
   }
 
   private void initAndRegisterGenerators(TreeLogger logger) {
-    try (ScanResult scanResult = new ClassGraph().enableAllInfo().scan()) {
-      ClassInfoList routeClassInfoList =
-          scanResult.getClassesWithAnnotation(Generator.class.getCanonicalName());
-      for (ClassInfo routeClassInfo : routeClassInfoList) {
-        try {
-          Constructor c = Class.forName(routeClassInfo.getName()).getConstructor(TreeLogger.class,
-              IOCContext.class);
-          ((IOCGenerator) c.newInstance(
-              logger.branch(TreeLogger.INFO, "register generator: " + routeClassInfo.getName()),
-              iocContext)).register();
-        } catch (ClassNotFoundException | InstantiationException | IllegalAccessException
-            | NoSuchMethodException | InvocationTargetException e) {
-          throw new GenerationException(e);
-        }
+    for (String generator : context.getClasspathIndex().getGenerators()) {
+      try {
+        Constructor c =
+            Class.forName(generator).getConstructor(TreeLogger.class, IOCContext.class);
+        ((IOCGenerator) c.newInstance(
+            logger.branch(TreeLogger.INFO, "register generator: " + generator), iocContext))
+                .register();
+      } catch (ClassNotFoundException | InstantiationException | IllegalAccessException
+          | NoSuchMethodException | InvocationTargetException e) {
+        throw new GenerationException(e);
       }
     }
   }
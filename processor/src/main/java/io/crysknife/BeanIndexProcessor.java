@@ -0,0 +1,139 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife;
+
+import com.google.auto.common.MoreElements;
+import com.google.auto.service.AutoService;
+import io.crysknife.generator.context.ClasspathIndex;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedSourceVersion;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Writes the index of the annotated types, fields, methods and method parameters of the module, it
+ * is read by {@link ApplicationProcessor} instead of scanning the whole classpath, see
+ * {@link ClasspathIndex}. Only the annotations of the packages the processor and its generators
+ * look up are indexed, along with the annotations meta-annotated with them, like custom constraints
+ * or qualifiers.
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+@AutoService(Processor.class)
+@SupportedSourceVersion(SourceVersion.RELEASE_8)
+@SupportedAnnotationTypes({"io.crysknife.*", "javax.annotation.*", "javax.ejb.*",
+    "javax.enterprise.*", "javax.inject.*", "javax.validation.*", "org.gwtproject.*"})
+public class BeanIndexProcessor extends AbstractProcessor {
+
+  private final Set<String> index = new TreeSet<>();
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations,
+      RoundEnvironment roundEnvironment) {
+    Set<TypeElement> indexed = new LinkedHashSet<>(annotations);
+    roundEnvironment.getRootElements().forEach(element -> collectMetaAnnotated(element, indexed));
+    for (TypeElement annotation : indexed) {
+      String name = annotation.getQualifiedName().toString();
+      for (Element element : roundEnvironment.getElementsAnnotatedWith(annotation)) {
+        String entry = entry(name, element);
+        if (entry != null) {
+          index.add(entry);
+        }
+      }
+    }
+
+    if (roundEnvironment.processingOver() && !index.isEmpty()) {
+      write();
+    }
+    return false;
+  }
+
+  /**
+   * Adds the annotations of the element and its members, that don't belong to the supported
+   * packages, but are meta-annotated with a supported annotation.
+   */
+  private void collectMetaAnnotated(Element element, Set<TypeElement> indexed) {
+    for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+      TypeElement type = (TypeElement) annotation.getAnnotationType().asElement();
+      if (!isSupported(type) && type.getAnnotationMirrors().stream()
+          .anyMatch(meta -> isSupported((TypeElement) meta.getAnnotationType().asElement()))) {
+        indexed.add(type);
+      }
+    }
+    if (element instanceof ExecutableElement) {
+      ((ExecutableElement) element).getParameters()
+          .forEach(parameter -> collectMetaAnnotated(parameter, indexed));
+    }
+    element.getEnclosedElements().forEach(member -> collectMetaAnnotated(member, indexed));
+  }
+
+  private boolean isSupported(TypeElement annotation) {
+    String name = annotation.getQualifiedName().toString();
+    return getSupportedAnnotationTypes().stream()
+        .anyMatch(supported -> name.startsWith(supported.substring(0, supported.length() - 1)));
+  }
+
+  private String entry(String annotation, Element element) {
+    if (element.getKind().isClass() || element.getKind().isInterface()) {
+      return ClasspathIndex.entry(annotation, ClasspathIndex.TYPE,
+          MoreElements.asType(element).getQualifiedName().toString());
+    }
+    Element enclosing = element.getEnclosingElement();
+    if (element.getKind().equals(ElementKind.FIELD)) {
+      return ClasspathIndex.entry(annotation, ClasspathIndex.FIELD,
+          MoreElements.asType(enclosing).getQualifiedName().toString());
+    }
+    if (element.getKind().equals(ElementKind.METHOD)
+        || element.getKind().equals(ElementKind.CONSTRUCTOR)) {
+      return ClasspathIndex.entry(annotation, ClasspathIndex.METHOD,
+          MoreElements.asType(enclosing).getQualifiedName().toString());
+    }
+    if (element.getKind().equals(ElementKind.PARAMETER)
+        && enclosing.getEnclosingElement() instanceof TypeElement) {
+      return ClasspathIndex.entry(annotation, ClasspathIndex.PARAMETER,
+          MoreElements.asType(enclosing.getEnclosingElement()).getQualifiedName().toString());
+    }
+    return null;
+  }
+
+  private void write() {
+    try {
+      FileObject file = processingEnv.getFiler()
+          .createResource(StandardLocation.CLASS_OUTPUT, "", ClasspathIndex.INDEX);
+      try (PrintWriter out = new PrintWriter(file.openWriter())) {
+        index.forEach(out::println);
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+          "Unable to write " + ClasspathIndex.INDEX + " " + e.getMessage());
+    }
+  }
+}
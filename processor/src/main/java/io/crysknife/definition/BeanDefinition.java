@@ -45,6 +45,7 @@ public class BeanDefinition implements Definition {
   private Set<IOCGenerator<BeanDefinition>> decorators = new LinkedHashSet<>();
   private Optional<IOCGenerator<BeanDefinition>> iocGenerator = Optional.empty();
   private boolean hasFactory = true;
+  private boolean proxy;
 
   private Set<BeanDefinition> subclasses = new LinkedHashSet<>();
 
@@ -88,8 +89,16 @@ public class BeanDefinition implements Definition {
     this.iocGenerator = Optional.of(iocGenerator);
   }
 
+  /**
+   * @return true, if the bean is annotated with @CircularDependency, or it has been chosen to break
+   *         a dependency cycle
+   */
   public boolean isProxy() {
-    return MoreTypes.asTypeElement(type).getAnnotation(CircularDependency.class) != null;
+    return proxy || MoreTypes.asTypeElement(type).getAnnotation(CircularDependency.class) != null;
+  }
+
+  public void setProxy(boolean proxy) {
+    this.proxy = proxy;
   }
 
   @Override
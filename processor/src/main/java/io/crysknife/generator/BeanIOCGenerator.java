@@ -18,6 +18,7 @@ import io.crysknife.exception.GenerationException;
 import io.crysknife.generator.api.ClassBuilder;
 import io.crysknife.generator.context.GenerationContext;
 import io.crysknife.generator.context.IOCContext;
+import io.crysknife.generator.context.SourceBatch;
 import io.crysknife.definition.BeanDefinition;
 import io.crysknife.logger.TreeLogger;
 import io.crysknife.util.Utils;
@@ -27,6 +28,7 @@ import javax.tools.Diagnostic;
 import javax.tools.JavaFileObject;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.Optional;
 
 /**
  * @author Dmitrii Tikhomirov Created by treblereel 4/4/19
@@ -38,8 +40,13 @@ public abstract class BeanIOCGenerator<T extends BeanDefinition> extends IOCGene
   }
 
   public void write(ClassBuilder clazz, T beanDefinition) {
+    String fileName = Utils.getQualifiedFactoryName(beanDefinition.getType());
+    Optional<SourceBatch> batch = iocContext.getSourceBatch();
+    if (batch.isPresent()) {
+      batch.get().add(fileName, clazz.getClassCompilationUnit());
+      return;
+    }
     try {
-      String fileName = Utils.getQualifiedFactoryName(beanDefinition.getType());
       String source = clazz.toSourceCode();
       build(fileName, source);
     } catch (javax.annotation.processing.FilerException e1) {
@@ -58,5 +65,6 @@ public abstract class BeanIOCGenerator<T extends BeanDefinition> extends IOCGene
     } catch (FilerException e) {
       throw new GenerationException(e);
     }
+    iocContext.getProfiler().fileWritten(source);
   }
 }
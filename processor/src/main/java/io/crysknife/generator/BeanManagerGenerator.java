@@ -21,6 +21,7 @@ import com.github.javaparser.ast.body.BodyDeclaration;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.FieldDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.Parameter;
 import com.github.javaparser.ast.body.VariableDeclarator;
 import com.github.javaparser.ast.expr.ArrayCreationExpr;
 import com.github.javaparser.ast.expr.ArrayInitializerExpr;
@@ -30,18 +31,26 @@ import com.github.javaparser.ast.expr.CastExpr;
 import com.github.javaparser.ast.expr.EnclosedExpr;
 import com.github.javaparser.ast.expr.Expression;
 import com.github.javaparser.ast.expr.FieldAccessExpr;
+import com.github.javaparser.ast.expr.LambdaExpr;
 import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.MethodReferenceExpr;
 import com.github.javaparser.ast.expr.NameExpr;
 import com.github.javaparser.ast.expr.NullLiteralExpr;
 import com.github.javaparser.ast.expr.ObjectCreationExpr;
 import com.github.javaparser.ast.expr.StringLiteralExpr;
 import com.github.javaparser.ast.expr.ThisExpr;
+import com.github.javaparser.ast.expr.TypeExpr;
+import com.github.javaparser.ast.expr.VariableDeclarationExpr;
 import com.github.javaparser.ast.stmt.BlockStmt;
+import com.github.javaparser.ast.stmt.ExpressionStmt;
 import com.github.javaparser.ast.stmt.IfStmt;
 import com.github.javaparser.ast.stmt.ReturnStmt;
+import com.github.javaparser.ast.stmt.Statement;
 import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.ast.type.UnknownType;
 import com.google.auto.common.MoreTypes;
 import io.crysknife.annotation.Application;
+import io.crysknife.annotation.LoadAsync;
 import io.crysknife.client.BeanManager;
 import io.crysknife.client.internal.AbstractBeanManager;
 import io.crysknife.client.internal.BeanFactory;
@@ -53,12 +62,14 @@ import io.crysknife.definition.BeanDefinition;
 import io.crysknife.definition.ProducesBeanDefinition;
 import io.crysknife.exception.GenerationException;
 import io.crysknife.exception.UnableToCompleteException;
+import io.crysknife.generator.context.ExecutionEnv;
 import io.crysknife.generator.context.IOCContext;
 import io.crysknife.generator.context.oracle.BeanOracle;
 import io.crysknife.logger.TreeLogger;
 import io.crysknife.task.Task;
 import io.crysknife.util.GenerationUtils;
 import io.crysknife.util.Utils;
+import jsinterop.annotations.JsMethod;
 
 import javax.enterprise.inject.Default;
 import javax.enterprise.inject.Instance;
@@ -76,7 +87,10 @@ import java.io.PrintWriter;
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -117,12 +131,22 @@ public class BeanManagerGenerator implements Task {
   }
 
   private void build() throws IOException {
+    BeanManagerGeneratorBuilder builder = new BeanManagerGeneratorBuilder();
+    write(BeanManager.class.getCanonicalName() + "Impl", builder.build());
+    for (Map.Entry<String, CompilationUnit> module : builder.asyncModules.entrySet()) {
+      write(module.getKey(), module.getValue());
+    }
+  }
+
+  private void write(String fileName, CompilationUnit unit) throws IOException {
     try {
       JavaFileObject builderFile = iocContext.getGenerationContext().getProcessingEnvironment()
-          .getFiler().createSourceFile(BeanManager.class.getCanonicalName() + "Impl");
+          .getFiler().createSourceFile(fileName);
+      String source = unit.toString();
       try (PrintWriter out = new PrintWriter(builderFile.openWriter())) {
-        out.append(new BeanManagerGeneratorBuilder().build().toString());
+        out.append(source);
       }
+      iocContext.getProfiler().fileWritten(source);
     } catch (javax.annotation.processing.FilerException e) {
       // we can ignore it
     }
@@ -140,6 +164,14 @@ public class BeanManagerGenerator implements Task {
 
     private MethodDeclaration init;
 
+    private BeanResolutionTable resolutionTable = new BeanResolutionTable();
+
+    private BeanRegistrationTable registrationTable = new BeanRegistrationTable();
+
+    private List<Statement> asyncRegistrations = new ArrayList<>();
+
+    private Map<String, CompilationUnit> asyncModules = new LinkedHashMap<>();
+
     public CompilationUnit build() {
       initClass();
       addFields();
@@ -151,6 +183,14 @@ public class BeanManagerGenerator implements Task {
 
       }
 
+      resolutionTable.build(registrationTable);
+      for (Statement statement : registrationTable.build()) {
+        init.getBody().ifPresent(body -> body.addStatement(statement));
+      }
+      for (Statement statement : asyncRegistrations) {
+        init.getBody().ifPresent(body -> body.addStatement(statement));
+      }
+
       return clazz;
     }
 
@@ -227,20 +267,23 @@ public class BeanManagerGenerator implements Task {
 
                   List<AnnotationMirror> qualifiers = new ArrayList<>(Utils
                       .getAllElementQualifierAnnotations(iocContext, MoreTypes.asElement(erased)));
-                  Set<Expression> qualifiersExpression = new HashSet<>();
+                  Set<Expression> qualifiersExpression = new LinkedHashSet<>();
+                  Set<String> qualifierNames = new HashSet<>();
 
-                  qualifiers.forEach(type -> qualifiersExpression
-                      .add(generationUtils.createQualifierExpression(type)));
+                  qualifiers.forEach(type -> {
+                    qualifiersExpression.add(generationUtils.createQualifierExpression(type));
+                    qualifierNames.add(getQualifierName(type));
+                  });
 
                   if (MoreTypes.asTypeElement(bean).getAnnotation(Named.class) != null) {
-                    qualifiersExpression
-                        .add(new MethodCallExpr(new NameExpr("QualifierUtil"), "createNamed")
-                            .addArgument(new StringLiteralExpr(
-                                MoreTypes.asTypeElement(bean).getAnnotation(Named.class).value())));
+                    String named = MoreTypes.asTypeElement(bean).getAnnotation(Named.class).value();
+                    qualifiersExpression.add(iocContext.getQualifierPool().named(named));
+                    qualifierNames.add(Named.class.getCanonicalName() + "(\"" + named + "\")");
                   }
 
                   if (MoreTypes.asTypeElement(bean).getAnnotation(Default.class) != null) {
                     qualifiersExpression.add(new NameExpr("DEFAULT_ANNOTATION"));
+                    qualifierNames.add(Default.class.getCanonicalName());
                   }
 
                   if (MoreTypes.asTypeElement(bean).getAnnotation(Specializes.class) != null) {
@@ -248,64 +291,121 @@ public class BeanManagerGenerator implements Task {
                   }
 
 
-                  ArrayInitializerExpr withAssignableTypesValues = new ArrayInitializerExpr();
-                  assignableTypes.forEach(type -> withAssignableTypesValues.getValues()
-                      .add(new NameExpr(type + ".class")));
-
-                  ArrayCreationExpr withAssignableTypes = new ArrayCreationExpr();
-                  withAssignableTypes.setElementType("Class[]");
-                  withAssignableTypes.setInitializer(withAssignableTypesValues);
-
-                  ArrayInitializerExpr withQualifiersValues = new ArrayInitializerExpr();
-                  qualifiersExpression.forEach(type -> withQualifiersValues.getValues().add(type));
-                  ArrayCreationExpr withQualifiers = new ArrayCreationExpr();
-                  withQualifiers.setElementType("Annotation[]");
-                  withQualifiers.setInitializer(withQualifiersValues);
-
-
-                  MethodCallExpr registerCallExpr = new MethodCallExpr("register");
-
-                  Expression builderCallExpr =
-                      new ObjectCreationExpr().setType("Builder").addArgument(erased + ".class")
-                          .addArgument(scope.annotationType().getCanonicalName() + ".class");
-
-                  builderCallExpr = new MethodCallExpr(builderCallExpr, "withAssignableTypes")
-                      .addArgument(withAssignableTypes);
-
-                  if (!qualifiersExpression.isEmpty()) {
-                    builderCallExpr = new MethodCallExpr(builderCallExpr, "withQualifiers")
-                        .addArgument(withQualifiers);
-                  }
-
+                  Expression typed = null;
+                  List<String> typedNames = new ArrayList<>();
                   if (MoreTypes.asTypeElement(bean).getAnnotation(Typed.class) != null) {
-                    Typed typed = MoreTypes.asTypeElement(bean).getAnnotation(Typed.class);
+                    Typed annotation = MoreTypes.asTypeElement(bean).getAnnotation(Typed.class);
                     MethodCallExpr createTyped =
                         new MethodCallExpr(new NameExpr("QualifierUtil"), "createTyped");
                     try {
-                      typed.value();
+                      annotation.value();
                     } catch (MirroredTypesException types) {
                       List<DeclaredType> mirrors = (List<DeclaredType>) types.getTypeMirrors();
                       mirrors
                           .forEach(mirror -> createTyped.addArgument(mirror.toString() + ".class"));
-
-                      builderCallExpr =
-                          new MethodCallExpr(builderCallExpr, "withTyped").addArgument(createTyped);
+                      mirrors.forEach(mirror -> typedNames.add(iocContext.getGenerationContext()
+                          .getTypes().erasure(mirror).toString()));
+                      typed = createTyped;
                     }
                   }
 
-                  builderCallExpr = new MethodCallExpr(builderCallExpr, "withFactory").addArgument(
-                      new ObjectCreationExpr().setType(Utils.getQualifiedFactoryName(erased))
-                          .addArgument(new ThisExpr()));
+                  MethodReferenceExpr factory = new MethodReferenceExpr(
+                      new TypeExpr(new ClassOrInterfaceType()
+                          .setName(Utils.getQualifiedFactoryName(erased))),
+                      null, "new");
+
+                  String name = MoreTypes.asTypeElement(bean).getAnnotation(Named.class) != null
+                      ? MoreTypes.asTypeElement(bean).getAnnotation(Named.class).value()
+                      : null;
+                  if (isAsync(bean)) {
+                    BeanRegistrationTable chunk = new BeanRegistrationTable();
+                    chunk.addBean(erased.toString(), scope.annotationType().getCanonicalName(),
+                        name, typed, toNames(assignableTypes), qualifiersExpression, factory);
+                    addAsyncModule(erased, toNames(assignableTypes), chunk);
+                    return;
+                  }
+
+                  registrationTable.addBean(erased.toString(),
+                      scope.annotationType().getCanonicalName(), name, typed,
+                      toNames(assignableTypes), qualifiersExpression, factory);
 
-                  builderCallExpr = new MethodCallExpr(builderCallExpr, "build");
-                  registerCallExpr.addArgument(builderCallExpr);
-                  init.getBody().get().addAndGetStatement(registerCallExpr);
+                  resolutionTable.addBean(erased.toString(), toNames(assignableTypes),
+                      qualifierNames,
+                      MoreTypes.asTypeElement(bean).getAnnotation(Typed.class) != null ? typedNames
+                          : null,
+                      MoreTypes.asTypeElement(bean).getAnnotation(Specializes.class) != null);
                 }
               }
             }
           });
     }
 
+    /**
+     * Beans loaded on demand are split out of the BeanManagerImpl, only the name of their chunk is
+     * registered, the JRE doesn't load chunks.
+     */
+    private boolean isAsync(TypeMirror bean) {
+      return MoreTypes.asTypeElement(bean).getAnnotation(LoadAsync.class) != null
+          && !iocContext.getGenerationContext().getExecutionEnv().equals(ExecutionEnv.JRE);
+    }
+
+    /**
+     * The chunk is named after the bean, its module registers the bean once the chunk is loaded.
+     * Nothing but the module refers to the factory of the bean.
+     */
+    private void addAsyncModule(TypeMirror bean, Set<String> assignableTypes,
+        BeanRegistrationTable table) {
+      String chunk = bean.toString();
+      MethodCallExpr registerAsync =
+          new MethodCallExpr("registerAsync").addArgument(new StringLiteralExpr(chunk));
+      assignableTypes.forEach(type -> registerAsync.addArgument(new StringLiteralExpr(type)));
+      asyncRegistrations.add(new ExpressionStmt(registerAsync));
+
+      String pkg = Utils.getPackageName(bean);
+      String className = Utils.getAsyncModuleClassName(MoreTypes.asTypeElement(bean));
+      CompilationUnit module = new CompilationUnit();
+      module.setPackageDeclaration(pkg);
+      module.addImport(Annotation.class);
+      module.addImport(AbstractBeanManager.class);
+      module.addImport(QualifierUtil.class);
+      module.addImport(JsMethod.class);
+      module.addImport(AbstractBeanManager.FactoryProvider.class.getCanonicalName());
+      module.addImport("io.crysknife.client.internal.QualifierUtil.DEFAULT_ANNOTATION", true,
+          false);
+      module.addImport("io.crysknife.client.internal.QualifierUtil.SPECIALIZES_ANNOTATION", true,
+          false);
+
+      ClassOrInterfaceDeclaration moduleClass =
+          module.addClass(className, Modifier.Keyword.PUBLIC, Modifier.Keyword.FINAL);
+      moduleClass.addConstructor(Modifier.Keyword.PRIVATE);
+
+      MethodDeclaration load =
+          moduleClass.addMethod("load", Modifier.Keyword.PUBLIC, Modifier.Keyword.STATIC);
+      load.addAnnotation(JsMethod.class.getSimpleName());
+      BlockStmt body = new BlockStmt();
+      ClassOrInterfaceType beanManager =
+          new ClassOrInterfaceType().setName(AbstractBeanManager.class.getSimpleName());
+      body.addStatement(new VariableDeclarationExpr(new VariableDeclarator(beanManager,
+          "beanManager",
+          new CastExpr(beanManager, new MethodCallExpr(
+              new NameExpr(BeanManager.class.getCanonicalName() + "Impl"), "get")))));
+      table.buildChunk(chunk).forEach(body::addStatement);
+      load.setBody(body);
+
+      asyncModules.put(pkg + "." + className, module);
+    }
+
+    private String getQualifierName(AnnotationMirror qualifier) {
+      return iocContext.getGenerationContext().getElements()
+          .getBinaryName(MoreTypes.asTypeElement(qualifier.getAnnotationType())).toString();
+    }
+
+    private Set<String> toNames(List<TypeMirror> types) {
+      Set<String> result = new LinkedHashSet<>();
+      types.forEach(type -> result.add(type.toString()));
+      return result;
+    }
+
     private boolean isSuitableBeanDefinition(BeanDefinition beanDefinition) {
       return MoreTypes.asTypeElement(beanDefinition.getType()).getKind().isClass()
           && !MoreTypes.asTypeElement(beanDefinition.getType()).getModifiers().contains(ABSTRACT)
@@ -330,24 +430,6 @@ public class BeanManagerGenerator implements Task {
             }
           });
 
-      ArrayInitializerExpr withAssignableTypesValues = new ArrayInitializerExpr();
-      assignableTypes.forEach(
-          type -> withAssignableTypesValues.getValues().add(new NameExpr(type + ".class")));
-
-      ArrayCreationExpr withAssignableTypes = new ArrayCreationExpr();
-      withAssignableTypes.setElementType("Class[]");
-      withAssignableTypes.setInitializer(withAssignableTypesValues);
-
-      MethodCallExpr registerCallExpr = new MethodCallExpr("register");
-
-      Expression builderCallExpr =
-          new ObjectCreationExpr().setType("Builder").addArgument(erased + ".class")
-              .addArgument(scope.annotationType().getCanonicalName() + ".class");
-
-      builderCallExpr = new MethodCallExpr(builderCallExpr, "withAssignableTypes")
-          .addArgument(withAssignableTypes);
-
-
       ClassOrInterfaceType producerType = new ClassOrInterfaceType();
       producerType.setName(ProducesBeanFactory.class.getCanonicalName())
           .setTypeArguments(new ClassOrInterfaceType().setName(erased.toString()));
@@ -378,15 +460,17 @@ public class BeanManagerGenerator implements Task {
       supplier.setAnonymousClassBody(supplierClassBody);
 
 
-      ObjectCreationExpr factory = new ObjectCreationExpr().setType(producerType)
-          .addArgument(new ThisExpr()).addArgument(supplier);
-
+      LambdaExpr factory = new LambdaExpr();
+      factory.getParameters()
+          .add(new Parameter().setName("beanManager").setType(new UnknownType()));
+      factory.setBody(new ExpressionStmt(new ObjectCreationExpr().setType(producerType)
+          .addArgument(new NameExpr("beanManager")).addArgument(supplier)));
 
-      builderCallExpr = new MethodCallExpr(builderCallExpr, "withFactory").addArgument(factory);
+      registrationTable.addBean(erased.toString(), scope.annotationType().getCanonicalName(),
+          null, null, toNames(assignableTypes), Collections.emptySet(), factory);
 
-      builderCallExpr = new MethodCallExpr(builderCallExpr, "build");
-      registerCallExpr.addArgument(builderCallExpr);
-      init.getBody().get().addAndGetStatement(registerCallExpr);
+      resolutionTable.addBean(erased.toString(), toNames(assignableTypes), new HashSet<>(), null,
+          false);
 
 
 
@@ -502,6 +586,10 @@ public class BeanManagerGenerator implements Task {
 
 
       init.getBody().ifPresent(body -> body.addAndGetStatement(registerCallExpr));
+
+      resolutionTable.addBean(BeanManager.class.getCanonicalName(),
+          Collections.singleton(BeanManager.class.getCanonicalName()),
+          Collections.singleton(Default.class.getCanonicalName()), null, false);
     }
 
     private void addGetInstanceMethod() {
@@ -0,0 +1,178 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.generator;
+
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.ArrayCreationExpr;
+import com.github.javaparser.ast.expr.ArrayInitializerExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.IntegerLiteralExpr;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.expr.StringLiteralExpr;
+import com.github.javaparser.ast.expr.VariableDeclarationExpr;
+import com.github.javaparser.ast.stmt.ExpressionStmt;
+import com.github.javaparser.ast.stmt.Statement;
+import com.github.javaparser.ast.type.ArrayType;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Describes the beans registered by the BeanManagerImpl as data instead of a builder chain per
+ * bean. Types, names and qualifiers are deduplicated into pools and the beans and resolutions are
+ * arrays of indexes into them, consumed by AbstractBeanManager.registerBeans and
+ * AbstractBeanManager.addResolutions, or by AbstractBeanManager.registerChunk for the beans of a
+ * chunk.
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+class BeanRegistrationTable {
+
+  private static final int NONE = -1;
+
+  private final Map<String, Integer> types = new LinkedHashMap<>();
+
+  private final Map<String, Integer> names = new LinkedHashMap<>();
+
+  private final Map<String, Integer> qualifiers = new LinkedHashMap<>();
+
+  private final List<Expression> qualifierExpressions = new ArrayList<>();
+
+  private final List<Expression> factories = new ArrayList<>();
+
+  private final List<Integer> beans = new ArrayList<>();
+
+  private final List<Integer> resolutions = new ArrayList<>();
+
+  /**
+   * @param type erased type of the bean
+   * @param scope scope annotation of the bean
+   * @param name name of the bean, null if bean is named after its type
+   * @param typed QualifierUtil.createTyped call, null if bean isn't @Typed
+   * @param assignableTypes erased bean type and its supertypes
+   * @param beanQualifiers qualifiers of the bean, empty if withQualifiers must not be called
+   * @param factory expression that creates the factory out of the bean manager
+   */
+  void addBean(String type, String scope, String name, Expression typed,
+      Collection<String> assignableTypes, Collection<Expression> beanQualifiers,
+      Expression factory) {
+    beans.add(type(type));
+    beans.add(type(scope));
+    // the name is written as a literal, Class.getCanonicalName() may not be available in J2CL
+    beans.add(name(name == null ? type : name));
+    beans.add(typed == null ? NONE : qualifier(typed));
+    beans.add(assignableTypes.size());
+    assignableTypes.forEach(assignableType -> beans.add(type(assignableType)));
+    beans.add(beanQualifiers.size());
+    beanQualifiers.forEach(qualifier -> beans.add(qualifier(qualifier)));
+    factories.add(factory);
+  }
+
+  /**
+   * @param type erased type to resolve
+   * @param qualifier qualifier in the form of BeanManagerUtil.qualifierToString, null for the
+   *        default one
+   * @param bean erased type of the resolved bean
+   */
+  void addResolution(String type, String qualifier, String bean) {
+    resolutions.add(type(type));
+    resolutions.add(qualifier == null ? NONE : name(qualifier));
+    resolutions.add(type(bean));
+  }
+
+  List<Statement> build() {
+    List<Statement> result = declarePools();
+    if (!factories.isEmpty()) {
+      result.add(new ExpressionStmt(addBeans(new MethodCallExpr("registerBeans"))));
+    }
+
+    if (!resolutions.isEmpty()) {
+      result.add(new ExpressionStmt(new MethodCallExpr("addResolutions")
+          .addArgument(new NameExpr("types")).addArgument(new NameExpr("names"))
+          .addArgument(ints(resolutions))));
+    }
+    return result;
+  }
+
+  /**
+   * @param chunk name of the chunk
+   * @return registration of the beans of the chunk on the beanManager local
+   */
+  List<Statement> buildChunk(String chunk) {
+    List<Statement> result = declarePools();
+    result.add(new ExpressionStmt(addBeans(new MethodCallExpr(new NameExpr("beanManager"),
+        "registerChunk").addArgument(new StringLiteralExpr(chunk)))));
+    return result;
+  }
+
+  private List<Statement> declarePools() {
+    List<Statement> result = new ArrayList<>();
+    NodeList<Expression> typeValues = new NodeList<>();
+    types.keySet().forEach(type -> typeValues.add(new NameExpr(type + ".class")));
+    result.add(declare("Class", "types", typeValues));
+
+    NodeList<Expression> nameValues = new NodeList<>();
+    names.keySet().forEach(name -> nameValues.add(new StringLiteralExpr().setString(name)));
+    result.add(declare("String", "names", nameValues));
+    return result;
+  }
+
+  private MethodCallExpr addBeans(MethodCallExpr call) {
+    return call.addArgument(new NameExpr("types")).addArgument(new NameExpr("names"))
+        .addArgument(array("Annotation", new NodeList<>(qualifierExpressions)))
+        .addArgument(array("FactoryProvider", new NodeList<>(factories)))
+        .addArgument(ints(beans));
+  }
+
+  private int type(String type) {
+    return types.computeIfAbsent(type, key -> types.size());
+  }
+
+  private int name(String name) {
+    return names.computeIfAbsent(name, key -> names.size());
+  }
+
+  private int qualifier(Expression qualifier) {
+    return qualifiers.computeIfAbsent(qualifier.toString(), key -> {
+      qualifierExpressions.add(qualifier);
+      return qualifierExpressions.size() - 1;
+    });
+  }
+
+  private Statement declare(String type, String name, NodeList<Expression> values) {
+    return new ExpressionStmt(new VariableDeclarationExpr(
+        new VariableDeclarator(new ArrayType(new ClassOrInterfaceType().setName(type)), name,
+            array(type, values))));
+  }
+
+  private ArrayCreationExpr array(String type, NodeList<Expression> values) {
+    ArrayCreationExpr array = new ArrayCreationExpr();
+    array.setElementType(type + "[]");
+    array.setInitializer(new ArrayInitializerExpr(values));
+    return array;
+  }
+
+  private ArrayCreationExpr ints(List<Integer> values) {
+    NodeList<Expression> literals = new NodeList<>();
+    values.forEach(value -> literals.add(new IntegerLiteralExpr(String.valueOf(value))));
+    return array("int", literals);
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.generator;
+
+import javax.enterprise.inject.Any;
+import javax.enterprise.inject.Default;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Collects the beans registered by the BeanManagerImpl and precomputes the resolutions of
+ * lookupBean(type) and lookupBean(type, qualifier), using the same rules AbstractBeanManager applies
+ * at runtime. Lookups which can't be resolved unambiguously are not emitted, so they fall back to
+ * the dynamic resolution.
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+class BeanResolutionTable {
+
+  private static final String DEFAULT = Default.class.getCanonicalName();
+
+  private static final String ANY = Any.class.getCanonicalName();
+
+  private final Map<String, Entry> beans = new LinkedHashMap<>();
+
+  private final Set<String> types = new LinkedHashSet<>();
+
+  /**
+   * @param type erased type of the bean
+   * @param assignableTypes erased bean type and its supertypes
+   * @param qualifiers qualifiers of the bean, in the form of BeanManagerUtil.qualifierToString
+   * @param typed values of @Typed, null if bean isn't @Typed
+   * @param specializes true if bean is annotated with @Specializes
+   */
+  void addBean(String type, Set<String> assignableTypes, Set<String> qualifiers, List<String> typed,
+      boolean specializes) {
+    beans.put(type, new Entry(type, assignableTypes, qualifiers, typed, specializes));
+    types.addAll(assignableTypes);
+  }
+
+  /**
+   * Adds the resolutions to the registration table of the BeanManagerImpl.
+   */
+  void build(BeanRegistrationTable table) {
+    for (String type : types) {
+      List<Entry> subTypes = beans.values().stream()
+          .filter(bean -> bean.assignableTypes.contains(type)).collect(Collectors.toList());
+
+      resolveDefault(type, subTypes)
+          .ifPresent(bean -> table.addResolution(type, null, bean.type));
+
+      Set<String> qualifiers = new LinkedHashSet<>();
+      subTypes.forEach(bean -> qualifiers.addAll(bean.qualifiers));
+      qualifiers.remove(DEFAULT);
+      qualifiers.remove(ANY);
+
+      for (String qualifier : qualifiers) {
+        resolveQualified(type, qualifier, subTypes)
+            .ifPresent(bean -> table.addResolution(type, qualifier, bean.type));
+      }
+    }
+  }
+
+  private Optional<Entry> resolveDefault(String type, List<Entry> subTypes) {
+    Entry self = beans.get(type);
+    if (self != null && self.isTypedTo(type)) {
+      return Optional.of(self);
+    }
+
+    if (!subTypes.isEmpty()) {
+      List<Entry> specializes =
+          subTypes.stream().filter(bean -> bean.specializes).collect(Collectors.toList());
+      if (!specializes.isEmpty()) {
+        return single(specializes);
+      }
+
+      List<Entry> defaults = subTypes.stream().filter(bean -> bean.qualifiers.contains(DEFAULT))
+          .collect(Collectors.toList());
+      if (!defaults.isEmpty()) {
+        return single(defaults);
+      }
+    }
+
+    Set<Entry> candidates = new LinkedHashSet<>();
+    if (self != null) {
+      candidates.add(self);
+    }
+    subTypes.stream().filter(bean -> bean.qualifiers.isEmpty() && bean.typed == null)
+        .forEach(candidates::add);
+    return single(candidates);
+  }
+
+  private Optional<Entry> resolveQualified(String type, String qualifier, List<Entry> subTypes) {
+    Entry self = beans.get(type);
+    if (self != null && self.isTypedTo(type)) {
+      return Optional.of(self);
+    }
+
+    Set<Entry> candidates = new LinkedHashSet<>();
+    if (self != null && self.qualifiers.contains(qualifier)) {
+      candidates.add(self);
+    }
+    for (Entry bean : subTypes) {
+      if (bean.qualifiers.contains(qualifier)) {
+        if (bean.typed != null) {
+          // depends on the order of qualifiers, leave it to the runtime
+          return Optional.empty();
+        }
+        candidates.add(bean);
+      }
+    }
+    return single(candidates);
+  }
+
+  private Optional<Entry> single(Iterable<Entry> candidates) {
+    Entry result = null;
+    for (Entry candidate : candidates) {
+      if (result != null) {
+        return Optional.empty();
+      }
+      result = candidate;
+    }
+    return Optional.ofNullable(result);
+  }
+
+  private static class Entry {
+
+    private final String type;
+    private final Set<String> assignableTypes;
+    private final Set<String> qualifiers;
+    private final List<String> typed;
+    private final boolean specializes;
+
+    private Entry(String type, Set<String> assignableTypes, Set<String> qualifiers,
+        List<String> typed, boolean specializes) {
+      this.type = type;
+      this.assignableTypes = assignableTypes;
+      this.qualifiers = qualifiers;
+      this.typed = typed;
+      this.specializes = specializes;
+    }
+
+    private boolean isTypedTo(String type) {
+      return typed != null && typed.contains(type);
+    }
+  }
+}
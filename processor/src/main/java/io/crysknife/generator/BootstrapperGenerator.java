@@ -17,6 +17,8 @@ package io.crysknife.generator;
 import com.github.javaparser.ast.Modifier;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.expr.ArrayCreationExpr;
+import com.github.javaparser.ast.expr.ArrayInitializerExpr;
 import com.github.javaparser.ast.expr.AssignExpr;
 import com.github.javaparser.ast.expr.FieldAccessExpr;
 import com.github.javaparser.ast.expr.MethodCallExpr;
@@ -31,20 +33,29 @@ import io.crysknife.client.InstanceFactory;
 import io.crysknife.client.Reflect;
 import io.crysknife.client.SyncBeanDef;
 import io.crysknife.client.internal.BeanFactory;
+import io.crysknife.client.internal.SingletonWarmUp;
 import io.crysknife.client.internal.proxy.Interceptor;
 import io.crysknife.client.internal.proxy.OnFieldAccessed;
 import io.crysknife.definition.BeanDefinition;
 import io.crysknife.definition.InjectableVariableDefinition;
+import io.crysknife.definition.ProducesBeanDefinition;
 import io.crysknife.generator.api.ClassBuilder;
-import io.crysknife.generator.context.ExecutionEnv;
 import io.crysknife.generator.context.IOCContext;
 import io.crysknife.logger.TreeLogger;
 import io.crysknife.util.Utils;
 
 import javax.inject.Provider;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Supplier;
 
+import static javax.lang.model.element.Modifier.ABSTRACT;
+
 /**
  * @author Dmitrii Tikhomirov Created by treblereel 4/5/19
  */
@@ -106,6 +117,10 @@ public class BootstrapperGenerator extends ScopedBeanGenerator {
     MethodDeclaration getMethodDeclaration = classBuilder.addMethod("initialize");
     classBuilder.setGetMethodDeclaration(getMethodDeclaration);
 
+    if (iocContext.getGenerationContext().isJreWarmUp()) {
+      getMethodDeclaration.getBody().get().addAndGetStatement(new MethodCallExpr("warmUp"));
+      setWarmUp(classBuilder);
+    }
     getMethodDeclaration.getBody().get().addAndGetStatement(new MethodCallExpr("runOnStartup"));
     getMethodDeclaration.getBody().get().addAndGetStatement(new MethodCallExpr("doProxyInstance"));
     getMethodDeclaration.getBody().get()
@@ -121,11 +136,77 @@ public class BootstrapperGenerator extends ScopedBeanGenerator {
     new StartupGenerator(iocContext).generate(runOnStartup);
   }
 
+  private void setWarmUp(ClassBuilder classBuilder) {
+    ArrayInitializerExpr waves = new ArrayInitializerExpr();
+    for (List<BeanDefinition> wave : getWarmUpWaves()) {
+      ArrayInitializerExpr beans = new ArrayInitializerExpr();
+      wave.forEach(bean -> beans.getValues().add(new NameExpr(
+          iocContext.getGenerationContext().getTypes().erasure(bean.getType()) + ".class")));
+      waves.getValues().add(beans);
+    }
+    ArrayCreationExpr wavesArray = new ArrayCreationExpr();
+    wavesArray.setElementType("Class[][]");
+    wavesArray.setInitializer(waves);
+
+    MethodDeclaration warmUp = classBuilder.addMethod("warmUp", Modifier.Keyword.PRIVATE);
+    warmUp.getBody().get()
+        .addAndGetStatement(new MethodCallExpr(
+            new NameExpr(SingletonWarmUp.class.getCanonicalName()), "run")
+                .addArgument(new NameExpr("beanManager")).addArgument(wavesArray));
+  }
+
+  /**
+   * Splits the singletons into waves, in the order of the bean graph. A singleton comes after the
+   * singletons it depends on, directly or via @Dependent beans, so the beans of a wave can be
+   * created in parallel.
+   */
+  private List<List<BeanDefinition>> getWarmUpWaves() {
+    List<List<BeanDefinition>> waves = new ArrayList<>();
+    Map<String, Integer> levels = new HashMap<>();
+    for (TypeMirror type : iocContext.getOrderedBeans()) {
+      BeanDefinition bean = iocContext.getBeans().get(type);
+      if (bean == null) {
+        continue;
+      }
+      int level = 0;
+      for (BeanDefinition dependency : bean.getDependencies()) {
+        Integer dependencyLevel = levels.get(dependency.getQualifiedName());
+        if (dependencyLevel != null) {
+          level = Math.max(level,
+              isSingleton(dependency) ? dependencyLevel + 1 : dependencyLevel);
+        }
+      }
+      levels.put(bean.getQualifiedName(), level);
+
+      if (isWarmedUp(bean)) {
+        while (waves.size() <= level) {
+          waves.add(new ArrayList<>());
+        }
+        waves.get(level).add(bean);
+      }
+    }
+    waves.removeIf(List::isEmpty);
+    return waves;
+  }
+
+  private boolean isSingleton(BeanDefinition bean) {
+    return bean.getIocGenerator().filter(SingletonGenerator.class::isInstance).isPresent();
+  }
+
+  private boolean isWarmedUp(BeanDefinition bean) {
+    TypeElement type = MoreTypes.asTypeElement(bean.getType());
+    return isSingleton(bean) && !(bean instanceof ProducesBeanDefinition)
+        && type.getKind().isClass() && !type.getModifiers().contains(ABSTRACT)
+        && type.getAnnotation(Application.class) == null && bean.hasFactory()
+        && !iocContext.getBuildIn().contains(
+            iocContext.getGenerationContext().getTypes().erasure(bean.getType()).toString());
+  }
+
   private void setDoProxyInstance(ClassBuilder classBuilder, BeanDefinition beanDefinition) {
     MethodDeclaration doProxyInstance =
         classBuilder.addMethod("doProxyInstance", Modifier.Keyword.PRIVATE);
 
-    if (iocContext.getGenerationContext().getExecutionEnv().equals(ExecutionEnv.J2CL)) {
+    if (generationUtils.isIntercepted(beanDefinition)) {
       ObjectCreationExpr interceptorCreationExpr = new ObjectCreationExpr();
       interceptorCreationExpr.setType(Interceptor.class.getSimpleName());
       interceptorCreationExpr.addArgument(new NameExpr("instance"));
@@ -138,10 +219,10 @@ public class BootstrapperGenerator extends ScopedBeanGenerator {
               .setValue(new MethodCallExpr(new NameExpr("interceptor"), "getProxy")));
     }
 
-    if (!iocContext.getGenerationContext().getExecutionEnv().equals(ExecutionEnv.JRE)) {
+    if (generationUtils.isFactoryFieldInjection()) {
       for (InjectableVariableDefinition fieldPoint : beanDefinition.getFields()) {
         doProxyInstance.getBody().get().addStatement(
-            getFieldAccessorExpression(classBuilder, beanDefinition, fieldPoint, "field"));
+            getFieldInjectionExpression(classBuilder, beanDefinition, fieldPoint));
       }
     }
   }
@@ -37,11 +37,25 @@ import io.crysknife.util.Utils;
 
 import javax.enterprise.event.Event;
 import javax.enterprise.event.Observes;
+import javax.enterprise.inject.Any;
+import javax.enterprise.inject.Default;
 import javax.inject.Inject;
+import javax.inject.Qualifier;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * @author Dmitrii Tikhomirov Created by treblereel 3/31/19
@@ -76,12 +90,45 @@ public class EventProducerGenerator extends ScopedBeanGenerator {
       InjectableVariableDefinition fieldPoint) {
     classBuilder.getClassCompilationUnit().addImport("javax.enterprise.event.Event_Factory");
     classBuilder.getClassCompilationUnit().addImport(InstanceImpl.class.getCanonicalName());
-    MoreTypes.asDeclared(fieldPoint.getVariableElement().asType()).getTypeArguments();
+    TypeMirror eventType = iocContext.getGenerationContext().getTypes().erasure(
+        MoreTypes.asDeclared(fieldPoint.getVariableElement().asType()).getTypeArguments().get(0));
 
-    return new ObjectCreationExpr().setType(InstanceImpl.class)
-        .addArgument(new NameExpr("Event_Factory.get().get(" + MoreTypes
-            .asDeclared(fieldPoint.getVariableElement().asType()).getTypeArguments().get(0)
-            + ".class)"));
+    return new ObjectCreationExpr().setType(InstanceImpl.class).addArgument(
+        getEventHandlerCall(eventType, getEventQualifiers(fieldPoint.getVariableElement())));
+  }
+
+  /**
+   * @return Event_Factory.get().get(type.class, "qualifiers")
+   */
+  static MethodCallExpr getEventHandlerCall(TypeMirror type, String qualifiers) {
+    MethodCallExpr call =
+        new MethodCallExpr(new MethodCallExpr(new NameExpr("Event_Factory"), "get"), "get")
+            .addArgument(new FieldAccessExpr(new NameExpr(type.toString()), "class"));
+    if (!qualifiers.isEmpty()) {
+      call.addArgument(new StringLiteralExpr().setString(qualifiers));
+    }
+    return call;
+  }
+
+  /**
+   * Canonical form of the qualifiers of an event or an observer, their sorted and comma separated
+   * names, @Default and @Any are skipped, because they match any event.
+   */
+  static String getEventQualifiers(Element element) {
+    return String.join(",", getEventQualifierList(element));
+  }
+
+  private static List<String> getEventQualifierList(Element element) {
+    return element.getAnnotationMirrors().stream().filter(EventProducerGenerator::isQualifier)
+        .map(mirror -> mirror.toString().substring(1)).sorted().collect(Collectors.toList());
+  }
+
+  private static boolean isQualifier(AnnotationMirror mirror) {
+    Element annotation = mirror.getAnnotationType().asElement();
+    String name = MoreElements.asType(annotation).getQualifiedName().toString();
+    return annotation.getAnnotation(Qualifier.class) != null
+        && !name.equals(Default.class.getCanonicalName())
+        && !name.equals(Any.class.getCanonicalName());
   }
 
   @Override
@@ -123,5 +170,69 @@ public class EventProducerGenerator extends ScopedBeanGenerator {
         classBuilder.addConstructorDeclaration(Modifier.Keyword.PRIVATE);
     constructorDeclaration.getBody().addAndGetStatement(new MethodCallExpr("super").addArgument(
         new MethodCallExpr(new NameExpr(BeanManager.class.getCanonicalName() + "Impl"), "get")));
+    addRoutes(constructorDeclaration.getBody());
+  }
+
+  /**
+   * Observers are resolved here, once: an event is delivered to the observers of its supertypes
+   * that don't require qualifiers the event doesn't have.
+   */
+  private void addRoutes(BlockStmt body) {
+    Types types = iocContext.getGenerationContext().getTypes();
+    TypeMirror event = types.erasure(iocContext.getTypeMirror(Event.class));
+
+    Map<String, EventPoint> observers = new TreeMap<>();
+    for (VariableElement parameter : iocContext
+        .getParametersByAnnotation(Observes.class.getCanonicalName())) {
+      EventPoint observer = new EventPoint(types.erasure(parameter.asType()), parameter);
+      observers.put(observer.toString(), observer);
+    }
+
+    Map<String, EventPoint> events = new TreeMap<>(observers);
+    iocContext.getBeans().values().stream()
+        .flatMap(bean -> Stream.concat(bean.getFields().stream(),
+            bean.getConstructorParams().stream()))
+        .map(InjectableVariableDefinition::getVariableElement)
+        .filter(variable -> types.isSameType(types.erasure(variable.asType()), event))
+        .forEach(variable -> {
+          List<? extends TypeMirror> args = MoreTypes.asDeclared(variable.asType()).getTypeArguments();
+          if (!args.isEmpty()) {
+            EventPoint point = new EventPoint(types.erasure(args.get(0)), variable);
+            events.put(point.toString(), point);
+          }
+        });
+
+    for (EventPoint source : events.values()) {
+      for (EventPoint target : observers.values()) {
+        if (!source.toString().equals(target.toString())
+            && types.isAssignable(source.type, target.type)
+            && source.qualifiers.containsAll(target.qualifiers)) {
+          body.addAndGetStatement(new MethodCallExpr("addRoute")
+              .addArgument(new FieldAccessExpr(new NameExpr(source.type.toString()), "class"))
+              .addArgument(new StringLiteralExpr().setString(source.qualifier))
+              .addArgument(new FieldAccessExpr(new NameExpr(target.type.toString()), "class"))
+              .addArgument(new StringLiteralExpr().setString(target.qualifier)));
+        }
+      }
+    }
+  }
+
+  private static class EventPoint {
+
+    private final TypeMirror type;
+    private final String qualifier;
+    private final Set<String> qualifiers;
+
+    private EventPoint(TypeMirror type, Element element) {
+      this.type = type;
+      List<String> qualifiers = getEventQualifierList(element);
+      this.qualifier = String.join(",", qualifiers);
+      this.qualifiers = new HashSet<>(qualifiers);
+    }
+
+    @Override
+    public String toString() {
+      return type + "[" + qualifier + "]";
+    }
   }
 }
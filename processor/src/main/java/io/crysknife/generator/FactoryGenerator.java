@@ -24,6 +24,7 @@ import com.google.auto.common.MoreTypes;
 import io.crysknife.exception.UnableToCompleteException;
 import io.crysknife.generator.api.ClassBuilder;
 import io.crysknife.generator.context.IOCContext;
+import io.crysknife.generator.context.SourceBatch;
 import io.crysknife.definition.BeanDefinition;
 import io.crysknife.definition.ProducesBeanDefinition;
 import io.crysknife.generator.context.oracle.BeanOracle;
@@ -46,6 +47,16 @@ public class FactoryGenerator implements Task {
   }
 
   public void execute() throws UnableToCompleteException {
+    SourceBatch batch = iocContext.openSourceBatch();
+    try {
+      generate();
+    } finally {
+      iocContext.closeSourceBatch();
+    }
+    batch.write();
+  }
+
+  private void generate() throws UnableToCompleteException {
     Set<TypeMirror> processed = new HashSet<>();
 
     for (TypeMirror bean : iocContext.getOrderedBeans()) {
@@ -57,16 +68,25 @@ public class FactoryGenerator implements Task {
           continue;
         }
 
+        if (iocContext.getBeanGraphCache().isUpToDate(beanDefinition)) {
+          continue;
+        }
+
         if (isSuitableBeanDefinition(beanDefinition)) {
-          new ClassBuilder(beanDefinition).build();
+          build(beanDefinition);
         } else {
           Optional<BeanDefinition> maybe = oracle.guessDefaultImpl(erased);
-          maybe.ifPresent(candidate -> new ClassBuilder(candidate).build());
+          maybe.ifPresent(this::build);
         }
       }
     }
   }
 
+  private void build(BeanDefinition beanDefinition) {
+    beanDefinition.getIocGenerator().ifPresent(generator -> iocContext.getProfiler()
+        .run(generator, beanDefinition, () -> new ClassBuilder(beanDefinition).build()));
+  }
+
   private boolean isSuitableBeanDefinition(BeanDefinition beanDefinition) {
     if (beanDefinition.getIocGenerator().isPresent()) {
       return true;
@@ -111,10 +111,8 @@ public class ManagedInstanceGenerator extends BeanIOCGenerator {
       }
 
       if (fieldPoint.getVariableElement().getAnnotation(Named.class) != null) {
-        clazz.getClassCompilationUnit().addImport(QualifierUtil.class.getCanonicalName());
-        instance.addArgument(new MethodCallExpr(new NameExpr("QualifierUtil"), "createNamed")
-            .addArgument(new StringLiteralExpr(
-                fieldPoint.getVariableElement().getAnnotation(Named.class).value())));
+        instance.addArgument(iocContext.getQualifierPool()
+            .named(fieldPoint.getVariableElement().getAnnotation(Named.class).value()));
       }
       result = instance;
     }
@@ -101,10 +101,8 @@ public class ObservesGenerator extends IOCGenerator<MethodDefinition> {
     TypeMirror parameterTypeMirror =
         iocContext.getGenerationContext().getTypes().erasure(parameter.asType());
 
-    MethodCallExpr eventFactory =
-        new MethodCallExpr(new NameExpr("Event_Factory").getNameAsExpression(), "get");
-    MethodCallExpr getEventHandler = new MethodCallExpr(eventFactory, "get")
-        .addArgument(new FieldAccessExpr(new NameExpr(parameterTypeMirror.toString()), "class"));
+    MethodCallExpr getEventHandler = EventProducerGenerator.getEventHandlerCall(
+        parameterTypeMirror, EventProducerGenerator.getEventQualifiers(parameter));
 
     EnclosedExpr castToAbstractEventHandler = new EnclosedExpr(new CastExpr(
         new ClassOrInterfaceType().setName("io.crysknife.client.internal.AbstractEventHandler"),
@@ -122,10 +120,8 @@ public class ObservesGenerator extends IOCGenerator<MethodDefinition> {
     TypeMirror parameterTypeMirror =
         iocContext.getGenerationContext().getTypes().erasure(parameter.asType());
 
-    MethodCallExpr eventFactory =
-        new MethodCallExpr(new NameExpr("Event_Factory").getNameAsExpression(), "get");
-    MethodCallExpr getEventHandler = new MethodCallExpr(eventFactory, "get")
-        .addArgument(new FieldAccessExpr(new NameExpr(parameterTypeMirror.toString()), "class"));
+    MethodCallExpr getEventHandler = EventProducerGenerator.getEventHandlerCall(
+        parameterTypeMirror, EventProducerGenerator.getEventQualifiers(parameter));
 
     EnclosedExpr castToAbstractEventHandler = new EnclosedExpr(new CastExpr(
         new ClassOrInterfaceType().setName("io.crysknife.client.internal.AbstractEventHandler"),
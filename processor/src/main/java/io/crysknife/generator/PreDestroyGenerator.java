@@ -17,8 +17,11 @@ package io.crysknife.generator;
 import com.github.javaparser.ast.Modifier;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.expr.BooleanLiteralExpr;
+import com.github.javaparser.ast.stmt.ReturnStmt;
 import com.google.auto.common.MoreTypes;
 import io.crysknife.definition.BeanDefinition;
+import io.crysknife.definition.InjectableVariableDefinition;
 import io.crysknife.exception.GenerationException;
 import io.crysknife.exception.UnableToCompleteException;
 import io.crysknife.generator.api.ClassBuilder;
@@ -29,9 +32,13 @@ import io.crysknife.util.Utils;
 import io.crysknife.validation.PreDestroyValidator;
 
 import javax.annotation.PreDestroy;
+import javax.enterprise.context.Dependent;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class PreDestroyGenerator {
@@ -55,11 +62,7 @@ public class PreDestroyGenerator {
         new Parameter().setName("instance").setType(beanDefinition.getQualifiedName()));
     classBuilder.getOnDestroyMethod().addAnnotation(Override.class);
 
-    List<ExecutableElement> preDestroy = Utils
-        .getAllMethodsIn(iocContext.getGenerationContext().getElements(),
-            MoreTypes.asTypeElement(beanDefinition.getType()))
-        .stream().filter(elm -> elm.getAnnotation(PreDestroy.class) != null)
-        .collect(Collectors.toList());
+    List<ExecutableElement> preDestroy = getPreDestroyMethods(beanDefinition);
     if (!preDestroy.isEmpty()) {
       if (preDestroy.size() > 1) {
         throw new GenerationException(
@@ -69,6 +72,77 @@ public class PreDestroyGenerator {
       generatePreDestroyInstanceCall(classBuilder.getOnDestroyMethod(), beanDefinition.getType(),
           preDestroy.get(0));
     }
+
+    if (classBuilder.getOnDestroyMethod().getBody().get().isEmpty()) {
+      addFlag(classBuilder, "hasDestroyCallbacks", false);
+    }
+    if (hasLazyDependents(beanDefinition)) {
+      addFlag(classBuilder, "hasLazyDependents", true);
+    }
+  }
+
+  private List<ExecutableElement> getPreDestroyMethods(BeanDefinition beanDefinition) {
+    return Utils
+        .getAllMethodsIn(iocContext.getGenerationContext().getElements(),
+            MoreTypes.asTypeElement(beanDefinition.getType()))
+        .stream().filter(elm -> elm.getAnnotation(PreDestroy.class) != null)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * @return true, if the fields are injected lazily by the aspects and some of them are @Dependent
+   *         beans that need destruction, they are created after the instance and must find its
+   *         creational context
+   */
+  private boolean hasLazyDependents(BeanDefinition beanDefinition) {
+    if (utils.isFactoryFieldInjection()) {
+      return false;
+    }
+    Types types = iocContext.getGenerationContext().getTypes();
+    for (InjectableVariableDefinition field : beanDefinition.getFields()) {
+      if (field.getGenerator().isPresent()) {
+        continue;
+      }
+      BeanDefinition bean = field.getImplementation().orElseGet(() -> iocContext.getBeans()
+          .get(types.erasure(field.getVariableElement().asType())));
+      if (bean != null && isDependent(bean) && needsDestruction(bean, new HashSet<>())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return true, if destroying the bean does something: it has a @PreDestroy method, decorators,
+   *         that may add destroy callbacks like the @Observes methods do, or @Dependent
+   *         dependencies that need destruction
+   */
+  private boolean needsDestruction(BeanDefinition bean, Set<BeanDefinition> visited) {
+    if (!visited.add(bean)) {
+      return false;
+    }
+    if (!bean.getDecorators().isEmpty()
+        || bean.getMethods().stream().anyMatch(method -> !method.getDecorators().isEmpty())
+        || !getPreDestroyMethods(bean).isEmpty()) {
+      return true;
+    }
+    for (BeanDefinition dependency : bean.getDependencies()) {
+      if (isDependent(dependency) && needsDestruction(dependency, visited)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean isDependent(BeanDefinition bean) {
+    return bean.getScope().annotationType().equals(Dependent.class);
+  }
+
+  private void addFlag(ClassBuilder classBuilder, String name, boolean value) {
+    MethodDeclaration flag = classBuilder.addMethod(name, Modifier.Keyword.PROTECTED);
+    flag.addAnnotation(Override.class);
+    flag.setType(boolean.class);
+    flag.getBody().get().addAndGetStatement(new ReturnStmt(new BooleanLiteralExpr(value)));
   }
 
   private void generatePreDestroyInstanceCall(MethodDeclaration onDestroy, TypeMirror parent,
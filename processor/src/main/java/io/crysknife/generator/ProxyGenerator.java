@@ -145,6 +145,11 @@ public class ProxyGenerator extends ScopedBeanGenerator<BeanDefinition> {
           .setType(Utils.getSimpleClassName(beanDefinition.getType())).setName("delegate")
           .setInitializer(generateInstanceInitializerNewObjectExpr(builder, beanDefinition))));
 
+      if (iocContext.getGenerationContext().isJreDirectInjection()) {
+        beanDefinition.getFields().forEach(fieldPoint -> body.addStatement(
+            getFieldInjectionExpression(beanDefinition, fieldPoint, new NameExpr("delegate"))));
+      }
+
       body.addAndGetStatement(new MethodCallExpr(new EnclosedExpr(new CastExpr(
           new ClassOrInterfaceType()
               .setName("Proxy" + Utils.getSimpleClassName(beanDefinition.getType())),
@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.generator;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Modifier;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import io.crysknife.exception.GenerationException;
+import io.crysknife.exception.UnableToCompleteException;
+import io.crysknife.generator.context.IOCContext;
+import io.crysknife.generator.context.QualifierPool;
+import io.crysknife.logger.TreeLogger;
+import io.crysknife.task.Task;
+
+import javax.annotation.processing.FilerException;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Generates the holder of the qualifier instances collected by the {@link QualifierPool}, it must
+ * run after all other generators.
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+public class QualifiersGenerator implements Task {
+
+  private final IOCContext iocContext;
+
+  private final TreeLogger logger;
+
+  public QualifiersGenerator(IOCContext iocContext, TreeLogger logger) {
+    this.iocContext = iocContext;
+    this.logger = logger;
+  }
+
+  @Override
+  public void execute() throws UnableToCompleteException {
+    QualifierPool pool = iocContext.getQualifierPool();
+    if (pool.getEntries().isEmpty()) {
+      return;
+    }
+
+    String holder = QualifierPool.HOLDER;
+    CompilationUnit clazz = new CompilationUnit();
+    clazz.setPackageDeclaration(holder.substring(0, holder.lastIndexOf('.')));
+    ClassOrInterfaceDeclaration classDeclaration = clazz.addClass(
+        holder.substring(holder.lastIndexOf('.') + 1), Modifier.Keyword.PUBLIC,
+        Modifier.Keyword.FINAL);
+    classDeclaration.addConstructor(Modifier.Keyword.PRIVATE);
+
+    pool.getEntries().forEach((field, entry) -> classDeclaration
+        .addFieldWithInitializer(new ClassOrInterfaceType().setName(entry.getType()), field,
+            entry.getValue().clone(), Modifier.Keyword.PUBLIC, Modifier.Keyword.STATIC,
+            Modifier.Keyword.FINAL));
+
+    try {
+      JavaFileObject builderFile = iocContext.getGenerationContext().getProcessingEnvironment()
+          .getFiler().createSourceFile(holder);
+      String source = clazz.toString();
+      try (PrintWriter out = new PrintWriter(builderFile.openWriter())) {
+        out.append(source);
+      }
+      iocContext.getProfiler().fileWritten(source);
+    } catch (FilerException e) {
+      // we can ignore it
+    } catch (IOException e) {
+      throw new GenerationException(e);
+    }
+    logger.log(TreeLogger.DEBUG, "qualifiers " + pool.getEntries().size());
+  }
+}
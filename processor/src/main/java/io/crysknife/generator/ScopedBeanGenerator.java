@@ -53,7 +53,6 @@ import io.crysknife.definition.InjectionParameterDefinition;
 import io.crysknife.definition.ProducesBeanDefinition;
 import io.crysknife.exception.GenerationException;
 import io.crysknife.generator.api.ClassBuilder;
-import io.crysknife.generator.context.ExecutionEnv;
 import io.crysknife.generator.context.IOCContext;
 import io.crysknife.logger.TreeLogger;
 import io.crysknife.util.Utils;
@@ -95,7 +94,7 @@ public abstract class ScopedBeanGenerator<T> extends BeanIOCGenerator<BeanDefini
   public void generate(ClassBuilder clazz, BeanDefinition beanDefinition) {
     initClassBuilder(clazz, beanDefinition);
     generateDependantFields(clazz, beanDefinition);
-    generateInterceptorFieldDeclaration(clazz);
+    generateInterceptorFieldDeclaration(clazz, beanDefinition);
     generateNewInstanceMethodBuilder(clazz);
     generateInitInstanceMethodBuilder(clazz, beanDefinition);
     generateInstanceGetMethodBuilder(clazz, beanDefinition);
@@ -196,8 +195,9 @@ public abstract class ScopedBeanGenerator<T> extends BeanIOCGenerator<BeanDefini
     clazz.getExtendedTypes().add(factory);
   }
 
-  private void generateInterceptorFieldDeclaration(ClassBuilder clazz) {
-    if (iocContext.getGenerationContext().getExecutionEnv().equals(ExecutionEnv.J2CL)) {
+  private void generateInterceptorFieldDeclaration(ClassBuilder clazz,
+      BeanDefinition beanDefinition) {
+    if (generationUtils.isIntercepted(beanDefinition)) {
       clazz.getClassCompilationUnit().addImport(Interceptor.class);
       clazz.addField(Interceptor.class.getSimpleName(), "interceptor", Modifier.Keyword.PRIVATE);
     }
@@ -260,10 +260,9 @@ public abstract class ScopedBeanGenerator<T> extends BeanIOCGenerator<BeanDefini
     constructorDeclaration.getBody()
         .addAndGetStatement(new MethodCallExpr("super").addArgument("beanManager"));
 
-    if (!iocContext.getGenerationContext().getExecutionEnv().equals(ExecutionEnv.JRE)) {
+    if (generationUtils.isFactoryFieldInjection()) {
       beanDefinition.getFields().forEach(fieldPoint -> {
-        Expression expr =
-            getFieldAccessorExpression(classBuilder, beanDefinition, fieldPoint, "field");
+        Expression expr = getFieldInjectionExpression(classBuilder, beanDefinition, fieldPoint);
         classBuilder.getGetMethodDeclaration().getBody().get().addStatement(expr);
       });
     }
@@ -271,7 +270,29 @@ public abstract class ScopedBeanGenerator<T> extends BeanIOCGenerator<BeanDefini
     beanDefinition.getDecorators().stream()
         .sorted(
             Comparator.comparingInt(o -> o.getClass().getAnnotation(Generator.class).priority()))
-        .forEach(gen -> gen.generate(classBuilder, beanDefinition));
+        .forEach(gen -> iocContext.getProfiler().run(gen, beanDefinition,
+            () -> gen.generate(classBuilder, beanDefinition)));
+  }
+
+  /**
+   * Intercepted beans get their fields injected lazily, on the first access, within the creational
+   * context of the instance, otherwise the field is set right after the instance has been created.
+   */
+  protected Expression getFieldInjectionExpression(ClassBuilder classBuilder,
+      BeanDefinition beanDefinition, InjectableVariableDefinition fieldPoint) {
+    if (generationUtils.isIntercepted(beanDefinition)) {
+      return getFieldAccessorExpression(classBuilder, beanDefinition, fieldPoint, "field");
+    }
+    return getFieldInjectionExpression(beanDefinition, fieldPoint, new NameExpr("instance"));
+  }
+
+  protected Expression getFieldInjectionExpression(BeanDefinition beanDefinition,
+      InjectableVariableDefinition fieldPoint, Expression target) {
+    String varName = "_field_" + fieldPoint.getVariableElement().getSimpleName().toString();
+    return generationUtils.setFieldValueCallExpr(beanDefinition, fieldPoint.getVariableElement(),
+        target, new MethodCallExpr(
+            new MethodCallExpr(new FieldAccessExpr(new ThisExpr(), varName), "get"),
+            "getInstance"));
   }
 
   protected Expression getFieldAccessorExpression(ClassBuilder classBuilder,
@@ -303,6 +324,7 @@ public abstract class ScopedBeanGenerator<T> extends BeanIOCGenerator<BeanDefini
 
     ObjectCreationExpr onFieldAccessedCreationExpr = new ObjectCreationExpr();
     onFieldAccessedCreationExpr.setType(OnFieldAccessed.class.getSimpleName());
+    onFieldAccessedCreationExpr.addArgument(new FieldAccessExpr(new ThisExpr(), "beanManager"));
     onFieldAccessedCreationExpr.addArgument(lambda);
 
     return new MethodCallExpr(fieldAccessExpr, "addGetPropertyInterceptor").addArgument(reflect)
@@ -319,7 +341,8 @@ public abstract class ScopedBeanGenerator<T> extends BeanIOCGenerator<BeanDefini
       point.getDecorators().stream()
           .sorted(
               Comparator.comparingInt(o -> o.getClass().getAnnotation(Generator.class).priority()))
-          .forEach(generator -> generator.generate(clazz, point));
+          .forEach(generator -> iocContext.getProfiler().run(generator, point,
+              () -> generator.generate(clazz, point)));
     });
   }
 
@@ -334,7 +357,8 @@ public abstract class ScopedBeanGenerator<T> extends BeanIOCGenerator<BeanDefini
             if (decorator instanceof ProducesGenerator) {
               // TODO Produces
             } else {
-              decorator.generate(clazz, method);
+              iocContext.getProfiler().run(decorator, method,
+                  () -> decorator.generate(clazz, method));
             }
           });
     });
@@ -389,7 +413,7 @@ public abstract class ScopedBeanGenerator<T> extends BeanIOCGenerator<BeanDefini
 
     Expression instanceFieldAssignExpr;
 
-    if (iocContext.getGenerationContext().getExecutionEnv().equals(ExecutionEnv.J2CL)) {
+    if (generationUtils.isIntercepted(definition)) {
       FieldAccessExpr interceptor = new FieldAccessExpr(new ThisExpr(), "interceptor");
 
       ObjectCreationExpr interceptorCreationExpr = new ObjectCreationExpr();
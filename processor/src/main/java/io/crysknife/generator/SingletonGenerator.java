@@ -17,18 +17,23 @@ package io.crysknife.generator;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Singleton;
 
+import com.github.javaparser.ast.expr.AssignExpr;
 import com.github.javaparser.ast.expr.BinaryExpr;
 import com.github.javaparser.ast.expr.CastExpr;
 import com.github.javaparser.ast.expr.FieldAccessExpr;
+import com.github.javaparser.ast.expr.MethodCallExpr;
 import com.github.javaparser.ast.expr.NameExpr;
 import com.github.javaparser.ast.expr.NullLiteralExpr;
 import com.github.javaparser.ast.expr.ThisExpr;
+import com.github.javaparser.ast.expr.VariableDeclarationExpr;
 import com.github.javaparser.ast.stmt.BlockStmt;
 import com.github.javaparser.ast.stmt.IfStmt;
 import com.github.javaparser.ast.stmt.ReturnStmt;
+import com.github.javaparser.ast.stmt.SynchronizedStmt;
 import com.github.javaparser.ast.type.ClassOrInterfaceType;
 import io.crysknife.annotation.Generator;
 import io.crysknife.generator.api.ClassBuilder;
+import io.crysknife.generator.context.ExecutionEnv;
 import io.crysknife.generator.context.IOCContext;
 import io.crysknife.definition.BeanDefinition;
 import io.crysknife.logger.TreeLogger;
@@ -65,5 +70,27 @@ public class SingletonGenerator extends ScopedBeanGenerator {
             .setExpression(new NameExpr("instance"))));
     body.addAndGetStatement(ifStmt);
     body.addAndGetStatement(generateInstanceInitializer(builder, beanDefinition));
+
+    // in the JRE the instance may be looked up from several threads, it's created once under the
+    // lock of the factory, the initialized instance is read without it
+    if (iocContext.getGenerationContext().getExecutionEnv().equals(ExecutionEnv.JRE)) {
+      builder.getClassDeclaration().getMethodsByName("getInstance")
+          .forEach(method -> method
+              .setBody(doubleChecked(clazzName, method.getBody().get().clone())));
+    }
+  }
+
+  private BlockStmt doubleChecked(String clazzName, BlockStmt locked) {
+    BlockStmt body = new BlockStmt();
+    body.addAndGetStatement(new AssignExpr()
+        .setTarget(new VariableDeclarationExpr(
+            new ClassOrInterfaceType().setName(clazzName), "initialized"))
+        .setValue(new MethodCallExpr("getInitializedInstance")));
+    body.addAndGetStatement(new IfStmt()
+        .setCondition(new BinaryExpr(new NameExpr("initialized"), new NullLiteralExpr(),
+            BinaryExpr.Operator.NOT_EQUALS))
+        .setThenStmt(new ReturnStmt(new NameExpr("initialized"))));
+    body.addAndGetStatement(new SynchronizedStmt(new ThisExpr(), locked));
+    return body;
   }
 }
@@ -0,0 +1,221 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.generator.context;
+
+import com.google.auto.common.MoreTypes;
+import io.crysknife.definition.BeanDefinition;
+import io.crysknife.definition.InjectableVariableDefinition;
+import io.crysknife.definition.ProducesBeanDefinition;
+import io.crysknife.generator.DependentGenerator;
+import io.crysknife.generator.IOCGenerator;
+import io.crysknife.generator.SingletonGenerator;
+import io.crysknife.util.Utils;
+
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Persists the resolved bean graph between compilations: a digest of every bean, its members,
+ * injection points, qualifiers and chosen implementations. Factories of the beans, whose digest
+ * hasn't changed and whose sources have been generated before, are not generated again, the
+ * registration table is always regenerated.
+ *
+ * Generated sources directory must be a source root of the compilation, as it is with
+ * maven-compiler-plugin, so the skipped factories are still compiled.
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+public class BeanGraphCache {
+
+  private static final String CACHE = "crysknife/bean-graph.cache";
+  private static final String OPTIONS = "#options";
+
+  private final IOCContext iocContext;
+  private final Properties previous = new Properties();
+  private final Map<String, String> current = new TreeMap<>();
+  private int changed;
+
+  BeanGraphCache(IOCContext iocContext) {
+    this.iocContext = iocContext;
+  }
+
+  public boolean isEnabled() {
+    return iocContext.getGenerationContext().isIncremental();
+  }
+
+  public void load() {
+    try (InputStream in = getFiler().getResource(StandardLocation.SOURCE_OUTPUT, "", CACHE)
+        .openInputStream()) {
+      previous.load(in);
+    } catch (IOException | IllegalArgumentException e) {
+      // there is no cache yet
+    }
+    if (!options().equals(previous.getProperty(OPTIONS))) {
+      previous.clear();
+    }
+  }
+
+  public void update() {
+    current.put(OPTIONS, options());
+    iocContext.getBeans().forEach((type, bean) -> {
+      String digest = digest(bean);
+      String name = bean.getQualifiedName();
+      current.put(name, digest);
+      if (!digest.equals(previous.getProperty(name))) {
+        changed++;
+      }
+    });
+  }
+
+  /**
+   * @return entries stored by the previous compilation under the prefix, without it
+   */
+  public Map<String, String> getPrevious(String prefix) {
+    Map<String, String> result = new TreeMap<>();
+    previous.stringPropertyNames().stream().filter(key -> key.startsWith(prefix))
+        .forEach(key -> result.put(key.substring(prefix.length()), previous.getProperty(key)));
+    return result;
+  }
+
+  /**
+   * Stores an entry, besides the bean digests, for the next compilation.
+   */
+  public void put(String key, String value) {
+    current.put(key, value);
+  }
+
+  public int getChanged() {
+    return changed;
+  }
+
+  public void save() throws IOException {
+    FileObject cache = getFiler().createResource(StandardLocation.SOURCE_OUTPUT, "", CACHE);
+    Properties properties = new Properties();
+    properties.putAll(current);
+    try (OutputStream out = cache.openOutputStream()) {
+      properties.store(out, "crysknife bean graph");
+    }
+  }
+
+  /**
+   * @return true if the factory of the bean has been generated by the previous compilation from
+   *         the same bean graph
+   */
+  public boolean isUpToDate(BeanDefinition bean) {
+    if (!isEnabled() || !bean.getDecorators().isEmpty() || !bean.getIocGenerator().isPresent()) {
+      return false;
+    }
+    IOCGenerator generator = bean.getIocGenerator().get();
+    if (!generator.getClass().equals(SingletonGenerator.class)
+        && !generator.getClass().equals(DependentGenerator.class)) {
+      return false;
+    }
+    String digest = current.get(bean.getQualifiedName());
+    return digest != null && digest.equals(previous.getProperty(bean.getQualifiedName()))
+        && exists(Utils.getQualifiedFactoryName(bean.getType()));
+  }
+
+  public boolean exists(String qualifiedName) {
+    int dot = qualifiedName.lastIndexOf('.');
+    try {
+      return getFiler().getResource(StandardLocation.SOURCE_OUTPUT,
+          dot > 0 ? qualifiedName.substring(0, dot) : "",
+          qualifiedName.substring(dot + 1) + ".java").getLastModified() > 0;
+    } catch (IOException | IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  private String digest(BeanDefinition bean) {
+    StringBuilder sb = new StringBuilder();
+    sb.append(describe(bean));
+
+    List<TypeElement> types = new ArrayList<>();
+    if (bean instanceof ProducesBeanDefinition) {
+      sb.append('|').append(describe(((ProducesBeanDefinition) bean).getMethod()));
+      types.add(((ProducesBeanDefinition) bean).getProducer());
+    } else {
+      types.add(MoreTypes.asTypeElement(bean.getType()));
+      types.addAll(Utils.getSuperTypes(iocContext.getGenerationContext().getElements(),
+          MoreTypes.asTypeElement(bean.getType())));
+    }
+    for (TypeElement type : types) {
+      sb.append('|').append(describe(type));
+      for (Element member : type.getEnclosedElements()) {
+        sb.append('|').append(describe(member));
+      }
+    }
+
+    List<InjectableVariableDefinition> points = new ArrayList<>(bean.getConstructorParams());
+    points.addAll(bean.getFields());
+    for (InjectableVariableDefinition point : points) {
+      sb.append('|').append(point.getVariableElement().getSimpleName()).append('=')
+          .append(point.getImplementation().map(this::describe).orElse(""))
+          .append(point.getGenerator().map(gen -> gen.getClass().getName()).orElse(""));
+    }
+    bean.getDependencies().forEach(dep -> sb.append('|').append(describe(dep)));
+    return hash(sb.toString());
+  }
+
+  private String describe(BeanDefinition bean) {
+    return bean.getType().toString() + "@" + bean.getScope().annotationType().getName() + "@"
+        + bean.isProxy() + "@"
+        + bean.getIocGenerator().map(gen -> gen.getClass().getName()).orElse("");
+  }
+
+  private String describe(Element element) {
+    return element.getKind() + " " + element.getModifiers() + " " + element.asType() + " "
+        + element + " " + element.getAnnotationMirrors();
+  }
+
+  private String options() {
+    return new TreeMap<>(iocContext.getGenerationContext().getProcessingEnvironment().getOptions())
+        .entrySet().stream().map(e -> e.getKey() + "=" + e.getValue())
+        .collect(Collectors.joining(","));
+  }
+
+  private String hash(String value) {
+    try {
+      byte[] digest =
+          MessageDigest.getInstance("SHA-1").digest(value.getBytes(StandardCharsets.UTF_8));
+      StringBuilder sb = new StringBuilder();
+      for (byte b : digest) {
+        sb.append(String.format("%02x", b));
+      }
+      return sb.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new Error(e);
+    }
+  }
+
+  private Filer getFiler() {
+    return iocContext.getGenerationContext().getProcessingEnvironment().getFiler();
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.generator.context;
+
+import io.crysknife.annotation.Generator;
+import io.crysknife.exception.GenerationException;
+import io.github.classgraph.ClassGraph;
+import io.github.classgraph.ClassInfo;
+import io.github.classgraph.ScanResult;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Types of the classpath, that contain annotated elements, and the generators. By default they are
+ * read from the indexes written by BeanIndexProcessor to META-INF/crysknife/index of each module,
+ * with {@link GenerationContext#FULL_SCAN_OPTION} the whole classpath is scanned instead.
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+public class ClasspathIndex {
+
+  public static final String INDEX = "META-INF/crysknife/index";
+
+  public static final String TYPE = "T";
+  public static final String FIELD = "F";
+  public static final String METHOD = "M";
+  public static final String PARAMETER = "P";
+
+  private final ClassLoader classLoader = getClass().getClassLoader();
+  private final ScanResult scanResult;
+  private final Map<String, Set<String>> index = new HashMap<>();
+
+  ClasspathIndex(boolean fullScan) {
+    if (fullScan) {
+      scanResult = new ClassGraph().enableAllInfo().scan();
+    } else {
+      scanResult = null;
+      readIndex();
+    }
+  }
+
+  /**
+   * @return line of the index, the annotation, the kind of the annotated element and the qualified
+   *         name of the type that declares it
+   */
+  public static String entry(String annotation, String kind, String type) {
+    return annotation + " " + kind + " " + type;
+  }
+
+  public Set<String> getTypesWithAnnotation(String annotation) {
+    if (scanResult != null) {
+      return names(scanResult.getClassesWithAnnotation(annotation));
+    }
+    return get(annotation, TYPE);
+  }
+
+  public Set<String> getTypesWithFieldAnnotation(String annotation) {
+    if (scanResult != null) {
+      return names(scanResult.getClassesWithFieldAnnotation(annotation));
+    }
+    return get(annotation, FIELD);
+  }
+
+  public Set<String> getTypesWithMethodAnnotation(String annotation) {
+    if (scanResult != null) {
+      return names(scanResult.getClassesWithMethodAnnotation(annotation));
+    }
+    return get(annotation, METHOD);
+  }
+
+  public Set<String> getTypesWithMethodParameterAnnotation(String annotation) {
+    if (scanResult != null) {
+      return names(scanResult.getClassesWithMethodParameterAnnotation(annotation));
+    }
+    return get(annotation, PARAMETER);
+  }
+
+  /**
+   * @return qualified names of the annotations found in the indexes, the annotations of the
+   *         elements declared in jars without an index are looked up through them
+   */
+  public Set<String> getAnnotations() {
+    if (scanResult != null) {
+      return names(scanResult.getAllAnnotations());
+    }
+    return index.keySet().stream().map(key -> key.substring(0, key.indexOf(' ')))
+        .collect(Collectors.toCollection(LinkedHashSet::new));
+  }
+
+  /**
+   * @return class names of the generators, the types annotated with @Generator. BeanIndexProcessor
+   *         doesn't run while the processor itself is compiled, so its own generators aren't
+   *         indexed, they are found by scanning the code source of the processor.
+   */
+  public Set<String> getGenerators() {
+    String generator = Generator.class.getCanonicalName();
+    if (scanResult != null) {
+      return names(scanResult.getClassesWithAnnotation(generator));
+    }
+    Set<String> generators = new LinkedHashSet<>();
+    URL processor = getClass().getProtectionDomain().getCodeSource().getLocation();
+    try (ScanResult own =
+        new ClassGraph().overrideClasspath(processor).enableAnnotationInfo().scan()) {
+      generators.addAll(names(own.getClassesWithAnnotation(generator)));
+    }
+    generators.addAll(get(generator, TYPE));
+    return generators;
+  }
+
+  private void readIndex() {
+    read(INDEX, line -> {
+      String[] entry = line.split(" ");
+      if (entry.length == 3) {
+        index.computeIfAbsent(entry[0] + " " + entry[1], key -> new LinkedHashSet<>())
+            .add(entry[2]);
+      }
+    });
+  }
+
+  private Set<String> get(String annotation, String kind) {
+    return index.getOrDefault(annotation + " " + kind, Collections.emptySet());
+  }
+
+  private Set<String> names(Iterable<ClassInfo> classes) {
+    Set<String> names = new LinkedHashSet<>();
+    for (ClassInfo info : classes) {
+      names.add(info.getName());
+    }
+    return names;
+  }
+
+  private void read(String resource, Consumer<String> consumer) {
+    try {
+      Enumeration<URL> urls = classLoader.getResources(resource);
+      while (urls.hasMoreElements()) {
+        try (BufferedReader reader = new BufferedReader(
+            new InputStreamReader(urls.nextElement().openStream(), StandardCharsets.UTF_8))) {
+          String line;
+          while ((line = reader.readLine()) != null) {
+            consumer.accept(line);
+          }
+        }
+      }
+    } catch (IOException e) {
+      throw new GenerationException("Unable to read " + resource, e);
+    }
+  }
+}
@@ -19,22 +19,95 @@ import javax.annotation.processing.RoundEnvironment;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 import javax.tools.Diagnostic;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 import io.crysknife.generator.context.oracle.ResourceOracle;
 import io.crysknife.generator.context.oracle.ResourceOracleImpl;
-import io.github.classgraph.ClassGraph;
-import io.github.classgraph.ScanResult;
 
 /**
  * @author Dmitrii Tikhomirov Created by treblereel 2/21/19
  */
 public class GenerationContext {
 
+  /**
+   * In J2CL mode, inject fields straight from the factory instead of wrapping beans into an ES
+   * Proxy. Only beans annotated with @CircularDependency are still proxied.
+   */
+  public static final String PROXYLESS_OPTION = "crysknife.proxyless";
+
+  /**
+   * JRE or J2CL, by default JRE is chosen if AspectJ is on the classpath.
+   */
+  public static final String EXECUTION_ENV_OPTION = "crysknife.executionEnv";
+
+  /**
+   * In JRE mode, inject fields straight from the factory instead of generating AspectJ aspects, so
+   * there is no need to weave the application.
+   */
+  public static final String JRE_DIRECT_INJECTION_OPTION = "crysknife.jre.directInjection";
+
+  /**
+   * In JRE mode, create the singletons at startup, dependencies first and independent ones in
+   * parallel, instead of on the first lookup.
+   */
+  public static final String JRE_WARM_UP_OPTION = "crysknife.jre.warmUp";
+
+  /**
+   * Generate only the beans reachable from the application, @Startup beans, observers, templates
+   * and pages.
+   */
+  public static final String TREE_SHAKING_OPTION = "crysknife.treeShaking";
+
+  /**
+   * Comma separated list of the types, that are kept by the tree shaking, like the beans looked up
+   * via BeanManager, with all their subtypes.
+   */
+  public static final String KEEP_OPTION = "crysknife.keep";
+
+  /**
+   * Keep the resolved bean graph between compilations and regenerate only the factories of the
+   * beans that have changed, see {@link BeanGraphCache}.
+   */
+  public static final String INCREMENTAL_OPTION = "crysknife.incremental";
+
+  /**
+   * Scan the whole classpath for the annotated elements and the generators instead of reading the
+   * indexes of the modules.
+   */
+  public static final String FULL_SCAN_OPTION = "crysknife.fullScan";
+
+  /**
+   * Number of threads that render the generated sources, the number of processors by default. The
+   * output doesn't depend on it.
+   */
+  public static final String THREADS_OPTION = "crysknife.threads";
+
+  /**
+   * Measure the tasks and the generators, see {@link GenerationProfiler}.
+   */
+  public static final String PROFILE_OPTION = "crysknife.profile";
+
+  /**
+   * Drop the comments and the insignificant whitespace of the templates before they are inlined,
+   * off by default, a stylesheet can make the whitespace significant.
+   */
+  public static final String MINIFY_TEMPLATES_OPTION = "crysknife.templates.minify";
+
   private final RoundEnvironment roundEnvironment;
   private final ProcessingEnvironment processingEnvironment;
-  private final ScanResult scanResult = new ClassGraph().enableAllInfo().scan();
+  private final ClasspathIndex classpathIndex;
   private final ResourceOracle resourceOracle = new ResourceOracleImpl(this);
   private ExecutionEnv executionEnv = ExecutionEnv.J2CL;
+  private final boolean proxyless;
+  private final boolean jreDirectInjection;
+  private final boolean jreWarmUp;
+  private final boolean treeShaking;
+  private final boolean incremental;
+  private final int threads;
+  private final boolean profile;
+  private final boolean minifyTemplates;
+  private final Set<String> keep = new LinkedHashSet<>();
 
 
   public GenerationContext(RoundEnvironment roundEnvironment,
@@ -42,21 +115,88 @@ public class GenerationContext {
     this.roundEnvironment = roundEnvironment;
     this.processingEnvironment = processingEnvironment;
 
-    try {
-      Class.forName("org.aspectj.lang.ProceedingJoinPoint");
-      executionEnv = ExecutionEnv.JRE;
+    String env = processingEnvironment.getOptions().get(EXECUTION_ENV_OPTION);
+    if (env != null) {
+      executionEnv = ExecutionEnv.valueOf(env.toUpperCase());
+    } else {
+      try {
+        Class.forName("org.aspectj.lang.ProceedingJoinPoint");
+        executionEnv = ExecutionEnv.JRE;
+      } catch (ClassNotFoundException e) {
+
+      }
+    }
+    if (executionEnv.equals(ExecutionEnv.JRE)) {
       processingEnvironment.getMessager().printMessage(Diagnostic.Kind.WARNING,
           "JRE generation mode.");
-    } catch (ClassNotFoundException e) {
-
     }
     System.out.println("Current generation mode: " + executionEnv);
+
+    proxyless = Boolean.parseBoolean(processingEnvironment.getOptions().get(PROXYLESS_OPTION));
+    jreDirectInjection = executionEnv.equals(ExecutionEnv.JRE) && Boolean
+        .parseBoolean(processingEnvironment.getOptions().get(JRE_DIRECT_INJECTION_OPTION));
+    jreWarmUp = executionEnv.equals(ExecutionEnv.JRE)
+        && Boolean.parseBoolean(processingEnvironment.getOptions().get(JRE_WARM_UP_OPTION));
+    treeShaking = Boolean.parseBoolean(processingEnvironment.getOptions().get(TREE_SHAKING_OPTION));
+    incremental = Boolean.parseBoolean(processingEnvironment.getOptions().get(INCREMENTAL_OPTION));
+    classpathIndex = new ClasspathIndex(
+        Boolean.parseBoolean(processingEnvironment.getOptions().get(FULL_SCAN_OPTION)));
+    profile = Boolean.parseBoolean(processingEnvironment.getOptions().get(PROFILE_OPTION));
+    minifyTemplates =
+        Boolean.parseBoolean(processingEnvironment.getOptions().get(MINIFY_TEMPLATES_OPTION));
+    String threads = processingEnvironment.getOptions().get(THREADS_OPTION);
+    this.threads = threads != null ? Math.max(1, Integer.parseInt(threads.trim()))
+        : Runtime.getRuntime().availableProcessors();
+    String types = processingEnvironment.getOptions().get(KEEP_OPTION);
+    if (types != null) {
+      for (String type : types.split(",")) {
+        if (!type.trim().isEmpty()) {
+          keep.add(type.trim());
+        }
+      }
+    }
   }
 
   public ExecutionEnv getExecutionEnv() {
     return executionEnv;
   }
 
+  public boolean isProxyless() {
+    return proxyless;
+  }
+
+  public boolean isJreDirectInjection() {
+    return jreDirectInjection;
+  }
+
+  public boolean isJreWarmUp() {
+    return jreWarmUp;
+  }
+
+  public boolean isTreeShaking() {
+    return treeShaking;
+  }
+
+  public Set<String> getKeep() {
+    return keep;
+  }
+
+  public boolean isIncremental() {
+    return incremental;
+  }
+
+  public int getThreads() {
+    return threads;
+  }
+
+  public boolean isProfile() {
+    return profile;
+  }
+
+  public boolean isMinifyTemplates() {
+    return minifyTemplates;
+  }
+
   public Elements getElements() {
     return processingEnvironment.getElementUtils();
   }
@@ -77,7 +217,7 @@ public class GenerationContext {
     return resourceOracle;
   }
 
-  public ScanResult getScanResult() {
-    return scanResult;
+  public ClasspathIndex getClasspathIndex() {
+    return classpathIndex;
   }
 }
@@ -0,0 +1,220 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.generator.context;
+
+import io.crysknife.definition.BeanDefinition;
+import io.crysknife.definition.Definition;
+import io.crysknife.generator.IOCGenerator;
+import io.crysknife.logger.TreeLogger;
+
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Measures the tasks and the generators: wall time, number of calls, beans and fields processed,
+ * files generated and bytes written. Time and output of a nested measurement are included in the
+ * enclosing ones, so a task includes the generators it has called.
+ *
+ * The report is written to crysknife-profile.json, next to the classes output directory, which is
+ * target/ with maven, and summarised to the logger.
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+public class GenerationProfiler {
+
+  public static final String TASK = "task";
+  public static final String GENERATOR = "generator";
+
+  private static final String REPORT = "crysknife-profile.json";
+
+  private final IOCContext iocContext;
+  private final Map<String, Measurement> measurements = new LinkedHashMap<>();
+  private final Deque<Measurement> active = new ArrayDeque<>();
+
+  GenerationProfiler(IOCContext iocContext) {
+    this.iocContext = iocContext;
+  }
+
+  public boolean isEnabled() {
+    return iocContext.getGenerationContext().isProfile();
+  }
+
+  public void start(String kind, String name) {
+    if (!isEnabled()) {
+      return;
+    }
+    Measurement measurement =
+        measurements.computeIfAbsent(kind + ':' + name, key -> new Measurement(kind, name));
+    measurement.calls++;
+    if (measurement.depth++ == 0) {
+      measurement.started = System.nanoTime();
+    }
+    active.push(measurement);
+  }
+
+  public void stop() {
+    if (!isEnabled() || active.isEmpty()) {
+      return;
+    }
+    Measurement measurement = active.pop();
+    if (--measurement.depth == 0) {
+      measurement.nanos += System.nanoTime() - measurement.started;
+    }
+  }
+
+  /**
+   * Runs a generator for the definition, measured under the name of the generator.
+   */
+  public void run(IOCGenerator generator, Definition definition, Runnable action) {
+    if (!isEnabled()) {
+      action.run();
+      return;
+    }
+    start(GENERATOR, getName(generator));
+    try {
+      if (definition instanceof BeanDefinition) {
+        active.peek().beans++;
+        active.peek().fields += ((BeanDefinition) definition).getFields().size();
+      }
+      action.run();
+    } finally {
+      stop();
+    }
+  }
+
+  public void run(IOCGenerator generator, Runnable action) {
+    run(generator, null, action);
+  }
+
+  /**
+   * Sets the number of beans and fields known after the current measurement.
+   */
+  public void setBeans(int beans, int fields) {
+    if (isEnabled() && !active.isEmpty()) {
+      active.peek().beans = beans;
+      active.peek().fields = fields;
+    }
+  }
+
+  public void fileWritten(String source) {
+    if (!isEnabled()) {
+      return;
+    }
+    int bytes = source.getBytes(StandardCharsets.UTF_8).length;
+    for (Measurement measurement : new HashSet<>(active)) {
+      measurement.files++;
+      measurement.bytes += bytes;
+    }
+  }
+
+  public void report(TreeLogger logger) {
+    if (!isEnabled() || measurements.isEmpty()) {
+      return;
+    }
+    List<Measurement> sorted = new ArrayList<>(measurements.values());
+    sorted.sort(Comparator.comparingLong((Measurement m) -> m.nanos).reversed());
+
+    TreeLogger branch = logger.branch(TreeLogger.INFO, "generation profile");
+    for (Measurement measurement : sorted) {
+      branch.log(TreeLogger.INFO,
+          String.format("%-9s %8.1f ms %6d calls %6d beans %7d fields %5d files %9d bytes  %s",
+              measurement.kind, measurement.nanos / 1_000_000.0, measurement.calls,
+              measurement.beans, measurement.fields, measurement.files, measurement.bytes,
+              measurement.name));
+    }
+
+    Path report = getReportPath();
+    try {
+      Files.write(report, toJson(sorted).getBytes(StandardCharsets.UTF_8));
+      branch.log(TreeLogger.INFO, "profile written to " + report);
+    } catch (IOException e) {
+      branch.log(TreeLogger.WARN, "unable to write " + report + " " + e.getMessage());
+    }
+  }
+
+  private Path getReportPath() {
+    try {
+      FileObject resource = iocContext.getGenerationContext().getProcessingEnvironment()
+          .getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", REPORT);
+      URI uri = resource.toUri();
+      if ("file".equals(uri.getScheme())) {
+        Path classes = Paths.get(uri).getParent();
+        Path target = classes.getParent();
+        return (target != null ? target : classes).resolve(REPORT);
+      }
+    } catch (IOException | IllegalArgumentException e) {
+      // fall back to the working directory
+    }
+    return Paths.get(REPORT);
+  }
+
+  private String toJson(List<Measurement> sorted) {
+    StringBuilder json = new StringBuilder("[\n");
+    for (int i = 0; i < sorted.size(); i++) {
+      Measurement measurement = sorted.get(i);
+      json.append("  {\"kind\": \"").append(measurement.kind).append("\", \"name\": \"")
+          .append(escape(measurement.name)).append("\", \"wallTimeMs\": ")
+          .append(String.format(Locale.ROOT, "%.3f", measurement.nanos / 1_000_000.0))
+          .append(", \"calls\": ").append(measurement.calls).append(", \"beans\": ")
+          .append(measurement.beans).append(", \"fields\": ").append(measurement.fields)
+          .append(", \"files\": ").append(measurement.files).append(", \"bytes\": ")
+          .append(measurement.bytes).append('}').append(i < sorted.size() - 1 ? ",\n" : "\n");
+    }
+    return json.append("]\n").toString();
+  }
+
+  private static String escape(String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"");
+  }
+
+  private static String getName(IOCGenerator generator) {
+    Class<?> type = generator.getClass();
+    return type.getCanonicalName() != null ? type.getCanonicalName() : type.getName();
+  }
+
+  private static class Measurement {
+
+    private final String kind;
+    private final String name;
+    private int calls;
+    private int depth;
+    private long started;
+    private long nanos;
+    private int beans;
+    private int fields;
+    private int files;
+    private long bytes;
+
+    private Measurement(String kind, String name) {
+      this.kind = kind;
+      this.name = name;
+    }
+  }
+}
@@ -22,8 +22,6 @@ import io.crysknife.generator.IOCGenerator;
 import io.crysknife.generator.WiringElementType;
 import io.crysknife.definition.BeanDefinition;
 import io.crysknife.definition.BeanDefinitionFactory;
-import io.github.classgraph.ClassInfo;
-import io.github.classgraph.ClassInfoList;
 
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
@@ -34,6 +32,7 @@ import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Elements;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -65,8 +64,18 @@ public class IOCContext {
 
   private final Map<String, Set<VariableElement>> parametersByAnnotation = new HashMap<>();
 
+  private Set<TypeElement> usedAnnotations;
+
   private final BeanDefinitionFactory beanDefinitionFactory;
 
+  private final BeanGraphCache beanGraphCache = new BeanGraphCache(this);
+
+  private final GenerationProfiler profiler = new GenerationProfiler(this);
+
+  private final QualifierPool qualifierPool = new QualifierPool();
+
+  private SourceBatch sourceBatch;
+
   public IOCContext(GenerationContext generationContext) {
     this.generationContext = generationContext;
     this.beanDefinitionFactory = new BeanDefinitionFactory(this, null);
@@ -96,6 +105,35 @@ public class IOCContext {
     }
   }
 
+  public BeanGraphCache getBeanGraphCache() {
+    return beanGraphCache;
+  }
+
+  public GenerationProfiler getProfiler() {
+    return profiler;
+  }
+
+  public QualifierPool getQualifierPool() {
+    return qualifierPool;
+  }
+
+  /**
+   * Starts collecting the generated factories, instead of writing them one by one, until
+   * {@link #closeSourceBatch()} is called.
+   */
+  public SourceBatch openSourceBatch() {
+    sourceBatch = new SourceBatch(this);
+    return sourceBatch;
+  }
+
+  public void closeSourceBatch() {
+    sourceBatch = null;
+  }
+
+  public Optional<SourceBatch> getSourceBatch() {
+    return Optional.ofNullable(sourceBatch);
+  }
+
   public GenerationContext getGenerationContext() {
     return generationContext;
   }
@@ -143,26 +181,81 @@ public class IOCContext {
   }
 
   // TODO j2cl-m-p workaround
+  /**
+   * @return types annotated with the annotation or with an annotation meta-annotated with it, like
+   *         the constraints of javax.validation annotated with @Constraint, and the beans they
+   *         annotate
+   */
   public Set<TypeElement> getTypeElementsByAnnotation(String annotation) {
     if (classesByAnnotation.containsKey(annotation)) {
       return classesByAnnotation.get(annotation);
     }
 
+    Set<TypeElement> results = new HashSet<>();
+    collectTypeElementsByAnnotation(annotation, results, new HashSet<>());
+    classesByAnnotation.put(annotation, results);
+    return results;
+  }
+
+  private void collectTypeElementsByAnnotation(String annotation, Set<TypeElement> results,
+      Set<String> visited) {
+    if (!visited.add(annotation)) {
+      return;
+    }
     Elements elements = getGenerationContext().getElements();
-    Set<TypeElement> results =
+    Set<TypeElement> annotated =
         getElementsByAnnotation(annotation).stream().filter(elm -> (elm instanceof TypeElement))
             .map(element -> ((TypeElement) element)).collect(Collectors.toSet());
 
-    ClassInfoList routeClassInfoList =
-        generationContext.getScanResult().getClassesWithAnnotation(annotation);
-    for (ClassInfo routeClassInfo : routeClassInfoList) {
-      TypeElement type = elements.getTypeElement(routeClassInfo.getName());
+    for (String name : generationContext.getClasspathIndex()
+        .getTypesWithAnnotation(annotation)) {
+      TypeElement type = elements.getTypeElement(name);
       if (type != null) {
-        results.add(type);
+        annotated.add(type);
       }
     }
-    classesByAnnotation.put(annotation, results);
-    return results;
+    // annotations declared in jars without an index are found through their usages
+    for (TypeElement type : getUsedAnnotations()) {
+      if (type.getAnnotationMirrors().stream()
+          .anyMatch(a -> a.getAnnotationType().toString().equals(annotation))) {
+        annotated.add(type);
+      }
+    }
+
+    for (TypeElement type : annotated) {
+      results.add(type);
+      if (type.getKind().equals(ElementKind.ANNOTATION_TYPE)) {
+        collectTypeElementsByAnnotation(type.getQualifiedName().toString(), results, visited);
+      }
+    }
+  }
+
+  /**
+   * @return annotations of the elements of this round and the annotations found in the indexes
+   */
+  private Set<TypeElement> getUsedAnnotations() {
+    if (usedAnnotations == null) {
+      usedAnnotations = new HashSet<>();
+      Elements elements = getGenerationContext().getElements();
+      for (String name : generationContext.getClasspathIndex().getAnnotations()) {
+        TypeElement type = elements.getTypeElement(name);
+        if (type != null) {
+          usedAnnotations.add(type);
+        }
+      }
+      getGenerationContext().getRoundEnvironment().getRootElements()
+          .forEach(this::collectUsedAnnotations);
+    }
+    return usedAnnotations;
+  }
+
+  private void collectUsedAnnotations(Element element) {
+    element.getAnnotationMirrors().forEach(
+        a -> usedAnnotations.add((TypeElement) a.getAnnotationType().asElement()));
+    if (element instanceof ExecutableElement) {
+      ((ExecutableElement) element).getParameters().forEach(this::collectUsedAnnotations);
+    }
+    element.getEnclosedElements().forEach(this::collectUsedAnnotations);
   }
 
   private Set<Element> getElementsByAnnotation(String annotation) {
@@ -182,11 +275,10 @@ public class IOCContext {
         .filter(elm -> (elm instanceof ExecutableElement))
         .map(element -> ((ExecutableElement) element)).collect(Collectors.toSet());
 
-    ClassInfoList routeClassInfoList =
-        generationContext.getScanResult().getClassesWithMethodAnnotation(annotation);
-    for (ClassInfo routeClassInfo : routeClassInfoList) {
-      if (!routeClassInfo.getDeclaredMethodInfo().asMap().isEmpty()) {
-        TypeElement type = elements.getTypeElement(routeClassInfo.getName());
+    for (String name : generationContext.getClasspathIndex()
+        .getTypesWithMethodAnnotation(annotation)) {
+      TypeElement type = elements.getTypeElement(name);
+      if (type != null) {
         type.getEnclosedElements().stream()
             .filter(elm -> elm.getAnnotationMirrors().stream()
                 .map(a -> a.getAnnotationType().toString()).filter(a -> a.equals(annotation))
@@ -209,11 +301,10 @@ public class IOCContext {
         .filter(elm -> elm.getKind().equals(ElementKind.PARAMETER))
         .map(element -> ((VariableElement) element)).collect(Collectors.toSet());
 
-    ClassInfoList routeClassInfoList =
-        generationContext.getScanResult().getClassesWithMethodParameterAnnotation(annotation);
-    for (ClassInfo routeClassInfo : routeClassInfoList) {
-      if (!routeClassInfo.getDeclaredMethodInfo().asMap().isEmpty()) {
-        TypeElement type = elements.getTypeElement(routeClassInfo.getName());
+    for (String name : generationContext.getClasspathIndex()
+        .getTypesWithMethodParameterAnnotation(annotation)) {
+      TypeElement type = elements.getTypeElement(name);
+      if (type != null) {
         for (Element elm : type.getEnclosedElements()) {
           if ((elm instanceof ExecutableElement)) {
             ExecutableElement method = ((ExecutableElement) elm);
@@ -248,18 +339,15 @@ public class IOCContext {
         .filter(elm -> (elm instanceof VariableElement)).map(element -> ((VariableElement) element))
         .collect(Collectors.toSet());
 
-    ClassInfoList routeClassInfoList =
-        generationContext.getScanResult().getClassesWithFieldAnnotation(annotation);
-    for (ClassInfo routeClassInfo : routeClassInfoList) {
-      if (!routeClassInfo.getDeclaredFieldInfo().asMap().isEmpty()) {
-        TypeElement type = elements.getTypeElement(routeClassInfo.getName());
-        if (type != null) {
-          type.getEnclosedElements().stream().filter(elm -> (elm instanceof VariableElement))
-              .filter(elm -> elm.getAnnotationMirrors().stream()
-                  .map(a -> a.getAnnotationType().toString()).filter(a -> a.equals(annotation))
-                  .count() > 0)
-              .map(method -> ((VariableElement) method)).forEach(results::add);
-        }
+    for (String name : generationContext.getClasspathIndex()
+        .getTypesWithFieldAnnotation(annotation)) {
+      TypeElement type = elements.getTypeElement(name);
+      if (type != null) {
+        type.getEnclosedElements().stream().filter(elm -> (elm instanceof VariableElement))
+            .filter(elm -> elm.getAnnotationMirrors().stream()
+                .map(a -> a.getAnnotationType().toString()).filter(a -> a.equals(annotation))
+                .count() > 0)
+            .map(method -> ((VariableElement) method)).forEach(results::add);
       }
     }
     fieldsByAnnotation.put(annotation, results);
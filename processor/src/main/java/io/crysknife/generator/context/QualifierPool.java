@@ -0,0 +1,159 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.generator.context;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.FieldAccessExpr;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.expr.StringLiteralExpr;
+import io.crysknife.client.internal.QualifierUtil;
+
+import javax.inject.Named;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.util.Elements;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Qualifier instances used by the generated code, each distinct qualifier value is created once,
+ * as a static final field of the generated Qualifiers holder, and referenced by the factories and
+ * the BeanManagerImpl, so a qualifier is always the same object at runtime.
+ *
+ * Field names are derived from the qualifier value, not from the order of use, and with the
+ * incremental mode the fields of the previous compilation are kept, because the factories that
+ * are not generated again still refer to them.
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+public class QualifierPool {
+
+  public static final String HOLDER = "io.crysknife.client.Qualifiers";
+
+  private static final String CACHE_PREFIX = "#qualifier.";
+
+  private final Map<String, Entry> byKey = new LinkedHashMap<>();
+
+  private final Map<String, Entry> byField = new LinkedHashMap<>();
+
+  QualifierPool() {
+
+  }
+
+  /**
+   * @param qualifier qualifier annotation, including its values
+   * @param value creates the instance of the qualifier, called only if it isn't in the pool yet
+   * @return reference to the shared instance
+   */
+  public Expression get(AnnotationMirror qualifier, Supplier<Expression> value) {
+    String type = qualifier.getAnnotationType().toString();
+    if (type.equals(Named.class.getCanonicalName())) {
+      return named(qualifier.getElementValues().values().stream().findFirst()
+          .map(member -> member.getValue().toString()).orElse(""));
+    }
+    return get(type, qualifier.toString(), value);
+  }
+
+  /**
+   * @return reference to the shared @Named instance with the given value
+   */
+  public Expression named(String name) {
+    return get(Named.class.getCanonicalName(),
+        "@" + Named.class.getCanonicalName() + "(\"" + name + "\")",
+        () -> new MethodCallExpr(new NameExpr(QualifierUtil.class.getCanonicalName()),
+            "createNamed").addArgument(new StringLiteralExpr(name)));
+  }
+
+  /**
+   * @param type qualifier annotation type
+   * @param key distinct value of the qualifier
+   * @param value creates the instance of the qualifier, called only if it isn't in the pool yet
+   * @return reference to the shared instance
+   */
+  public Expression get(String type, String key, Supplier<Expression> value) {
+    Entry entry = byKey.get(key);
+    if (entry == null) {
+      entry = new Entry(getFieldName(type, key), type, key, value.get());
+      add(entry);
+    }
+    return new FieldAccessExpr(new NameExpr(HOLDER), entry.field);
+  }
+
+  public Map<String, Entry> getEntries() {
+    return Collections.unmodifiableMap(byField);
+  }
+
+  /**
+   * Adds the qualifiers of the previous compilation, except the ones whose annotation type no
+   * longer exists, the holder wouldn't compile with them.
+   */
+  public void restore(BeanGraphCache cache, Elements elements) {
+    cache.getPrevious(CACHE_PREFIX).forEach((field, stored) -> {
+      String[] parts = stored.split("\n", 3);
+      if (parts.length == 3 && !byKey.containsKey(parts[1]) && !byField.containsKey(field)
+          && elements.getTypeElement(parts[0]) != null) {
+        add(new Entry(field, parts[0], parts[1], StaticJavaParser.parseExpression(parts[2])));
+      }
+    });
+  }
+
+  public void store(BeanGraphCache cache) {
+    byField.forEach((field, entry) -> cache.put(CACHE_PREFIX + field,
+        entry.type + '\n' + entry.key + '\n' + entry.value));
+  }
+
+  private void add(Entry entry) {
+    byKey.put(entry.key, entry);
+    byField.put(entry.field, entry);
+  }
+
+  private String getFieldName(String type, String key) {
+    String simpleName = type.substring(type.lastIndexOf('.') + 1);
+    String field = simpleName.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase(Locale.ROOT)
+        + '_' + Integer.toHexString(key.hashCode()).toUpperCase(Locale.ROOT);
+    String candidate = field;
+    for (int i = 1; byField.containsKey(candidate); i++) {
+      candidate = field + '_' + i;
+    }
+    return candidate;
+  }
+
+  public static class Entry {
+
+    private final String field;
+    private final String type;
+    private final String key;
+    private final Expression value;
+
+    private Entry(String field, String type, String key, Expression value) {
+      this.field = field;
+      this.type = type;
+      this.key = key;
+      this.value = value;
+    }
+
+    public String getType() {
+      return type;
+    }
+
+    public Expression getValue() {
+      return value;
+    }
+  }
+}
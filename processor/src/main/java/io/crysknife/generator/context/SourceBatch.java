@@ -0,0 +1,110 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.generator.context;
+
+import com.github.javaparser.ast.CompilationUnit;
+import io.crysknife.exception.GenerationException;
+
+import javax.annotation.processing.FilerException;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Collects the generated compilation units and writes them at once. The units are built on the
+ * processor thread, because the javac model isn't thread-safe, but the pretty-printing doesn't
+ * touch it, so it runs in a fork/join pool. Files are created serially, in the order the units
+ * were added, so the output doesn't depend on the number of threads.
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+public class SourceBatch {
+
+  private final IOCContext iocContext;
+
+  private final Map<String, CompilationUnit> units = new LinkedHashMap<>();
+
+  SourceBatch(IOCContext iocContext) {
+    this.iocContext = iocContext;
+  }
+
+  /**
+   * Adds a unit to the batch, only the first unit added for the file is kept, as the Filer refuses
+   * to recreate a file anyway.
+   */
+  public void add(String fileName, CompilationUnit unit) {
+    units.putIfAbsent(fileName, unit);
+  }
+
+  /**
+   * Writes the collected units. A file the Filer refuses to create, usually because it has already
+   * been generated, is skipped, the refused files are returned so the caller decides whether that's
+   * an error.
+   */
+  public Map<String, FilerException> write() {
+    Map<String, FilerException> refused = new LinkedHashMap<>();
+    List<String> fileNames = new ArrayList<>(units.keySet());
+    String[] sources = render(new ArrayList<>(units.values()));
+    units.clear();
+
+    for (int i = 0; i < fileNames.size(); i++) {
+      try {
+        JavaFileObject builderFile = iocContext.getGenerationContext().getProcessingEnvironment()
+            .getFiler().createSourceFile(fileNames.get(i));
+        try (PrintWriter out = new PrintWriter(builderFile.openWriter())) {
+          out.append(sources[i]);
+        }
+        iocContext.getProfiler().fileWritten(sources[i]);
+      } catch (FilerException e) {
+        refused.put(fileNames.get(i), e);
+      } catch (IOException e) {
+        throw new GenerationException(e);
+      }
+    }
+    return refused;
+  }
+
+  private String[] render(List<CompilationUnit> units) {
+    String[] sources = new String[units.size()];
+    int threads = iocContext.getGenerationContext().getThreads();
+    if (threads == 1 || units.size() < 2) {
+      for (int i = 0; i < sources.length; i++) {
+        sources[i] = units.get(i).toString();
+      }
+      return sources;
+    }
+
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    try {
+      pool.submit(() -> IntStream.range(0, sources.length).parallel()
+          .forEach(i -> sources[i] = units.get(i).toString())).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new GenerationException(e);
+    } catch (ExecutionException e) {
+      throw new GenerationException(e.getCause());
+    } finally {
+      pool.shutdown();
+    }
+    return sources;
+  }
+}
@@ -20,7 +20,6 @@ import io.crysknife.definition.InjectableVariableDefinition;
 import io.crysknife.definition.UnscopedBeanDefinition;
 import io.crysknife.generator.context.IOCContext;
 import io.crysknife.logger.TreeLogger;
-import io.crysknife.util.Utils;
 
 import javax.enterprise.inject.Default;
 import javax.enterprise.inject.Specializes;
@@ -38,13 +37,23 @@ import javax.lang.model.type.TypeMirror;
 import javax.lang.model.type.TypeVariable;
 import javax.lang.model.util.ElementFilter;
 import javax.lang.model.util.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
+ * Resolves the implementations of the injection points. The indexes of the beans by subtype,
+ * annotation and @Named value are built on the first lookup, when all the beans of the round are
+ * known, and resolutions of abstract injection points are memoised by the erased type and the
+ * qualifiers, so resolution stays near-linear in the number of injection points.
+ *
  * @author Dmitrii Tikhomirov Created by treblereel 9/5/21
  */
 public class BeanOracle {
@@ -52,6 +61,11 @@ public class BeanOracle {
   private final IOCContext context;
   private final TreeLogger logger;
 
+  private final Map<String, Implementations> implementations = new HashMap<>();
+  private final Map<String, Optional<BeanDefinition>> resolutions = new HashMap<>();
+  private Map<String, Set<BeanDefinition>> byAnnotation;
+  private Map<String, List<BeanDefinition>> byName;
+
   public BeanOracle(IOCContext context, TreeLogger logger) {
     this.context = context;
     this.logger = logger;
@@ -67,22 +81,9 @@ public class BeanOracle {
         context.getGenerationContext().getTypes().erasure(point.getVariableElement().asType());
 
     if (isInterfaceOrAbstractClass) {
-      if (named != null) {
-        Optional<BeanDefinition> candidate = processName(point, named);
-        if (candidate.isPresent()) {
-          return candidate.get();
-        }
-      }
-
-      if (!qualifiers.isEmpty()) {
-        Optional<BeanDefinition> candidate = processQualifiers(point, qualifiers);
-        if (candidate.isPresent()) {
-          return candidate.get();
-        }
-      }
-
-      Optional<BeanDefinition> candidate =
-          asInterfaceOrAbstractClass(point.getVariableElement().asType());
+      Optional<BeanDefinition> candidate = resolutions.computeIfAbsent(
+          getResolutionKey(beanTypeMirror, named, qualifiers),
+          key -> resolveInterfaceOrAbstractClass(point, named, qualifiers));
       if (candidate.isPresent()) {
         return candidate.get();
       }
@@ -109,6 +110,32 @@ public class BeanOracle {
     return null;
   }
 
+  private Optional<BeanDefinition> resolveInterfaceOrAbstractClass(
+      InjectableVariableDefinition point, Named named, Set<AnnotationMirror> qualifiers) {
+    if (named != null) {
+      Optional<BeanDefinition> candidate = processName(point, named);
+      if (candidate.isPresent()) {
+        return candidate;
+      }
+    }
+
+    if (!qualifiers.isEmpty()) {
+      Optional<BeanDefinition> candidate = processQualifiers(point, qualifiers);
+      if (candidate.isPresent()) {
+        return candidate;
+      }
+    }
+
+    return asInterfaceOrAbstractClass(point.getVariableElement().asType());
+  }
+
+  private String getResolutionKey(TypeMirror erased, Named named,
+      Set<AnnotationMirror> qualifiers) {
+    return erased.toString() + '|' + (named != null ? named.value() : "") + '|'
+        + qualifiers.stream().map(a -> a.getAnnotationType().toString()).sorted()
+            .collect(Collectors.joining(","));
+  }
+
   // TODO add support to constructor injection points
   private Optional<BeanDefinition> asGenericPoint(TypeMirror parent,
       InjectableVariableDefinition point) {
@@ -159,10 +186,14 @@ public class BeanOracle {
   }
 
   private Optional<BeanDefinition> asInterfaceOrAbstractClass(TypeMirror point) {
-    Set<BeanDefinition> subclasses = getSubClasses(point);
+    Implementations impls = getImplementations(point);
+    if (impls.defaultImpl == null) {
+      impls.defaultImpl = findDefaultImpl(point, impls.concrete);
+    }
+    return impls.defaultImpl;
+  }
 
-    Set<BeanDefinition> types = subclasses.stream()
-        .filter(bean -> !isInterfaceOrAbstractClass(bean.getType())).collect(Collectors.toSet());
+  private Optional<BeanDefinition> findDefaultImpl(TypeMirror point, Set<BeanDefinition> types) {
     // Case TheOnlyOneImpl
     if (types.size() == 1) {
       return types.stream().findFirst();
@@ -212,33 +243,72 @@ public class BeanOracle {
 
   private Optional<BeanDefinition> processQualifiers(InjectableVariableDefinition point,
       Set<AnnotationMirror> qualifiers) {
-    Set<BeanDefinition> subclasses = getSubClasses(point.getVariableElement().asType());
-
-    String[] annotations =
-        qualifiers.stream().map(a -> a.getAnnotationType().toString()).toArray(String[]::new);
-
-    return subclasses.stream().filter(bean -> !isInterfaceOrAbstractClass(bean.getType()))
-        .filter(q -> Utils.containsAnnotation(MoreTypes.asTypeElement(q.getType()), annotations))
-        .findFirst();
+    Set<BeanDefinition> annotated = new HashSet<>();
+    qualifiers.forEach(a -> annotated.addAll(getAnnotationIndex()
+        .getOrDefault(a.getAnnotationType().toString(), Collections.emptySet())));
+    if (annotated.isEmpty()) {
+      return Optional.empty();
+    }
 
+    return getImplementations(point.getVariableElement().asType()).concrete.stream()
+        .filter(annotated::contains).findFirst();
   }
 
   private Optional<BeanDefinition> processName(InjectableVariableDefinition point, Named named) {
-    Set<BeanDefinition> subclasses = getSubClasses(point.getVariableElement().asType());
-    return subclasses.stream().filter(bean -> !isInterfaceOrAbstractClass(bean.getType()))
-        .filter(elm -> (MoreTypes.asTypeElement(elm.getType()).getAnnotation(Named.class) != null
-            && MoreTypes.asTypeElement(elm.getType()).getAnnotation(Named.class).value()
-                .equals(named.value())))
-        .findFirst();
+    List<BeanDefinition> candidates =
+        getNameIndex().getOrDefault(named.value(), Collections.emptyList());
+    if (candidates.isEmpty()) {
+      return Optional.empty();
+    }
+
+    Set<BeanDefinition> concrete =
+        getImplementations(point.getVariableElement().asType()).concrete;
+    return candidates.stream().filter(concrete::contains).findFirst();
   }
 
   private Set<BeanDefinition> getSubClasses(TypeMirror point) {
+    return getImplementations(point).all;
+  }
+
+  /**
+   * @return all the subtypes of the type and the concrete ones, computed once per type
+   */
+  private Implementations getImplementations(TypeMirror point) {
     TypeMirror beanTypeMirror = context.getGenerationContext().getTypes().erasure(point);
-    BeanDefinition type = context.getBean(beanTypeMirror);
-    Set<BeanDefinition> subclasses = new HashSet<>(type.getSubclasses());
-    getAllSubtypes(type, subclasses);
-    type.getSubclasses().addAll(subclasses);
-    return subclasses;
+    return implementations.computeIfAbsent(beanTypeMirror.toString(), key -> {
+      BeanDefinition type = context.getBean(beanTypeMirror);
+      Set<BeanDefinition> subclasses = new LinkedHashSet<>(type.getSubclasses());
+      getAllSubtypes(type, subclasses);
+      type.getSubclasses().addAll(subclasses);
+      return new Implementations(subclasses, subclasses.stream()
+          .filter(bean -> !isInterfaceOrAbstractClass(bean.getType()))
+          .collect(Collectors.toCollection(LinkedHashSet::new)));
+    });
+  }
+
+  private Map<String, Set<BeanDefinition>> getAnnotationIndex() {
+    if (byAnnotation == null) {
+      byAnnotation = new HashMap<>();
+      context.getBeans().values()
+          .forEach(bean -> MoreTypes.asTypeElement(bean.getType()).getAnnotationMirrors()
+              .forEach(a -> byAnnotation
+                  .computeIfAbsent(a.getAnnotationType().toString(), k -> new HashSet<>())
+                  .add(bean)));
+    }
+    return byAnnotation;
+  }
+
+  private Map<String, List<BeanDefinition>> getNameIndex() {
+    if (byName == null) {
+      byName = new HashMap<>();
+      context.getBeans().values().forEach(bean -> {
+        Named named = MoreTypes.asTypeElement(bean.getType()).getAnnotation(Named.class);
+        if (named != null) {
+          byName.computeIfAbsent(named.value(), k -> new ArrayList<>()).add(bean);
+        }
+      });
+    }
+    return byName;
   }
 
   private Set<BeanDefinition> getAllSubtypes(BeanDefinition beanDefinition,
@@ -262,4 +332,16 @@ public class BeanOracle {
         .filter(anno -> anno.getAnnotationType().asElement().getAnnotation(Qualifier.class) != null)
         .collect(Collectors.toSet());
   }
+
+  private static class Implementations {
+
+    private final Set<BeanDefinition> all;
+    private final Set<BeanDefinition> concrete;
+    private Optional<BeanDefinition> defaultImpl;
+
+    private Implementations(Set<BeanDefinition> all, Set<BeanDefinition> concrete) {
+      this.all = all;
+      this.concrete = concrete;
+    }
+  }
 }
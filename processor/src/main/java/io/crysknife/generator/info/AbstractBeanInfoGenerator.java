@@ -16,6 +16,7 @@ package io.crysknife.generator.info;
 
 import java.io.IOException;
 
+import com.github.javaparser.ast.CompilationUnit;
 import io.crysknife.generator.context.IOCContext;
 import io.crysknife.definition.BeanDefinition;
 
@@ -30,5 +31,5 @@ public abstract class AbstractBeanInfoGenerator {
     this.iocContext = iocContext;
   }
 
-  protected abstract String build(BeanDefinition bean) throws IOException;
+  protected abstract CompilationUnit build(BeanDefinition bean) throws IOException;
 }
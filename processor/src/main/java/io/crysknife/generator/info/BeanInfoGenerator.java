@@ -18,12 +18,21 @@ import io.crysknife.definition.BeanDefinition;
 import io.crysknife.exception.UnableToCompleteException;
 import io.crysknife.generator.context.ExecutionEnv;
 import io.crysknife.generator.context.IOCContext;
+import io.crysknife.generator.context.SourceBatch;
 import io.crysknife.logger.TreeLogger;
 import io.crysknife.task.Task;
+import io.crysknife.util.GenerationUtils;
+import io.crysknife.util.Utils;
 
-import javax.tools.JavaFileObject;
+import javax.annotation.processing.FilerException;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.tools.Diagnostic;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * @author Dmitrii Tikhomirov Created by treblereel 4/26/20
@@ -32,36 +41,63 @@ public class BeanInfoGenerator implements Task {
 
   private IOCContext iocContext;
   private AbstractBeanInfoGenerator generator;
+  private FieldAccessorBuilder fieldAccessorBuilder;
 
   public BeanInfoGenerator(IOCContext iocContext, TreeLogger logger) {
     this.iocContext = iocContext;
-    if (iocContext.getGenerationContext().getExecutionEnv().equals(ExecutionEnv.JRE)) {
+    if (iocContext.getGenerationContext().isJreDirectInjection()) {
+      fieldAccessorBuilder = new FieldAccessorBuilder(iocContext);
+    } else if (iocContext.getGenerationContext().getExecutionEnv().equals(ExecutionEnv.JRE)) {
       generator = new BeanInfoJREGeneratorBuilder(iocContext);
     }
   }
 
   public void execute() throws UnableToCompleteException {
-    if (generator == null) {
+    if (fieldAccessorBuilder == null && generator == null) {
       return;
     }
-    iocContext.getBeans().forEach((k, bean) -> {
-      try {
-        generate(bean);
-      } catch (javax.annotation.processing.FilerException e) {
-        // Attempt to recreate a file for type
-      } catch (IOException e) {
-        throw new Error(e);
+    SourceBatch batch = iocContext.openSourceBatch();
+    try {
+      if (fieldAccessorBuilder != null) {
+        generateFieldAccessors(batch);
+      } else {
+        iocContext.getBeans().forEach((k, bean) -> {
+          try {
+            generate(batch, bean);
+          } catch (IOException e) {
+            throw new Error(e);
+          }
+        });
       }
-    });
+    } finally {
+      iocContext.closeSourceBatch();
+    }
+    Map<String, FilerException> refused = batch.write();
+    if (fieldAccessorBuilder != null) {
+      // the factories can't inject the fields without their accessors
+      refused.forEach((file, e) -> iocContext.getGenerationContext().getProcessingEnvironment()
+          .getMessager().printMessage(Diagnostic.Kind.ERROR,
+              "Unable to write the field accessor " + file + ": " + e.getMessage()));
+    }
   }
 
-  private void generate(BeanDefinition bean) throws IOException {
-    if (!bean.getFields().isEmpty()) {
-      JavaFileObject builderFile = iocContext.getGenerationContext().getProcessingEnvironment()
-          .getFiler().createSourceFile(bean.getQualifiedName() + "Info");
-      try (PrintWriter out = new PrintWriter(builderFile.openWriter())) {
-        out.append(generator.build(bean));
-      }
+  private void generateFieldAccessors(SourceBatch batch) {
+    GenerationUtils generationUtils = new GenerationUtils(iocContext);
+    Map<TypeElement, Set<VariableElement>> fields = new LinkedHashMap<>();
+    iocContext.getBeans().forEach((k, bean) -> bean.getFields().stream()
+        .filter(field -> !generationUtils.isAccessible(bean, field.getVariableElement()))
+        .map(field -> field.getVariableElement())
+        .forEach(field -> fields.computeIfAbsent(
+            (TypeElement) field.getEnclosingElement(), type -> new LinkedHashSet<>()).add(field)));
+
+    fields.forEach((type, typeFields) -> batch.add(Utils.getQualifiedFieldAccessorName(type),
+        fieldAccessorBuilder.build(type, typeFields)));
+  }
+
+  private void generate(SourceBatch batch, BeanDefinition bean) throws IOException {
+    if (!bean.getFields().isEmpty() && !(iocContext.getBeanGraphCache().isUpToDate(bean)
+        && iocContext.getBeanGraphCache().exists(bean.getQualifiedName() + "Info"))) {
+      batch.add(bean.getQualifiedName() + "Info", generator.build(bean));
     }
   }
 }
@@ -39,12 +39,12 @@ public class BeanInfoJ2CLGeneratorBuilder extends AbstractBeanInfoGenerator {
   }
 
   @Override
-  protected String build(BeanDefinition bean) {
+  protected CompilationUnit build(BeanDefinition bean) {
     this.bean = bean;
     this.clazz = new CompilationUnit();
     initClass();
     addFields();
-    return clazz.toString();
+    return clazz;
   }
 
   private void initClass() {
@@ -14,13 +14,16 @@
 
 package io.crysknife.generator.info;
 
+import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.Modifier;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.body.Parameter;
 import com.github.javaparser.ast.expr.AssignExpr;
 import com.github.javaparser.ast.expr.BinaryExpr;
+import com.github.javaparser.ast.expr.CastExpr;
 import com.github.javaparser.ast.expr.Expression;
 import com.github.javaparser.ast.expr.FieldAccessExpr;
+import com.github.javaparser.ast.expr.LambdaExpr;
 import com.github.javaparser.ast.expr.MemberValuePair;
 import com.github.javaparser.ast.expr.MethodCallExpr;
 import com.github.javaparser.ast.expr.Name;
@@ -32,6 +35,7 @@ import com.github.javaparser.ast.expr.StringLiteralExpr;
 import com.github.javaparser.ast.expr.VariableDeclarationExpr;
 import com.github.javaparser.ast.stmt.BlockStmt;
 import com.github.javaparser.ast.stmt.CatchClause;
+import com.github.javaparser.ast.stmt.ExpressionStmt;
 import com.github.javaparser.ast.stmt.ForEachStmt;
 import com.github.javaparser.ast.stmt.IfStmt;
 import com.github.javaparser.ast.stmt.ReturnStmt;
@@ -41,6 +45,7 @@ import com.github.javaparser.ast.type.ClassOrInterfaceType;
 import com.google.auto.common.MoreElements;
 import com.google.auto.common.MoreTypes;
 import io.crysknife.client.BeanManager;
+import io.crysknife.client.internal.AbstractBeanManager;
 import io.crysknife.definition.InjectableVariableDefinition;
 import io.crysknife.generator.api.ClassBuilder;
 import io.crysknife.generator.context.IOCContext;
@@ -68,14 +73,14 @@ public class BeanInfoJREGeneratorBuilder extends AbstractBeanInfoGenerator {
   }
 
   @Override
-  protected String build(BeanDefinition bean) {
+  protected CompilationUnit build(BeanDefinition bean) {
     this.bean = bean;
     classBuilder = new ClassBuilder(bean);
     initClass();
     addFields();
     addOnInvoke();
     addGetField();
-    return classBuilder.toSourceCode();
+    return classBuilder.getClassCompilationUnit();
   }
 
   private void initClass() {
@@ -95,6 +100,7 @@ public class BeanInfoJREGeneratorBuilder extends AbstractBeanInfoGenerator {
     classBuilder.getClassCompilationUnit().addImport(FieldUtils.class);
     classBuilder.getClassCompilationUnit().addImport(Instance.class);
     classBuilder.getClassCompilationUnit().addImport(BeanManager.class);
+    classBuilder.getClassCompilationUnit().addImport(AbstractBeanManager.class);
 
     classBuilder.addFieldWithInitializer(BeanManager.class.getSimpleName(), "beanManager",
         new MethodCallExpr(new NameExpr(BeanManager.class.getCanonicalName() + "Impl"), "get"),
@@ -158,7 +164,8 @@ public class BeanInfoJREGeneratorBuilder extends AbstractBeanInfoGenerator {
               .addArgument(new NameExpr("fieldName"))));
 
       blockStmt.addAndGetStatement(new MethodCallExpr("onInvoke").addArgument("joinPoint")
-          .addArgument("field").addArgument(beanCall));
+          .addArgument("field").addArgument(new LambdaExpr().setEnclosingParameters(true)
+              .setBody(new ExpressionStmt(beanCall))));
 
       CatchClause catchClause1 = new CatchClause().setParameter(new Parameter()
           .setType(new ClassOrInterfaceType().setName("NoSuchFieldException")).setName("e"));
@@ -191,12 +198,16 @@ public class BeanInfoJREGeneratorBuilder extends AbstractBeanInfoGenerator {
     return new StringLiteralExpr(sb.toString());
   }
 
+  /**
+   * The field is created on the first access, within the creational context of the instance, so
+   * a @Dependent field is destroyed with it.
+   */
   private void addOnInvoke() {
     MethodDeclaration methodDeclaration =
         classBuilder.addMethod("onInvoke", Modifier.Keyword.PRIVATE);
     methodDeclaration.addParameter("JoinPoint", "joinPoint");
     methodDeclaration.addParameter("Field", "field");
-    methodDeclaration.addParameter("Object", "instance");
+    methodDeclaration.addParameter("Supplier<Object>", "instance");
 
     methodDeclaration.addThrownException(NoSuchFieldException.class);
     methodDeclaration.addThrownException(IllegalAccessException.class);
@@ -212,9 +223,19 @@ public class BeanInfoJREGeneratorBuilder extends AbstractBeanInfoGenerator {
               .addArgument(new MethodCallExpr(new NameExpr("joinPoint"), "getTarget")),
           new NullLiteralExpr(), BinaryExpr.Operator.EQUALS)).setThenStmt(thenStmt);
 
+      thenStmt.addAndGetStatement(new AssignExpr()
+          .setTarget(new VariableDeclarationExpr(
+              new ClassOrInterfaceType().setName(AbstractBeanManager.class.getSimpleName()),
+              "manager"))
+          .setValue(new CastExpr(
+              new ClassOrInterfaceType().setName(AbstractBeanManager.class.getSimpleName()),
+              new NameExpr("beanManager"))));
       thenStmt.addAndGetStatement(new MethodCallExpr(new NameExpr("field"), "set")
           .addArgument(new MethodCallExpr(new NameExpr("joinPoint"), "getTarget"))
-          .addArgument(new NameExpr("instance")));
+          .addArgument(new MethodCallExpr(new NameExpr("manager"), "createDependency")
+              .addArgument(new MethodCallExpr(new NameExpr("manager"), "getCreationalContext")
+                  .addArgument(new MethodCallExpr(new NameExpr("joinPoint"), "getTarget")))
+              .addArgument(new NameExpr("instance"))));
       body.addAndGetStatement(ifStmtLocal);
     });
   }
@@ -0,0 +1,137 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.generator.info;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Modifier;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.expr.AssignExpr;
+import com.github.javaparser.ast.expr.BinaryExpr;
+import com.github.javaparser.ast.expr.BooleanLiteralExpr;
+import com.github.javaparser.ast.expr.ClassExpr;
+import com.github.javaparser.ast.expr.FieldAccessExpr;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.expr.NullLiteralExpr;
+import com.github.javaparser.ast.expr.ObjectCreationExpr;
+import com.github.javaparser.ast.expr.StringLiteralExpr;
+import com.github.javaparser.ast.stmt.BlockStmt;
+import com.github.javaparser.ast.stmt.CatchClause;
+import com.github.javaparser.ast.stmt.IfStmt;
+import com.github.javaparser.ast.stmt.ThrowStmt;
+import com.github.javaparser.ast.stmt.TryStmt;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.ast.type.UnionType;
+import io.crysknife.generator.context.IOCContext;
+import io.crysknife.util.Utils;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import java.lang.reflect.Field;
+import java.util.Collection;
+
+/**
+ * Generates a field accessor, it lives in the package of the type that declares the fields, so
+ * factories are able to inject package-private and protected fields of supertypes from other
+ * packages. Private fields are set via reflection, the Field is looked up once.
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+public class FieldAccessorBuilder {
+
+  private final IOCContext iocContext;
+
+  FieldAccessorBuilder(IOCContext iocContext) {
+    this.iocContext = iocContext;
+  }
+
+  CompilationUnit build(TypeElement type, Collection<VariableElement> fields) {
+    CompilationUnit clazz = new CompilationUnit();
+    clazz.setPackageDeclaration(Utils.getPackageName(type));
+    clazz.addImport(Field.class);
+
+    ClassOrInterfaceDeclaration classDeclaration =
+        clazz.addClass(Utils.getFieldAccessorClassName(type), Modifier.Keyword.PUBLIC,
+            Modifier.Keyword.FINAL);
+    classDeclaration.addConstructor(Modifier.Keyword.PRIVATE);
+
+    for (VariableElement field : fields) {
+      if (field.getModifiers().contains(javax.lang.model.element.Modifier.PRIVATE)) {
+        addReflectiveSetter(classDeclaration, type, field);
+      } else {
+        addSetter(classDeclaration, type, field).getBody().get()
+            .addAndGetStatement(new AssignExpr()
+                .setTarget(new FieldAccessExpr(new NameExpr("instance"),
+                    field.getSimpleName().toString()))
+                .setValue(new NameExpr("value")));
+      }
+    }
+    return clazz;
+  }
+
+  private MethodDeclaration addSetter(ClassOrInterfaceDeclaration classDeclaration,
+      TypeElement type, VariableElement field) {
+    MethodDeclaration setter = classDeclaration.addMethod(field.getSimpleName().toString(),
+        Modifier.Keyword.PUBLIC, Modifier.Keyword.STATIC);
+    setter.addParameter(new Parameter(
+        new ClassOrInterfaceType().setName(Utils.getSimpleClassName(type)), "instance"));
+    setter.addParameter(new Parameter(new ClassOrInterfaceType().setName(
+        iocContext.getGenerationContext().getTypes().erasure(field.asType()).toString()),
+        "value"));
+    return setter;
+  }
+
+  private void addReflectiveSetter(ClassOrInterfaceDeclaration classDeclaration,
+      TypeElement type, VariableElement field) {
+    String name = field.getSimpleName().toString();
+    String holder = "_" + name;
+    classDeclaration.addField(Field.class, holder, Modifier.Keyword.PRIVATE,
+        Modifier.Keyword.STATIC);
+
+    BlockStmt lookup = new BlockStmt();
+    lookup.addAndGetStatement(new AssignExpr().setTarget(new NameExpr(holder))
+        .setValue(new MethodCallExpr(
+            new ClassExpr(new ClassOrInterfaceType().setName(Utils.getSimpleClassName(type))),
+            "getDeclaredField").addArgument(new StringLiteralExpr(name))));
+    lookup.addAndGetStatement(new MethodCallExpr(new NameExpr(holder), "setAccessible")
+        .addArgument(new BooleanLiteralExpr(true)));
+
+    BlockStmt tryBlock = new BlockStmt();
+    tryBlock.addAndGetStatement(new IfStmt()
+        .setCondition(new BinaryExpr(new NameExpr(holder), new NullLiteralExpr(),
+            BinaryExpr.Operator.EQUALS))
+        .setThenStmt(lookup));
+    tryBlock.addAndGetStatement(new MethodCallExpr(new NameExpr(holder), "set")
+        .addArgument("instance").addArgument("value"));
+
+    UnionType exceptions = new UnionType();
+    exceptions.getElements()
+        .add(new ClassOrInterfaceType().setName(NoSuchFieldException.class.getSimpleName()));
+    exceptions.getElements()
+        .add(new ClassOrInterfaceType().setName(IllegalAccessException.class.getSimpleName()));
+
+    CatchClause catchClause =
+        new CatchClause().setParameter(new Parameter().setType(exceptions).setName("e"));
+    catchClause.getBody().addAndGetStatement(new ThrowStmt(new ObjectCreationExpr()
+        .setType(new ClassOrInterfaceType().setName("Error")).addArgument("e")));
+
+    TryStmt tryStmt = new TryStmt().setTryBlock(tryBlock);
+    tryStmt.getCatchClauses().add(catchClause);
+
+    addSetter(classDeclaration, type, field).getBody().get().addAndGetStatement(tryStmt);
+  }
+}
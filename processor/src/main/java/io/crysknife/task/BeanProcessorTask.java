@@ -264,9 +264,10 @@ public class BeanProcessorTask implements Task {
         .collect(Collectors.toCollection(LinkedHashSet::new));
 
     scoped.stream()
-        .map(sc -> iocContext.getGenerationContext().getScanResult().getClassesWithAnnotation(sc))
+        .map(sc -> iocContext.getGenerationContext().getClasspathIndex()
+            .getTypesWithAnnotation(sc))
         .flatMap(Collection::stream)
-        .map(elm -> iocContext.getGenerationContext().getElements().getTypeElement(elm.getName()))
+        .map(elm -> iocContext.getGenerationContext().getElements().getTypeElement(elm))
         .filter(elm -> elm != null).forEach(annotatedScopedBean::add);
 
     processBeans(annotatedScopedBean);
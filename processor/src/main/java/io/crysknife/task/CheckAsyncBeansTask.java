@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.task;
+
+import com.google.auto.common.MoreTypes;
+import io.crysknife.annotation.LoadAsync;
+import io.crysknife.definition.BeanDefinition;
+import io.crysknife.definition.InjectableVariableDefinition;
+import io.crysknife.exception.UnableToCompleteException;
+import io.crysknife.generator.context.ExecutionEnv;
+import io.crysknife.generator.context.IOCContext;
+import io.crysknife.logger.TreeLogger;
+
+import javax.lang.model.element.VariableElement;
+import javax.tools.Diagnostic;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A bean annotated with {@link LoadAsync} is registered only once its chunk is loaded, so it can't
+ * be injected into a bean created before, it must be looked up with
+ * {@code BeanManager.lookupBeanAsync}. The injection would also pull its factory into the chunk of
+ * the injecting bean.
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+public class CheckAsyncBeansTask implements Task {
+
+  private final IOCContext context;
+  private final TreeLogger logger;
+
+  public CheckAsyncBeansTask(IOCContext context, TreeLogger logger) {
+    this.context = context;
+    this.logger = logger;
+  }
+
+  @Override
+  public void execute() throws UnableToCompleteException {
+    // the JRE doesn't load chunks, the annotation is ignored there
+    if (context.getGenerationContext().getExecutionEnv().equals(ExecutionEnv.JRE)) {
+      return;
+    }
+
+    List<BeanDefinition> beans = new ArrayList<>(context.getBeans().values());
+    beans.sort(Comparator.comparing(BeanDefinition::getQualifiedName));
+
+    Set<UnableToCompleteException> errors = new LinkedHashSet<>();
+    for (BeanDefinition bean : beans) {
+      for (InjectableVariableDefinition point : bean.getConstructorParams()) {
+        check(point, errors);
+      }
+      for (InjectableVariableDefinition point : bean.getFields()) {
+        check(point, errors);
+      }
+    }
+    if (!errors.isEmpty()) {
+      throw new UnableToCompleteException(errors);
+    }
+  }
+
+  private void check(InjectableVariableDefinition point, Set<UnableToCompleteException> errors) {
+    if (!point.getImplementation().isPresent()
+        || MoreTypes.asTypeElement(point.getImplementation().get().getType())
+            .getAnnotation(LoadAsync.class) == null) {
+      return;
+    }
+    VariableElement variable = point.getVariableElement();
+    String msg = point.getImplementation().get().getQualifiedName()
+        + " is annotated with @LoadAsync, it can't be injected, use BeanManager.lookupBeanAsync";
+    context.getGenerationContext().getProcessingEnvironment().getMessager()
+        .printMessage(Diagnostic.Kind.ERROR, msg, variable);
+    errors.add(new UnableToCompleteException("Error at " + variable.getEnclosingElement() + "."
+        + variable + " : " + msg));
+  }
+}
@@ -14,150 +14,380 @@
 
 package io.crysknife.task;
 
+import com.google.auto.common.MoreTypes;
+import io.crysknife.annotation.CircularDependency;
 import io.crysknife.definition.BeanDefinition;
+import io.crysknife.definition.InjectableVariableDefinition;
+import io.crysknife.definition.ProducesBeanDefinition;
 import io.crysknife.exception.UnableToCompleteException;
+import io.crysknife.generator.IOCGenerator;
+import io.crysknife.generator.WiringElementType;
 import io.crysknife.generator.context.IOCContext;
 import io.crysknife.logger.TreeLogger;
-import org.apache.commons.lang3.tuple.ImmutablePair;
-import org.apache.commons.lang3.tuple.Pair;
+import io.crysknife.util.GenerationUtils;
 
-import javax.lang.model.type.TypeMirror;
+import javax.enterprise.context.Dependent;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
+ * Finds the dependency cycles of the bean graph. The strongly connected components are found with
+ * Tarjan's algorithm, every cycle of a component is reported with its full path, and a minimal set
+ * of beans is proxied, like the beans annotated with @CircularDependency, so every cycle gets a
+ * lazy edge and the rest of the graph is wired directly.
+ *
+ * Field injection points are lazy already, if the fields are injected by the aspects or by the
+ * interceptor, so only the cycles, that can't be created eagerly, are taken into account.
+ *
  * @author Dmitrii Tikhomirov Created by treblereel 9/16/21
  */
 public class CheckCyclesTask implements Task {
 
+  private static final int MAX_REPORTED_CYCLES = 100;
+
   private final IOCContext context;
   private final TreeLogger logger;
+  private final GenerationUtils generationUtils;
 
   public CheckCyclesTask(IOCContext iocContext, TreeLogger logger) {
     this.context = iocContext;
     this.logger = logger;
+    this.generationUtils = new GenerationUtils(iocContext);
   }
 
   @Override
   public void execute() throws UnableToCompleteException {
-    Map<TypeMirror, Vertex> vertexes = new HashMap<>();
-    Graph graph = new Graph();
-
-    for (Map.Entry<TypeMirror, BeanDefinition> entry : context.getBeans().entrySet()) {
-      Vertex vertex = new Vertex(entry.getValue());
-      graph.addVertex(vertex);
-      vertexes.put(entry.getKey(), vertex);
-    }
-
-    for (Map.Entry<TypeMirror, BeanDefinition> entry : context.getBeans().entrySet()) {
-      entry.getValue().getDependencies().forEach(dep -> {
-        Vertex from = vertexes.get(entry.getKey());
-        Vertex to = vertexes.get(dep.getType());
-        // check, if unscoped bean
-        if (to != null) {
-          graph.addEdge(from, to);
-        }
-      });
+    List<Vertex> vertices = buildGraph();
+
+    List<List<Vertex>> cyclic = findStronglyConnectedComponents(vertices).stream()
+        .filter(component -> component.size() > 1 || component.get(0).edges.stream()
+            .anyMatch(edge -> !edge.lazy && edge.to == component.get(0)))
+        .collect(Collectors.toList());
+    if (cyclic.isEmpty()) {
+      return;
     }
 
-    if (graph.hasCycle()) {
-      System.out.println("Graph contains cyclic deps ["
-          + graph.pair.get().getKey().beanDefinition.getQualifiedName() + " <-> "
-          + graph.pair.get().getValue().beanDefinition.getQualifiedName() + "]");
-    }
+    TreeLogger branch = logger.branch(TreeLogger.INFO,
+        "bean graph contains " + cyclic.size() + " strongly connected component(s)");
+    for (List<Vertex> component : cyclic) {
+      component.sort(Comparator.comparingInt(vertex -> vertex.position));
+      int id = component.get(0).position;
+      component.forEach(vertex -> vertex.component = id);
 
+      reportCycles(branch, component);
+      breakCycles(branch, component);
+    }
   }
 
-
-  private static class Graph {
-
-    public Optional<Pair<Vertex, Vertex>> pair = Optional.empty();
-    private List<Vertex> vertices;
-
-    public Graph() {
-      this.vertices = new ArrayList<>();
+  private List<Vertex> buildGraph() {
+    List<BeanDefinition> beans = new ArrayList<>(context.getBeans().values());
+    beans.sort(Comparator.comparing(BeanDefinition::getQualifiedName));
+
+    Map<BeanDefinition, Vertex> vertices = new HashMap<>();
+    List<Vertex> result = new ArrayList<>();
+    for (BeanDefinition bean : beans) {
+      if (!vertices.containsKey(bean)) {
+        Vertex vertex = new Vertex(bean, result.size());
+        vertices.put(bean, vertex);
+        result.add(vertex);
+      }
     }
 
-    public void addVertex(Vertex vertex) {
-      this.vertices.add(vertex);
+    for (Vertex from : result) {
+      for (InjectableVariableDefinition point : from.bean.getConstructorParams()) {
+        addEdge(vertices, from, point, true);
+      }
+      for (InjectableVariableDefinition point : from.bean.getFields()) {
+        addEdge(vertices, from, point, false);
+      }
     }
+    return result;
+  }
 
-    public void addEdge(Vertex from, Vertex to) {
-      from.addNeighbour(to);
+  private void addEdge(Map<BeanDefinition, Vertex> vertices, Vertex from,
+      InjectableVariableDefinition point, boolean constructor) {
+    if (!point.getImplementation().isPresent()) {
+      return;
+    }
+    Vertex to = vertices.get(point.getImplementation().get());
+    // check, if unscoped bean
+    if (to == null) {
+      return;
     }
+    boolean lazy = to.bean.isProxy() || (!constructor && (!generationUtils
+        .isFactoryFieldInjection() || generationUtils.isIntercepted(from.bean)));
+    from.edges.add(new Edge(from, to, point, constructor, lazy));
+  }
 
-    public boolean hasCycle() {
-      for (Vertex vertex : vertices) {
-        if (!vertex.isVisited() && hasCycle(vertex)) {
-          return true;
+  /**
+   * Tarjan's algorithm, iterative, so deep graphs don't overflow the stack of javac. Lazy edges
+   * are ignored.
+   */
+  private List<List<Vertex>> findStronglyConnectedComponents(List<Vertex> vertices) {
+    List<List<Vertex>> components = new ArrayList<>();
+    Deque<Vertex> stack = new ArrayDeque<>();
+    int counter = 0;
+
+    for (Vertex root : vertices) {
+      if (root.index != -1) {
+        continue;
+      }
+      Deque<Vertex> path = new ArrayDeque<>();
+      root.index = root.low = counter++;
+      root.next = 0;
+      root.onStack = true;
+      stack.push(root);
+      path.push(root);
+
+      while (!path.isEmpty()) {
+        Vertex vertex = path.peek();
+        if (vertex.next < vertex.edges.size()) {
+          Edge edge = vertex.edges.get(vertex.next++);
+          if (edge.lazy) {
+            continue;
+          }
+          Vertex to = edge.to;
+          if (to.index == -1) {
+            to.index = to.low = counter++;
+            to.next = 0;
+            to.onStack = true;
+            stack.push(to);
+            path.push(to);
+          } else if (to.onStack) {
+            vertex.low = Math.min(vertex.low, to.index);
+          }
+        } else {
+          path.pop();
+          if (!path.isEmpty()) {
+            path.peek().low = Math.min(path.peek().low, vertex.low);
+          }
+          if (vertex.low == vertex.index) {
+            List<Vertex> component = new ArrayList<>();
+            Vertex member;
+            do {
+              member = stack.pop();
+              member.onStack = false;
+              component.add(member);
+            } while (member != vertex);
+            components.add(component);
+          }
         }
       }
-      return false;
     }
+    return components;
+  }
 
-    public boolean hasCycle(Vertex sourceVertex) {
-      sourceVertex.setBeingVisited(true);
-      for (Vertex neighbour : sourceVertex.getAdjacencyList()) {
-        if (neighbour.isBeingVisited()) {
-          pair = Optional.of(new ImmutablePair<>(sourceVertex, neighbour));
-          return true;
-        } else if (!neighbour.isVisited() && hasCycle(neighbour)) {
-          return true;
-        }
+  private void reportCycles(TreeLogger branch, List<Vertex> component) {
+    List<List<Edge>> cycles = new ArrayList<>();
+    for (Vertex start : component) {
+      findCycles(start, start, new ArrayDeque<>(), new HashSet<>(), cycles);
+      if (cycles.size() >= MAX_REPORTED_CYCLES) {
+        break;
       }
-      sourceVertex.setBeingVisited(false);
-      sourceVertex.setVisited(true);
-      return false;
     }
 
+    TreeLogger cyclesBranch = branch.branch(TreeLogger.INFO,
+        "component of " + component.size() + " bean(s) contains "
+            + (cycles.size() >= MAX_REPORTED_CYCLES ? "at least " : "") + cycles.size()
+            + " cycle(s)");
+    cycles.forEach(cycle -> cyclesBranch.log(TreeLogger.INFO, toString(cycle)));
   }
 
-  private static class Vertex {
-
-    private BeanDefinition beanDefinition;
-
-    private boolean visited;
-
-    private boolean beingVisited;
-
-    private List<Vertex> adjacencyList;
+  /**
+   * Enumerates the elementary cycles, that start at the given vertex and pass only through the
+   * vertices after it, so every cycle is found once.
+   */
+  private void findCycles(Vertex start, Vertex vertex, Deque<Edge> path, Set<Vertex> visited,
+      List<List<Edge>> cycles) {
+    visited.add(vertex);
+    for (Edge edge : vertex.edges) {
+      if (cycles.size() >= MAX_REPORTED_CYCLES) {
+        break;
+      }
+      if (edge.lazy || edge.to.component != start.component
+          || edge.to.position < start.position) {
+        continue;
+      }
+      path.addLast(edge);
+      if (edge.to == start) {
+        cycles.add(new ArrayList<>(path));
+      } else if (!visited.contains(edge.to)) {
+        findCycles(start, edge.to, path, visited, cycles);
+      }
+      path.removeLast();
+    }
+    visited.remove(vertex);
+  }
 
-    public Vertex(BeanDefinition beanDefinition) {
-      this.beanDefinition = beanDefinition;
-      this.adjacencyList = new ArrayList<>();
+  /**
+   * Picks the beans to proxy: while there is a cycle without a lazy edge, the proxyable bean of the
+   * cycle with most eager edges pointing to it is proxied. Then every pick, that became redundant,
+   * is dropped, so the set is minimal.
+   */
+  private void breakCycles(TreeLogger branch, List<Vertex> component) {
+    Set<Vertex> proxies = new LinkedHashSet<>();
+    Set<Edge> unbreakable = new HashSet<>();
+
+    Optional<List<Edge>> cycle;
+    while ((cycle = findCycle(component, proxies, unbreakable)).isPresent()) {
+      Optional<Vertex> candidate = cycle.get().stream().map(edge -> edge.to)
+          .filter(this::isProxyable)
+          .min(Comparator.comparingInt((Vertex vertex) -> -inDegree(vertex, component))
+              .thenComparingInt(vertex -> vertex.position));
+      if (candidate.isPresent()) {
+        proxies.add(candidate.get());
+      } else {
+        branch.log(TreeLogger.WARN, "cycle can't be broken, none of its beans can be proxied, "
+            + "mark an injection point as Provider or Instance: " + toString(cycle.get()));
+        unbreakable.addAll(cycle.get());
+      }
     }
 
-    public BeanDefinition get() {
-      return beanDefinition;
+    List<Vertex> picked = new ArrayList<>(proxies);
+    for (int i = picked.size() - 1; i >= 0; i--) {
+      proxies.remove(picked.get(i));
+      if (findCycle(component, proxies, unbreakable).isPresent()) {
+        proxies.add(picked.get(i));
+      }
     }
 
-    public boolean isVisited() {
-      return visited;
+    Optional<IOCGenerator> proxyGenerator =
+        context.getGenerator(CircularDependency.class.getCanonicalName(), context
+            .getGenerationContext().getElements().getTypeElement(Object.class.getCanonicalName()),
+            WiringElementType.CLASS_DECORATOR);
+    for (Vertex vertex : proxies) {
+      branch.log(TreeLogger.INFO,
+          vertex.bean.getQualifiedName() + " is proxied to break the cycle(s) it is part of");
+      vertex.bean.setProxy(true);
+      proxyGenerator.ifPresent(generator -> vertex.bean.getDecorators()
+          .add((IOCGenerator<BeanDefinition>) generator));
     }
+  }
 
-    public void setVisited(boolean visited) {
-      this.visited = visited;
+  private Optional<List<Edge>> findCycle(List<Vertex> component, Set<Vertex> proxies,
+      Set<Edge> unbreakable) {
+    Set<Vertex> done = new HashSet<>();
+    for (Vertex root : component) {
+      if (!done.contains(root)) {
+        Optional<List<Edge>> cycle =
+            findCycle(root, proxies, unbreakable, new ArrayList<>(), new HashSet<>(), done);
+        if (cycle.isPresent()) {
+          return cycle;
+        }
+      }
     }
+    return Optional.empty();
+  }
 
-    public boolean isBeingVisited() {
-      return beingVisited;
+  private Optional<List<Edge>> findCycle(Vertex vertex, Set<Vertex> proxies, Set<Edge> unbreakable,
+      List<Edge> path, Set<Vertex> onPath, Set<Vertex> done) {
+    onPath.add(vertex);
+    for (Edge edge : vertex.edges) {
+      if (edge.lazy || edge.to.component != vertex.component || proxies.contains(edge.to)
+          || unbreakable.contains(edge)) {
+        continue;
+      }
+      path.add(edge);
+      if (onPath.contains(edge.to)) {
+        int start = 0;
+        while (path.get(start).from != edge.to) {
+          start++;
+        }
+        return Optional.of(new ArrayList<>(path.subList(start, path.size())));
+      }
+      if (!done.contains(edge.to)) {
+        Optional<List<Edge>> cycle = findCycle(edge.to, proxies, unbreakable, path, onPath, done);
+        if (cycle.isPresent()) {
+          return cycle;
+        }
+      }
+      path.remove(path.size() - 1);
     }
+    onPath.remove(vertex);
+    done.add(vertex);
+    return Optional.empty();
+  }
 
-    public void setBeingVisited(boolean beingVisited) {
-      this.beingVisited = beingVisited;
+  private int inDegree(Vertex vertex, List<Vertex> component) {
+    int degree = 0;
+    for (Vertex from : component) {
+      for (Edge edge : from.edges) {
+        if (edge.to == vertex && !edge.lazy) {
+          degree++;
+        }
+      }
     }
+    return degree;
+  }
 
-    public List<Vertex> getAdjacencyList() {
-      return adjacencyList;
+  private boolean isProxyable(Vertex vertex) {
+    BeanDefinition bean = vertex.bean;
+    if (bean instanceof ProducesBeanDefinition || !bean.getIocGenerator().isPresent()
+        || bean.getScope().annotationType().equals(Dependent.class)) {
+      return false;
     }
+    TypeElement type = MoreTypes.asTypeElement(bean.getType());
+    return type.getKind().equals(ElementKind.CLASS)
+        && !type.getModifiers().contains(Modifier.FINAL)
+        && !type.getModifiers().contains(Modifier.ABSTRACT);
+  }
 
-    public void addNeighbour(Vertex adjacent) {
-      this.adjacencyList.add(adjacent);
+  private String toString(List<Edge> cycle) {
+    StringBuilder sb = new StringBuilder(cycle.get(0).from.bean.getQualifiedName());
+    for (Edge edge : cycle) {
+      sb.append(" -> ").append(edge.to.bean.getQualifiedName()).append(" (")
+          .append(edge.constructor ? "constructor " : "field ")
+          .append(edge.point.getVariableElement().getSimpleName()).append(')');
     }
+    return sb.toString();
+  }
 
+  private static class Vertex {
+
+    private final BeanDefinition bean;
+    private final int position;
+    private final List<Edge> edges = new ArrayList<>();
+
+    private int index = -1;
+    private int low;
+    private int next;
+    private boolean onStack;
+    private int component = -1;
+
+    private Vertex(BeanDefinition bean, int position) {
+      this.bean = bean;
+      this.position = position;
+    }
   }
 
+  private static class Edge {
+
+    private final Vertex from;
+    private final Vertex to;
+    private final InjectableVariableDefinition point;
+    private final boolean constructor;
+    private final boolean lazy;
+
+    private Edge(Vertex from, Vertex to, InjectableVariableDefinition point, boolean constructor,
+        boolean lazy) {
+      this.from = from;
+      this.to = to;
+      this.point = point;
+      this.constructor = constructor;
+      this.lazy = lazy;
+    }
+  }
 }
@@ -33,6 +33,7 @@ public class FireAfterTask implements Task {
 
   @Override
   public void execute() throws UnableToCompleteException {
-    context.getGenerators().forEach((meta, generator) -> generator.after());
+    context.getGenerators().forEach(
+        (meta, generator) -> context.getProfiler().run(generator, generator::after));
   }
 }
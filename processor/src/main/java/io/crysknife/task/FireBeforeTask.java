@@ -33,6 +33,7 @@ public class FireBeforeTask implements Task {
 
   @Override
   public void execute() throws UnableToCompleteException {
-    context.getGenerators().forEach((meta, generator) -> generator.before());
+    context.getGenerators().forEach(
+        (meta, generator) -> context.getProfiler().run(generator, generator::before));
   }
 }
@@ -14,17 +14,28 @@
 
 package io.crysknife.task;
 
+import com.google.auto.common.MoreTypes;
 import com.google.common.graph.GraphBuilder;
 import com.google.common.graph.MutableGraph;
 import com.google.common.graph.Traverser;
+import io.crysknife.definition.InjectableVariableDefinition;
+import io.crysknife.definition.ProducesBeanDefinition;
 import io.crysknife.exception.UnableToCompleteException;
 import io.crysknife.generator.context.IOCContext;
 import io.crysknife.logger.TreeLogger;
 import io.crysknife.definition.BeanDefinition;
 
+import javax.ejb.Startup;
+import javax.enterprise.event.Observes;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.Stack;
 
@@ -33,6 +44,9 @@ import java.util.Stack;
  */
 public class ProcessGraphTask implements Task {
 
+  private static final String TEMPLATED = "io.crysknife.ui.templates.client.annotation.Templated";
+  private static final String PAGE = "io.crysknife.ui.navigation.client.local.Page";
+
   private final MutableGraph<TypeMirror> graph =
       GraphBuilder.directed().allowsSelfLoops(false).build();
   private IOCContext context;
@@ -47,9 +61,13 @@ public class ProcessGraphTask implements Task {
 
   @Override
   public void execute() throws UnableToCompleteException {
-    Set<TypeMirror> state = new HashSet<>();
+    boolean treeShaking = context.getGenerationContext().isTreeShaking();
+    Set<TypeMirror> roots = treeShaking ? getRoots() : new LinkedHashSet<>();
+    roots.add(application.asType());
+
+    Set<TypeMirror> state = new HashSet<>(roots);
     Stack<TypeMirror> stack = new Stack<>();
-    stack.push(application.asType());
+    roots.forEach(stack::push);
     while (!stack.isEmpty()) {
       TypeMirror scan = stack.pop();
       BeanDefinition parent = context.getBeans().get(scan);
@@ -57,25 +75,110 @@ public class ProcessGraphTask implements Task {
       if (parent == null) {
         continue;
       }
-      parent.getDependencies().forEach(deps -> {
-        if (!deps.getType().equals(scan)) {
-          graph.putEdge(scan, deps.getType());
+      Set<TypeMirror> dependencies = new LinkedHashSet<>();
+      parent.getDependencies().forEach(deps -> dependencies.add(deps.getType()));
+      if (treeShaking) {
+        addImplicitDependencies(parent, dependencies);
+      }
+      dependencies.forEach(deps -> {
+        if (!deps.equals(scan)) {
+          graph.putEdge(scan, deps);
         }
 
-        if (!state.contains(deps.getType())) {
-          stack.push(deps.getType());
-          state.add(deps.getType());
+        if (!state.contains(deps)) {
+          stack.push(deps);
+          state.add(deps);
         }
       });
     }
 
-    Traverser.forGraph(graph).depthFirstPostOrder(application.asType())
+    // a root without dependencies is never the end of an edge
+    roots.forEach(graph::addNode);
+    Traverser.forGraph(graph).depthFirstPostOrder(roots)
         .forEach(bean -> context.getOrderedBeans().add(bean));
 
     context.getBeans().forEach((bean, definition) -> {
-      if (!context.getOrderedBeans().contains(bean)) {
+      if (!context.getOrderedBeans().contains(bean)
+          && (!treeShaking || context.getBuildIn().contains(bean.toString()))) {
         context.getOrderedBeans().add(bean);
       }
     });
+
+    if (treeShaking) {
+      logger.log(TreeLogger.INFO, "beans reachable " + context.getOrderedBeans().size() + " of "
+          + context.getBeans().size());
+    }
+  }
+
+  /**
+   * Entry points of the application, they are never injected, but created by the framework or
+   * looked up via BeanManager.
+   */
+  private Set<TypeMirror> getRoots() {
+    Types types = context.getGenerationContext().getTypes();
+    Set<TypeMirror> roots = new LinkedHashSet<>();
+    for (String annotation : new String[] {Startup.class.getCanonicalName(), TEMPLATED, PAGE}) {
+      if (context.getGenerationContext().getElements().getTypeElement(annotation) != null) {
+        context.getTypeElementsByAnnotation(annotation)
+            .forEach(type -> roots.add(types.erasure(type.asType())));
+      }
+    }
+    context.getParametersByAnnotation(Observes.class.getCanonicalName())
+        .forEach(param -> roots.add(types.erasure(param.getEnclosingElement()
+            .getEnclosingElement().asType())));
+    for (String keep : context.getGenerationContext().getKeep()) {
+      TypeElement type = context.getGenerationContext().getElements().getTypeElement(keep);
+      if (type == null) {
+        logger.log(TreeLogger.WARN, "Unable to find type " + keep + " to keep");
+        continue;
+      }
+      roots.addAll(getAssignableBeans(types.erasure(type.asType())));
+    }
+    roots.removeIf(root -> !context.getBeans().containsKey(root));
+    return roots;
+  }
+
+  /**
+   * Dependencies the oracle doesn't record: producers and their declaring beans, and every bean
+   * that a built-in injection point, like ManagedInstance<T>, may resolve to at runtime.
+   */
+  private void addImplicitDependencies(BeanDefinition bean, Set<TypeMirror> dependencies) {
+    Types types = context.getGenerationContext().getTypes();
+    if (bean instanceof ProducesBeanDefinition) {
+      dependencies
+          .add(types.erasure(((ProducesBeanDefinition) bean).getProducer().asType()));
+    }
+
+    List<InjectableVariableDefinition> points = new ArrayList<>(bean.getFields());
+    points.addAll(bean.getConstructorParams());
+    for (InjectableVariableDefinition point : points) {
+      TypeMirror type = point.getVariableElement().asType();
+      TypeMirror erased = types.erasure(type);
+      if (context.getBeans().get(erased) instanceof ProducesBeanDefinition) {
+        dependencies.add(erased);
+      } else if (point.getGenerator().isPresent() && type.getKind().equals(TypeKind.DECLARED)) {
+        for (TypeMirror arg : ((DeclaredType) type).getTypeArguments()) {
+          if (arg.getKind().equals(TypeKind.DECLARED)) {
+            dependencies.addAll(getAssignableBeans(types.erasure(arg)));
+          }
+        }
+      }
+    }
+  }
+
+  private Set<TypeMirror> getAssignableBeans(TypeMirror type) {
+    Types types = context.getGenerationContext().getTypes();
+    Set<TypeMirror> result = new LinkedHashSet<>();
+    context.getBeans().forEach((bean, definition) -> {
+      if (!(definition instanceof ProducesBeanDefinition)
+          && MoreTypes.asTypeElement(bean).getKind().isClass()
+          && types.isAssignable(bean, type)) {
+        result.add(bean);
+      } else if (definition instanceof ProducesBeanDefinition
+          && types.isAssignable(types.erasure(bean), type)) {
+        result.add(bean);
+      }
+    });
+    return result;
   }
 }
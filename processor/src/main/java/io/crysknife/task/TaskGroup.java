@@ -16,6 +16,8 @@ package io.crysknife.task;
 
 import io.crysknife.exception.GenerationException;
 import io.crysknife.exception.UnableToCompleteException;
+import io.crysknife.generator.context.GenerationProfiler;
+import io.crysknife.generator.context.IOCContext;
 import io.crysknife.logger.TreeLogger;
 
 import java.util.LinkedHashSet;
@@ -27,22 +29,33 @@ import java.util.Set;
 public class TaskGroup implements Task {
 
   private final Set<Task> tasks = new LinkedHashSet<>();
+  private final IOCContext iocContext;
   private final TreeLogger logger;
 
-  public TaskGroup(TreeLogger logger) {
+  public TaskGroup(IOCContext iocContext, TreeLogger logger) {
+    this.iocContext = iocContext;
     this.logger = logger;
   }
 
   @Override
   public void execute() {
     Set<UnableToCompleteException> errors = new LinkedHashSet<>();
+    GenerationProfiler profiler = iocContext.getProfiler();
     for (Task task : tasks) {
+      profiler.start(GenerationProfiler.TASK, task.getClass().getSimpleName());
       try {
         task.execute();
       } catch (UnableToCompleteException e) {
         errors.add(e);
+      } finally {
+        if (profiler.isEnabled()) {
+          profiler.setBeans(iocContext.getBeans().size(), iocContext.getBeans().values().stream()
+              .mapToInt(bean -> bean.getFields().size()).sum());
+        }
+        profiler.stop();
       }
     }
+    profiler.report(logger);
     if (!errors.isEmpty()) {
       for (UnableToCompleteException error : errors) {
         if (error.errors != null) {
@@ -47,6 +47,7 @@ import io.crysknife.definition.InjectableVariableDefinition;
 import io.crysknife.generator.api.ClassBuilder;
 import io.crysknife.generator.context.ExecutionEnv;
 import io.crysknife.generator.context.IOCContext;
+import io.crysknife.generator.context.QualifierPool;
 import jsinterop.base.Js;
 import org.apache.commons.lang3.reflect.MethodUtils;
 
@@ -56,6 +57,7 @@ import javax.lang.model.element.*;
 import javax.lang.model.type.TypeMirror;
 import java.lang.reflect.Method;
 import java.util.List;
+import java.util.Set;
 
 /**
  * @author Dmitrii Tikhomirov Created by treblereel 8/19/21
@@ -142,6 +144,74 @@ public class GenerationUtils {
                 .addArgument("instance"));
   }
 
+  public Expression setFieldValueCallExpr(BeanDefinition beanDefinition, VariableElement field,
+      Expression target, Expression value) {
+    String name = field.getSimpleName().toString();
+    if (context.getGenerationContext().getExecutionEnv().equals(ExecutionEnv.JRE)) {
+      TypeElement enclosing = MoreElements.asType(field.getEnclosingElement());
+      if (isAccessible(beanDefinition, field)) {
+        if (!isTheSame(beanDefinition.getType(), enclosing.asType())) {
+          target = new EnclosedExpr(new CastExpr(
+              new ClassOrInterfaceType().setName(enclosing.getQualifiedName().toString()), target));
+        }
+        return new AssignExpr().setTarget(new FieldAccessExpr(target, name)).setValue(value);
+      }
+      return new MethodCallExpr(new NameExpr(Utils.getQualifiedFieldAccessorName(enclosing)), name)
+          .addArgument(target).addArgument(value);
+    }
+
+    if (!field.getModifiers().contains(javax.lang.model.element.Modifier.PRIVATE)) {
+      if (isTheSame(beanDefinition.getType(), field.getEnclosingElement().asType())) {
+        return new AssignExpr().setTarget(new FieldAccessExpr(target, name)).setValue(value);
+      }
+    }
+    return new MethodCallExpr(
+        new MethodCallExpr(new NameExpr(Js.class.getCanonicalName()), "asPropertyMap")
+            .addArgument(target),
+        "set").addArgument(
+            new MethodCallExpr(new NameExpr(Reflect.class.getSimpleName()), "objectProperty")
+                .addArgument(new StringLiteralExpr(Utils.getJsFieldName(field)))
+                .addArgument(target.clone()))
+            .addArgument(value);
+  }
+
+  /**
+   * @return true, if the field can be set from the package of the bean, otherwise, in JRE mode, it's
+   *         set via the generated field accessor of the type that declares it
+   */
+  public boolean isAccessible(BeanDefinition beanDefinition, VariableElement field) {
+    Set<javax.lang.model.element.Modifier> modifiers = field.getModifiers();
+    if (modifiers.contains(javax.lang.model.element.Modifier.PRIVATE)) {
+      return false;
+    }
+    TypeElement enclosing = MoreElements.asType(field.getEnclosingElement());
+    if (modifiers.contains(javax.lang.model.element.Modifier.PUBLIC)
+        && enclosing.getModifiers().contains(javax.lang.model.element.Modifier.PUBLIC)) {
+      return true;
+    }
+    return MoreElements.getPackage(enclosing)
+        .equals(MoreElements.getPackage(MoreTypes.asTypeElement(beanDefinition.getType())));
+  }
+
+  /**
+   * @return true, if fields are injected by the factory, and not by the aspects
+   */
+  public boolean isFactoryFieldInjection() {
+    return !context.getGenerationContext().getExecutionEnv().equals(ExecutionEnv.JRE)
+        || context.getGenerationContext().isJreDirectInjection();
+  }
+
+  /**
+   * @return true, if instances of the bean must be wrapped into an Interceptor, it's only the case
+   *         for J2CL, unless proxyless mode is on and the bean isn't a @CircularDependency
+   */
+  public boolean isIntercepted(BeanDefinition beanDefinition) {
+    if (!context.getGenerationContext().getExecutionEnv().equals(ExecutionEnv.J2CL)) {
+      return false;
+    }
+    return !context.getGenerationContext().isProxyless() || beanDefinition.isProxy();
+  }
+
   private boolean isTheSame(TypeMirror parent, TypeMirror child) {
     parent = context.getGenerationContext().getTypes().erasure(parent);
     child = context.getGenerationContext().getTypes().erasure(child);
@@ -161,40 +231,15 @@ public class GenerationUtils {
   public void maybeAddQualifiers(IOCContext context, MethodCallExpr call,
       InjectableVariableDefinition field) {
 
-    String annotationName = null;
-
     if (field.getVariableElement().getAnnotation(Named.class) != null) {
-      annotationName = Named.class.getCanonicalName();
-    } else if (isQualifier(field) != null) {
-      annotationName = isQualifier(field);
-    }
-
-    if (annotationName != null) {
-      ObjectCreationExpr annotation = new ObjectCreationExpr();
-      annotation.setType(new ClassOrInterfaceType().setName(annotationName));
-      NodeList<BodyDeclaration<?>> anonymousClassBody = new NodeList<>();
-
-      MethodDeclaration annotationType = new MethodDeclaration();
-      annotationType.setModifiers(Modifier.Keyword.PUBLIC);
-      annotationType.setName("annotationType");
-      annotationType.setType(
-          new ClassOrInterfaceType().setName("Class<? extends java.lang.annotation.Annotation>"));
-      annotationType.getBody().get()
-          .addAndGetStatement(new ReturnStmt(new NameExpr(annotationName + ".class")));
-      anonymousClassBody.add(annotationType);
-
-      if (field.getVariableElement().getAnnotation(Named.class) != null) {
-        MethodDeclaration value = new MethodDeclaration();
-        value.setModifiers(Modifier.Keyword.PUBLIC);
-        value.setName("value");
-        value.setType(new ClassOrInterfaceType().setName("String"));
-        value.getBody().get().addAndGetStatement(new ReturnStmt(
-            new StringLiteralExpr(field.getVariableElement().getAnnotation(Named.class).value())));
-        anonymousClassBody.add(value);
+      call.addArgument(context.getQualifierPool()
+          .named(field.getVariableElement().getAnnotation(Named.class).value()));
+    } else {
+      AnnotationMirror qualifier = getQualifier(field);
+      if (qualifier != null) {
+        // keyed by the annotation with its values, so each distinct value gets its own instance
+        call.addArgument(createQualifierExpression(qualifier));
       }
-
-      annotation.setAnonymousClassBody(anonymousClassBody);
-      call.addArgument(annotation);
     }
   }
 
@@ -208,7 +253,15 @@ public class GenerationUtils {
         context.getGenerationContext().getTypes().getDeclaredType(targetClass));
   }
 
+  /**
+   * @return reference to the shared instance of the qualifier, see {@link QualifierPool}
+   */
   public Expression createQualifierExpression(AnnotationMirror qualifier) {
+    return context.getQualifierPool().get(qualifier,
+        () -> createQualifierInstance(qualifier));
+  }
+
+  private Expression createQualifierInstance(AnnotationMirror qualifier) {
 
     ObjectCreationExpr annotation = new ObjectCreationExpr();
     annotation
@@ -242,6 +295,11 @@ public class GenerationUtils {
   }
 
   public String isQualifier(InjectableVariableDefinition field) {
+    AnnotationMirror qualifier = getQualifier(field);
+    return qualifier != null ? qualifier.getAnnotationType().toString() : null;
+  }
+
+  private AnnotationMirror getQualifier(InjectableVariableDefinition field) {
     for (AnnotationMirror ann : field.getVariableElement().getAnnotationMirrors()) {
       for (AnnotationMirror e : context.getGenerationContext().getProcessingEnvironment()
           .getElementUtils()
@@ -249,7 +307,7 @@ public class GenerationUtils {
         boolean same =
             context.getGenerationContext().getTypes().isSameType(e.getAnnotationType(), qualifier);
         if (same) {
-          return ann.getAnnotationType().toString();
+          return ann;
         }
       }
     }
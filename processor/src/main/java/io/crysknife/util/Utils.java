@@ -74,6 +74,22 @@ public class Utils {
         + "_Factory";
   }
 
+  public static String getAsyncModuleClassName(TypeElement bean) {
+    return (bean.getEnclosingElement().getKind().equals(ElementKind.PACKAGE) ? ""
+        : (bean.getEnclosingElement().getSimpleName() + "_")) + bean.getSimpleName().toString()
+        + "_AsyncModule";
+  }
+
+  public static String getQualifiedFieldAccessorName(TypeElement type) {
+    return getPackageName(type) + "." + getFieldAccessorClassName(type);
+  }
+
+  public static String getFieldAccessorClassName(TypeElement type) {
+    return (type.getEnclosingElement().getKind().equals(ElementKind.PACKAGE) ? ""
+        : (type.getEnclosingElement().getSimpleName() + "_")) + type.getSimpleName().toString()
+        + "_FieldAccessor";
+  }
+
   public static String getSimpleClassName(TypeMirror bean) {
     return getSimpleClassName(MoreTypes.asTypeElement(bean));
   }
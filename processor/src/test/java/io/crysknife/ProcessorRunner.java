@@ -0,0 +1,150 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife;
+
+import io.crysknife.exception.GenerationException;
+
+import javax.annotation.processing.Processor;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs the ApplicationProcessor with -proc:only on sources of a single package, the generated
+ * sources go to a temporary directory.
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+public class ProcessorRunner {
+
+  private final String pkg;
+  private final List<String> options;
+  private final List<JavaFileObject> sources = new ArrayList<>();
+  private final List<Path> classpath = new ArrayList<>();
+  private final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+  private Path output;
+
+  /**
+   * @param options processor options, like -Acrysknife.executionEnv=J2CL
+   */
+  public ProcessorRunner(String pkg, String... options) {
+    this.pkg = pkg;
+    this.options = Arrays.asList(options);
+  }
+
+  public ProcessorRunner source(String name, String body) {
+    sources.add(new SimpleJavaFileObject(
+        URI.create("string:///" + pkg.replace('.', '/') + "/" + name + ".java"),
+        JavaFileObject.Kind.SOURCE) {
+
+      @Override
+      public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+        return "package " + pkg + "; " + body;
+      }
+    });
+    return this;
+  }
+
+  /**
+   * Adds a jar or a directory to the classpath of the compiled sources.
+   */
+  public ProcessorRunner classpath(Path path) {
+    classpath.add(path);
+    return this;
+  }
+
+  /**
+   * @return true, if the processing has completed without errors. The processor stops with a
+   *         GenerationException once it has reported the errors, that is a failure too, any other
+   *         exception is rethrown.
+   */
+  public boolean run() throws IOException {
+    return run(new ApplicationProcessor());
+  }
+
+  public boolean run(Processor processor) throws IOException {
+    output = Files.createTempDirectory("crysknife-processor");
+    List<String> args = new ArrayList<>(
+        Arrays.asList("-proc:only", "-s", output.toString(), "-d", output.toString()));
+    if (!classpath.isEmpty()) {
+      args.add("-classpath");
+      args.add(classpath.stream().map(Path::toString).collect(Collectors.joining(
+          File.pathSeparator, "", File.pathSeparator + System.getProperty("java.class.path"))));
+    }
+    args.addAll(options);
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    JavaCompiler.CompilationTask task =
+        compiler.getTask(null, null, diagnostics, args, null, sources);
+    task.setProcessors(Collections.singletonList(processor));
+    try {
+      return task.call();
+    } catch (RuntimeException e) {
+      if (isGenerationException(e) && !getErrors().isEmpty()) {
+        return false;
+      }
+      throw e;
+    }
+  }
+
+  public List<Diagnostic<? extends JavaFileObject>> getErrors() {
+    return diagnostics.getDiagnostics().stream()
+        .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+        .collect(Collectors.toList());
+  }
+
+  public boolean hasGenerated(String name) {
+    return Files.exists(output.resolve(pkg.replace('.', '/') + "/" + name + ".java"));
+  }
+
+  /**
+   * @return all the generated sources
+   */
+  public String getGenerated() throws IOException {
+    try (Stream<Path> files = Files.walk(output)) {
+      return files.filter(file -> file.toString().endsWith(".java")).map(file -> {
+        try {
+          return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }).collect(Collectors.joining("\n"));
+    }
+  }
+
+  private boolean isGenerationException(Throwable e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof GenerationException) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.generator.context;
+
+import io.crysknife.ProcessorRunner;
+import org.junit.Test;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Looks up the annotations declared in a jar built without an index, they are found through their
+ * meta-annotation.
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+public class IOCContextTest {
+
+  private static final String LIB = "org.treblereel.lib";
+
+  @Test
+  public void testConstraintFromJarWithoutIndex() throws IOException {
+    Path jar = jar(
+        source("Constraint", "@java.lang.annotation.Target("
+            + "java.lang.annotation.ElementType.ANNOTATION_TYPE) public @interface Constraint {}"),
+        source("NotBlank", "@Constraint public @interface NotBlank {}"));
+
+    Set<String> constraints = new TreeSet<>();
+    ProcessorRunner runner = new ProcessorRunner("org.treblereel.constraints").classpath(jar)
+        .source("Bean", "public class Bean { @" + LIB + ".NotBlank String name; }");
+
+    assertTrue(runner.run(new AbstractProcessor() {
+
+      @Override
+      public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton("*");
+      }
+
+      @Override
+      public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+      }
+
+      @Override
+      public boolean process(Set<? extends TypeElement> annotations,
+          RoundEnvironment roundEnvironment) {
+        if (!roundEnvironment.processingOver()) {
+          new IOCContext(new GenerationContext(roundEnvironment, processingEnv))
+              .getTypeElementsByAnnotation(LIB + ".Constraint")
+              .forEach(type -> constraints.add(type.getQualifiedName().toString()));
+        }
+        return false;
+      }
+    }));
+    assertEquals(Collections.emptyList(), runner.getErrors());
+    assertEquals(Collections.singleton(LIB + ".NotBlank"), constraints);
+  }
+
+  private Path jar(JavaFileObject... sources) throws IOException {
+    Path classes = Files.createTempDirectory("crysknife-lib");
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    List<String> options = Arrays.asList("-proc:none", "-d", classes.toString());
+    assertTrue(compiler.getTask(null, null, null, options, null, Arrays.asList(sources)).call());
+
+    Path jar = Files.createTempFile("crysknife-lib", ".jar");
+    try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar));
+        Stream<Path> files = Files.walk(classes)) {
+      for (Path file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+        out.putNextEntry(new JarEntry(classes.relativize(file).toString().replace('\\', '/')));
+        Files.copy(file, (OutputStream) out);
+        out.closeEntry();
+      }
+    }
+    return jar;
+  }
+
+  private JavaFileObject source(String name, String body) {
+    return new SimpleJavaFileObject(
+        URI.create("string:///" + LIB.replace('.', '/') + "/" + name + ".java"),
+        JavaFileObject.Kind.SOURCE) {
+
+      @Override
+      public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+        return "package " + LIB + "; " + body;
+      }
+    };
+  }
+}
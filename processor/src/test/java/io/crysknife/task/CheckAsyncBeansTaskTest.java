@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.task;
+
+import io.crysknife.ProcessorRunner;
+import org.junit.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the processor on an application that injects a @LoadAsync bean.
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+public class CheckAsyncBeansTaskTest {
+
+  private static final String PKG = "org.treblereel.async";
+
+  @Test
+  public void testInjectedAsyncBeanIsReported() throws IOException {
+    ProcessorRunner runner = new ProcessorRunner(PKG, "-Acrysknife.executionEnv=J2CL")
+        .source("App",
+            "@io.crysknife.annotation.Application public class App {"
+                + " @javax.inject.Inject Eager eager; }")
+        .source("Eager",
+            "@javax.enterprise.context.ApplicationScoped public class Eager {"
+                + " @javax.inject.Inject Async async; }")
+        .source("Async", "@io.crysknife.annotation.LoadAsync"
+            + " @javax.enterprise.context.ApplicationScoped public class Async {}");
+
+    assertFalse(runner.run());
+    List<Diagnostic<? extends JavaFileObject>> errors = runner.getErrors();
+    assertEquals(1, errors.size());
+    assertTrue(
+        errors.get(0).getMessage(null).contains(PKG + ".Async is annotated with @LoadAsync"));
+  }
+
+  @Test
+  public void testLookedUpAsyncBeanIsNotReported() throws IOException {
+    ProcessorRunner runner = new ProcessorRunner(PKG, "-Acrysknife.executionEnv=J2CL")
+        .source("App", "@io.crysknife.annotation.Application public class App {}")
+        .source("Async", "@io.crysknife.annotation.LoadAsync"
+            + " @javax.enterprise.context.ApplicationScoped public class Async {}");
+
+    assertTrue(runner.run());
+    assertEquals(Collections.emptyList(), runner.getErrors());
+  }
+}
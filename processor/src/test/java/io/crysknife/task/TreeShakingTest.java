@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.task;
+
+import io.crysknife.ProcessorRunner;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the processor with -Acrysknife.treeShaking=true on a small application and checks which
+ * factories are generated.
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+public class TreeShakingTest {
+
+  @Test
+  public void testTreeShaking() throws IOException {
+    ProcessorRunner runner = new ProcessorRunner("org.treblereel.treeshaking",
+        "-Acrysknife.executionEnv=JRE", "-Acrysknife.jre.directInjection=true",
+        "-Acrysknife.treeShaking=true")
+            .source("App",
+                "@io.crysknife.annotation.Application public class App {"
+                    + " @javax.inject.Inject Reachable reachable; }")
+            .source("Reachable",
+                "@javax.enterprise.context.ApplicationScoped public class Reachable {"
+                    + " @javax.inject.Inject ReachableDependency dependency; }")
+            .source("ReachableDependency",
+                "@javax.enterprise.context.ApplicationScoped public class ReachableDependency {}")
+            .source("Unreachable",
+                "@javax.enterprise.context.ApplicationScoped public class Unreachable {"
+                    + " @javax.inject.Inject ReachableDependency dependency; }")
+            // a root without any dependency
+            .source("Observer",
+                "@javax.enterprise.context.ApplicationScoped public class Observer {"
+                    + " public void onEvent(@javax.enterprise.event.Observes String event) {} }");
+
+    assertTrue(runner.run());
+    assertEquals(Collections.emptyList(), runner.getErrors());
+    assertTrue(runner.hasGenerated("Reachable_Factory"));
+    assertTrue(runner.hasGenerated("ReachableDependency_Factory"));
+    assertTrue(runner.hasGenerated("Observer_Factory"));
+    assertFalse(runner.hasGenerated("Unreachable_Factory"));
+  }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.tests.j2cl.async;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import io.crysknife.annotation.LoadAsync;
+
+/**
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+@LoadAsync
+@ApplicationScoped
+public class FailingAsyncBean {
+
+  public String getName() {
+    return "FailingAsyncBean";
+  }
+}
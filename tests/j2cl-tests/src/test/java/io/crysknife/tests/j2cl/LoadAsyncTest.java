@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.tests.j2cl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.google.j2cl.junit.apt.J2clTestInput;
+import elemental2.promise.Promise;
+import io.crysknife.client.BeanManager;
+import io.crysknife.client.BeanManagerImpl;
+import io.crysknife.client.SyncBeanDef;
+import io.crysknife.tests.j2cl.async.AsyncBean;
+import io.crysknife.tests.j2cl.async.AsyncBean_AsyncModule;
+import io.crysknife.tests.j2cl.async.FailingAsyncBean;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+@J2clTestInput(LoadAsyncTest.class)
+public class LoadAsyncTest {
+
+  private BeanManager beanManager;
+
+  @Before
+  public void init() {
+    new TestApp().onModuleLoad();
+    beanManager = BeanManagerImpl.get();
+  }
+
+  @Test(timeout = 1000)
+  public Promise<Object> testLookupAsync() {
+    beanManager.setChunkLoader((chunk, onError) -> AsyncBean_AsyncModule.load());
+    return beanManager.lookupBeanAsync(AsyncBean.class).then(bean -> {
+      assertEquals("AsyncBean", bean.getInstance().getName());
+      return null;
+    });
+  }
+
+  @Test(timeout = 1000)
+  public Promise<Object> testChunkFailureRejectsEveryLookup() {
+    List<Consumer<Object>> loads = new ArrayList<>();
+    beanManager.setChunkLoader((chunk, onError) -> loads.add(onError));
+
+    Promise<Object> first = rejected(beanManager.lookupBeanAsync(FailingAsyncBean.class));
+    Promise<Object> second = rejected(beanManager.lookupBeanAsync(FailingAsyncBean.class));
+    assertEquals(1, loads.size());
+    loads.get(0).accept("failed");
+
+    return Promise.all(first, second).then(results -> {
+      // the chunk is loaded again by the next lookup
+      beanManager.lookupBeanAsync(FailingAsyncBean.class);
+      assertEquals(2, loads.size());
+      return null;
+    });
+  }
+
+  private Promise<Object> rejected(Promise<SyncBeanDef<FailingAsyncBean>> lookup) {
+    return lookup.then(bean -> {
+      fail("the chunk has failed to load");
+      return null;
+    }, error -> {
+      assertEquals("failed", error);
+      return null;
+    });
+  }
+}
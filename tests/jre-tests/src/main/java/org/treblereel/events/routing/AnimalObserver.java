@@ -0,0 +1,39 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.treblereel.events.routing;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+@ApplicationScoped
+public class AnimalObserver {
+
+  public List<AnimalEvent> animals = new CopyOnWriteArrayList<>();
+
+  public List<DogEvent> loudDogs = new CopyOnWriteArrayList<>();
+
+  public void onAnimal(@Observes AnimalEvent event) {
+    animals.add(event);
+  }
+
+  public void onLoudDog(@Observes @Loud DogEvent event) {
+    loudDogs.add(event);
+  }
+}
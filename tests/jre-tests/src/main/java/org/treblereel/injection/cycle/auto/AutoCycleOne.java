@@ -0,0 +1,48 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.treblereel.injection.cycle.auto;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+/**
+ * Part of a constructor cycle without @CircularDependency, the processor picks the bean to proxy.
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+@ApplicationScoped
+public class AutoCycleOne {
+
+  private AutoCycleTwo two;
+
+  private AutoCycleLeaf leaf;
+
+  @Inject
+  public AutoCycleOne(AutoCycleTwo two, AutoCycleLeaf leaf) {
+    this.two = two;
+    this.leaf = leaf;
+  }
+
+  public String whoAmI() {
+    return "AutoCycleOne";
+  }
+
+  public String whoIsDep() {
+    return two.whoAmI();
+  }
+
+  public AutoCycleLeaf getLeaf() {
+    return leaf;
+  }
+}
@@ -16,6 +16,8 @@ package org.treblereel;
 
 import java.lang.annotation.Annotation;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -23,8 +25,11 @@ import javax.enterprise.inject.Default;
 import javax.inject.Named;
 
 import io.crysknife.client.ManagedInstance;
+import io.crysknife.client.SyncBeanDef;
+import io.crysknife.client.internal.IOCResolutionException;
 import org.junit.Test;
 import org.treblereel.injection.managedinstance.ComponentIface;
+import org.treblereel.injection.managedinstance.ComponentOne;
 import org.treblereel.injection.managedinstance.ComponentQualifierOne;
 import org.treblereel.injection.managedinstance.ComponentQualifierTwo;
 import org.treblereel.injection.named.NamedBean;
@@ -33,6 +38,8 @@ import org.treblereel.injection.qualifiers.QualifierBean;
 import org.treblereel.injection.qualifiers.QualifierBeanTwo;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * @author Dmitrii Tikhomirov Created by treblereel 4/25/21
@@ -235,4 +242,33 @@ public class BeanManagerTest extends AbstractTest {
             super.app.beanManager.lookupBeans(NamedBean.class, named1, named2).spliterator(), false)
             .count());
   }
+
+  @Test
+  public void testLookupBeansAfterLookupOfSubType() {
+    assertEquals("ComponentOne",
+        app.beanManager.lookupBean(ComponentOne.class).getInstance().getComponentName());
+    assertEquals(3, app.beanManager.lookupBeans(ComponentIface.class).size());
+    assertEquals(3, app.beanManager.lookupBeans(ComponentIface.class.getCanonicalName()).size());
+  }
+
+  @Test
+  public void testLookupBeanFuture() throws Exception {
+    assertEquals("ComponentOne", app.beanManager.lookupBeanFuture(ComponentOne.class).get()
+        .getInstance().getComponentName());
+
+    CompletableFuture<SyncBeanDef<BeanManagerTest>> missing =
+        app.beanManager.lookupBeanFuture(BeanManagerTest.class);
+    assertTrue(missing.isCompletedExceptionally());
+    try {
+      missing.get();
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof IOCResolutionException);
+    }
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testLookupBeanAsyncIsJ2clOnly() {
+    app.beanManager.lookupBeanAsync(ComponentOne.class);
+  }
 }
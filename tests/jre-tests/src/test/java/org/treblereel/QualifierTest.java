@@ -26,6 +26,7 @@ import org.treblereel.injection.qualifiers.QualifierTwo;
 
 import javax.enterprise.inject.Instance;
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -36,6 +37,7 @@ import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -105,4 +107,19 @@ public class QualifierTest extends AbstractTest {
 
 
   }
+
+  @Test
+  public void testSharedQualifierInstance() throws Exception {
+    List<Object> instances = new ArrayList<>();
+    for (Field field : Class.forName("io.crysknife.client.Qualifiers").getFields()) {
+      if (field.getType().equals(QualifierOne.class)) {
+        instances.add(field.get(null));
+      }
+    }
+    assertEquals(1, instances.size());
+
+    Annotation qualifier = app.beanManager.lookupBean(QualifierBeanOne.class)
+        .getActualQualifiers().stream().filter(q -> q instanceof QualifierOne).findFirst().get();
+    assertSame(instances.get(0), qualifier);
+  }
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.treblereel.events;
+
+import org.junit.Test;
+import org.treblereel.AbstractTest;
+import org.treblereel.events.routing.AnimalObserver;
+import org.treblereel.events.routing.DogEvent;
+import org.treblereel.events.routing.DogEventProducer;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+public class EventRoutingTest extends AbstractTest {
+
+  @Test
+  public void testSupertypeAndQualifiers() {
+    DogEventProducer producer = app.beanManager.lookupBean(DogEventProducer.class).getInstance();
+    AnimalObserver observer = producer.observer;
+    observer.animals.clear();
+    observer.loudDogs.clear();
+
+    producer.dogs.fire(new DogEvent());
+    assertEquals(1, observer.animals.size());
+    assertEquals(0, observer.loudDogs.size());
+
+    producer.loudDogs.fire(new DogEvent());
+    assertEquals(2, observer.animals.size());
+    assertEquals(1, observer.loudDogs.size());
+  }
+
+  @Test
+  public void testFireAsync() throws InterruptedException {
+    DogEventProducer producer = app.beanManager.lookupBean(DogEventProducer.class).getInstance();
+    AnimalObserver observer = producer.observer;
+    observer.animals.clear();
+
+    DogEvent first = new DogEvent();
+    DogEvent second = new DogEvent();
+    CountDownLatch delivered = new CountDownLatch(2);
+    producer.dogs.fireAsync(first).whenComplete((event, error) -> {
+      assertEquals(first, event);
+      delivered.countDown();
+    });
+    producer.dogs.fireAsync(second).whenComplete((event, error) -> delivered.countDown());
+
+    assertTrue(delivered.await(1, TimeUnit.SECONDS));
+    assertEquals(2, observer.animals.size());
+    assertEquals(first, observer.animals.get(0));
+    assertEquals(second, observer.animals.get(1));
+  }
+}
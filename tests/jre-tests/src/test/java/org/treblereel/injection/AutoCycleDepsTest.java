@@ -0,0 +1,52 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.treblereel.injection;
+
+import io.crysknife.client.internal.proxy.CircularDependencyProxy;
+import org.junit.Test;
+import org.treblereel.AbstractTest;
+import org.treblereel.injection.cycle.auto.AutoCycleLeaf;
+import org.treblereel.injection.cycle.auto.AutoCycleOne;
+import org.treblereel.injection.cycle.auto.AutoCycleTwo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+public class AutoCycleDepsTest extends AbstractTest {
+
+  @Test
+  public void testCycleIsBrokenWithOneProxy() {
+    AutoCycleOne one = app.beanManager.lookupBean(AutoCycleOne.class).getInstance();
+    AutoCycleTwo two = app.beanManager.lookupBean(AutoCycleTwo.class).getInstance();
+
+    assertEquals("AutoCycleTwo", one.whoIsDep());
+    assertEquals("AutoCycleOne", two.whoIsDep());
+
+    assertTrue(one instanceof CircularDependencyProxy);
+    assertFalse(two instanceof CircularDependencyProxy);
+  }
+
+  @Test
+  public void testBeanOutOfCycleIsNotProxied() {
+    AutoCycleOne one = app.beanManager.lookupBean(AutoCycleOne.class).getInstance();
+    AutoCycleLeaf leaf = app.beanManager.lookupBean(AutoCycleLeaf.class).getInstance();
+
+    assertFalse(leaf instanceof CircularDependencyProxy);
+    assertEquals("AutoCycleLeaf", one.getLeaf().whoAmI());
+  }
+}
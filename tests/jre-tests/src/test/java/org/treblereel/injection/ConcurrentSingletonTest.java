@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.treblereel.injection;
+
+import org.junit.Test;
+import io.crysknife.client.internal.SingletonWarmUp;
+import org.treblereel.AbstractTest;
+import org.treblereel.injection.singleton.SlowSingleton;
+import org.treblereel.injection.singleton.WarmedUpSingleton;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+public class ConcurrentSingletonTest extends AbstractTest {
+
+  @Test
+  public void testSingletonIsCreatedOnceAcrossThreads() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Callable<SlowSingleton>> lookups = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        lookups.add(() -> app.beanManager.lookupBean(SlowSingleton.class).getInstance());
+      }
+
+      List<Future<SlowSingleton>> results = executor.invokeAll(lookups);
+      SlowSingleton first = results.get(0).get();
+      for (Future<SlowSingleton> result : results) {
+        assertSame(first, result.get());
+        assertEquals("done", result.get().getPostConstruct());
+      }
+      assertEquals(1, SlowSingleton.created.get());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Runs the warm-up, like the bootstrapper does with -Acrysknife.jre.warmUp=true, while other
+   * threads look the same singletons up. With the warmUp profile the bootstrapper has already run
+   * it once.
+   */
+  @Test
+  public void testWarmUpAndLookupsCreateSingletonsOnce() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Callable<WarmedUpSingleton>> lookups = new ArrayList<>();
+      lookups.add(() -> {
+        SingletonWarmUp.run(app.beanManager,
+            new Class[][] {{SlowSingleton.class}, {WarmedUpSingleton.class}});
+        return app.beanManager.lookupBean(WarmedUpSingleton.class).getInstance();
+      });
+      for (int i = 0; i < 7; i++) {
+        lookups.add(() -> app.beanManager.lookupBean(WarmedUpSingleton.class).getInstance());
+      }
+
+      List<Future<WarmedUpSingleton>> results = executor.invokeAll(lookups);
+      WarmedUpSingleton first = results.get(0).get();
+      for (Future<WarmedUpSingleton> result : results) {
+        assertSame(first, result.get());
+      }
+      assertSame(app.beanManager.lookupBean(SlowSingleton.class).getInstance(),
+          first.getSlowSingleton());
+      assertEquals(1, WarmedUpSingleton.created.get());
+      assertEquals(1, SlowSingleton.created.get());
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.treblereel.predestroy;
+
+import org.junit.Test;
+import org.treblereel.AbstractTest;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+public class PreDestroyDependentTest extends AbstractTest {
+
+  @Test
+  public void testDestroyCascadesToDependents() {
+    PreDestroyDependentHolder holder =
+        app.beanManager.lookupBean(PreDestroyDependentHolder.class).getInstance();
+    assertFalse(holder.dependent.destroyed);
+
+    app.beanManager.destroyBean(holder);
+    assertTrue(holder.dependent.destroyed);
+  }
+
+  @Test
+  public void testDestroyDependent() {
+    PreDestroyDependentHolder holder =
+        app.beanManager.lookupBean(PreDestroyDependentHolder.class).getInstance();
+
+    app.beanManager.destroyBean(holder.dependent);
+    assertTrue(holder.dependent.destroyed);
+
+    holder.dependent.destroyed = false;
+    app.beanManager.destroyBean(holder);
+    assertFalse(holder.dependent.destroyed);
+  }
+
+  @Test
+  public void testDestroyCascadesToFieldDependents() {
+    PreDestroyFieldHolder holder =
+        app.beanManager.lookupBean(PreDestroyFieldHolder.class).getInstance();
+    PreDestroyDependent dependent = holder.getDependent();
+    assertSame(dependent, holder.getDependent());
+    assertFalse(dependent.destroyed);
+
+    app.beanManager.destroyBean(holder);
+    assertTrue(dependent.destroyed);
+  }
+}
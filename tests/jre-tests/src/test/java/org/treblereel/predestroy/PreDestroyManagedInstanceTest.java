@@ -0,0 +1,55 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.treblereel.predestroy;
+
+import io.crysknife.client.ManagedInstance;
+import io.crysknife.client.internal.ManagedInstanceImpl;
+import org.junit.Test;
+import org.treblereel.AbstractTest;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+public class PreDestroyManagedInstanceTest extends AbstractTest {
+
+  @Test
+  public void testDestroy() {
+    ManagedInstance<PreDestroyDependent> instance =
+        new ManagedInstanceImpl<>(app.beanManager, PreDestroyDependent.class);
+    PreDestroyDependent first = instance.get();
+    PreDestroyDependent second = instance.get();
+    assertNotSame(first, second);
+
+    instance.destroy(first);
+    assertTrue(first.destroyed);
+    assertFalse(second.destroyed);
+  }
+
+  @Test
+  public void testDestroyAll() {
+    ManagedInstance<PreDestroyDependent> instance =
+        new ManagedInstanceImpl<>(app.beanManager, PreDestroyDependent.class);
+    PreDestroyDependent first = instance.get();
+    PreDestroyDependent second = instance.iterator().next();
+
+    instance.destroyAll();
+    assertTrue(first.destroyed);
+    assertTrue(second.destroyed);
+  }
+}
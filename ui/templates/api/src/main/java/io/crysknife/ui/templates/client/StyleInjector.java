@@ -19,14 +19,49 @@ import elemental2.dom.DomGlobal;
 import elemental2.dom.HTMLStyleElement;
 import jsinterop.base.Js;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public class StyleInjector {
 
+  /**
+   * Stylesheets shared by the instances of the templated beans, by key.
+   */
+  private static final Map<String, SharedStyle> shared = new HashMap<>();
+
   private StyleInjector() {}
 
   public static FromString fromString(String styleBody) {
     return new FromString(styleBody);
   }
 
+  /**
+   * Injects the stylesheet the first time the key is acquired, next acquisitions only count the
+   * users of the injected one.
+   *
+   * @param key identifies the stylesheet, usually its path
+   * @param styleBody the stylesheet text
+   */
+  public static void acquire(String key, String styleBody) {
+    SharedStyle style = shared.get(key);
+    if (style == null) {
+      style = new SharedStyle(fromString(styleBody).inject());
+      shared.put(key, style);
+    }
+    style.count++;
+  }
+
+  /**
+   * Removes the stylesheet from the document once its last user releases it.
+   */
+  public static void release(String key) {
+    SharedStyle style = shared.get(key);
+    if (style != null && --style.count == 0) {
+      shared.remove(key);
+      style.element.remove();
+    }
+  }
+
   private static HTMLStyleElement createElement(String contents) {
     HTMLStyleElement style = (HTMLStyleElement) DomGlobal.document.createElement("style");
     style.setAttribute("language", "text/css");
@@ -55,4 +90,14 @@ public class StyleInjector {
       return Js.cast(style);
     }
   }
+
+  private static class SharedStyle {
+
+    private final HTMLStyleElement element;
+    private int count;
+
+    private SharedStyle(HTMLStyleElement element) {
+      this.element = element;
+    }
+  }
 }
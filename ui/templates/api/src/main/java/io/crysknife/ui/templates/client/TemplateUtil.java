@@ -18,14 +18,21 @@ import elemental2.core.JsArray;
 import elemental2.dom.Attr;
 import elemental2.dom.DomGlobal;
 import elemental2.dom.Element;
+import elemental2.dom.Event;
 import elemental2.dom.EventListener;
 import elemental2.dom.HTMLElement;
+import elemental2.dom.HTMLTemplateElement;
 import elemental2.dom.NamedNodeMap;
 import elemental2.dom.Node;
 import elemental2.dom.NodeFilter;
 import elemental2.dom.TreeWalker;
 import io.crysknife.client.IsElement;
 import jsinterop.base.Js;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 // import org.gwtproject.safehtml.shared.SafeHtml;
 // import org.gwtproject.safehtml.shared.SafeHtmlUtils;
 
@@ -48,23 +55,91 @@ public final class TemplateUtil {
     return result;
   };
 
+  private static final String DELEGATE = "__crysknife_delegate";
+
+  /**
+   * Event types that already have their delegating listener on the document.
+   */
+  private static final Set<String> delegatedTypes = new HashSet<>();
+
   private TemplateUtil() {}
 
   public static <E extends HTMLElement> E resolveElementAs(HTMLElement context, String identifier) {
-    Element element = DATA_ELEMENT.select(context, identifier);
+    return resolveElementAs(context, identifier, null);
+  }
+
+  /**
+   * @param path indexes of the element children from the context down to the element, computed
+   *        from the template at compile time, see {@link #select(HTMLElement, String, int[])}
+   */
+  public static <E extends HTMLElement> E resolveElementAs(HTMLElement context, String identifier,
+      int[] path) {
+    Element element = select(context, identifier, path);
     E htmlElement = Js.cast(element);
     return htmlElement;
   }
 
+  /**
+   * Walks the path from the context and checks the element found there is still the one the
+   * identifier refers to, otherwise, if the template has been modified, the element is queried by
+   * the selectors.
+   */
+  private static Element select(HTMLElement context, String identifier, int[] path) {
+    if (path != null) {
+      Element element = context;
+      for (int i = 0; i < path.length && element != null; i++) {
+        element = element.firstElementChild;
+        for (int j = 0; j < path[i] && element != null; j++) {
+          element = element.nextElementSibling;
+        }
+      }
+      if (element != null && isIdentifiedBy(element, identifier)) {
+        return element;
+      }
+    }
+    return DATA_ELEMENT.select(context, identifier);
+  }
+
+  private static boolean isIdentifiedBy(Element element, String identifier) {
+    return identifier.equals(element.getAttribute("data-field")) || identifier.equals(element.id)
+        || element.classList.contains(identifier);
+  }
+
+  // ------------------------------------------------------ template prototype
+
+  /**
+   * Creates the prototype of a template, its HTML is parsed once and every instance gets a copy of
+   * the parsed nodes, see {@link #cloneTemplate(HTMLElement, HTMLTemplateElement)}.
+   */
+  public static HTMLTemplateElement createTemplate(String html) {
+    HTMLTemplateElement template =
+        (HTMLTemplateElement) DomGlobal.document.createElement("template");
+    template.innerHTML = html;
+    return template;
+  }
+
+  /**
+   * Replaces the content of the element with a deep copy of the content of the prototype.
+   */
+  public static void cloneTemplate(HTMLElement element, HTMLTemplateElement template) {
+    element.textContent = "";
+    element.appendChild(DomGlobal.document.importNode(template.content, true));
+  }
+
   // ------------------------------------------------------ IsElement / (Is)Widget methods
 
   public static void replaceElement(HTMLElement context, String identifier,
       HTMLElement newElement) {
+    replaceElement(context, identifier, newElement, null);
+  }
+
+  public static void replaceElement(HTMLElement context, String identifier, HTMLElement newElement,
+      int[] path) {
     if (newElement == null) {
       throw new NullPointerException(
           "New element must not be null in TemplateUtils.replaceElement()");
     }
-    HTMLElement oldElement = resolveElement(context, identifier);
+    HTMLElement oldElement = resolveElement(context, identifier, path);
     if (oldElement != null && oldElement.parentNode != null) {
       oldElement.parentNode.replaceChild(newElement, oldElement);
       if (oldElement.hasAttributes()) {
@@ -90,7 +165,11 @@ public final class TemplateUtil {
 
   // ------------------------------------------------------ HTMLElement methods
   public static <E> E resolveElement(HTMLElement context, String identifier) {
-    Element element = DATA_ELEMENT.select(context, identifier);
+    return resolveElement(context, identifier, null);
+  }
+
+  public static <E> E resolveElement(HTMLElement context, String identifier, int[] path) {
+    Element element = select(context, identifier, path);
     return Js.cast(element);
   }
 
@@ -297,4 +376,70 @@ public final class TemplateUtil {
 
   }
 
+  // ------------------------------------------------------ delegated events
+
+  /**
+   * Registers the event handlers of a templated instance without a listener per element and
+   * handler. The delegate of the instance is kept by its root, and one listener per event type is
+   * added to the document, it walks from the event target up to the document and hands the event
+   * to every delegate on the way, innermost first, until the propagation is stopped.
+   *
+   * @param root root element of the templated instance
+   * @param types bubbling event types the instance handles
+   * @param targets elements of the handlers, the listener gets the index of the element
+   * @param listener dispatches the event to the handlers of the element
+   */
+  public static void delegate(HTMLElement root, String[] types, Object[] targets,
+      DelegatedListener listener) {
+    Js.asPropertyMap(root).set(DELEGATE, new Delegate(targets, listener));
+    for (String type : types) {
+      if (delegatedTypes.add(type)) {
+        DomGlobal.document.addEventListener(type, TemplateUtil::dispatch);
+      }
+    }
+  }
+
+  private static void dispatch(Event event) {
+    List<Node> path = new ArrayList<>();
+    for (Node node = Js.uncheckedCast(event.target); node != null; node = node.parentNode) {
+      path.add(node);
+      Object delegate = Js.asPropertyMap(node).get(DELEGATE);
+      if (delegate instanceof Delegate && !((Delegate) delegate).dispatch(event, path)) {
+        return;
+      }
+    }
+  }
+
+  public interface DelegatedListener {
+
+    void onEvent(Event event, int target);
+  }
+
+  private static class Delegate {
+
+    private final Object[] targets;
+    private final DelegatedListener listener;
+
+    private Delegate(Object[] targets, DelegatedListener listener) {
+      this.targets = targets;
+      this.listener = listener;
+    }
+
+    /**
+     * @return false if a handler stopped the propagation
+     */
+    private boolean dispatch(Event event, List<Node> path) {
+      for (Node node : path) {
+        for (int i = 0; i < targets.length; i++) {
+          if (targets[i] == node) {
+            listener.onEvent(event, i);
+            if (event.cancelBubble) {
+              return false;
+            }
+          }
+        }
+      }
+      return true;
+    }
+  }
 }
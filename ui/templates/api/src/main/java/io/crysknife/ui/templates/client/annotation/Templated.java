@@ -30,4 +30,13 @@ public @interface Templated {
 
   String stylesheet() default "";
 
+  /**
+   * Handles the bubbling events of the {@link EventHandler} methods through one listener per event
+   * type on the document instead of a listener per handler and element of every instance, the
+   * events are dispatched to the handlers by the identity of their elements. Events that don't
+   * bubble are still bound to their elements, so are the touch and wheel events, as their listeners
+   * on the document are passive.
+   */
+  boolean delegateEvents() default false;
+
 }
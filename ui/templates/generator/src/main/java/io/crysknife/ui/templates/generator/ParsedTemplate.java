@@ -0,0 +1,166 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.ui.templates.generator;
+
+import org.jsoup.nodes.Comment;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Template file parsed once per compilation and shared by all the beans that use it. With
+ * -Acrysknife.templates.minify=true the document is minified right after parsing, only what
+ * can't change the rendering is dropped: comments and whitespace the browser collapses or
+ * ignores anyway. The tables the generators need, the elements by data-field, id and class and
+ * the presence of i18n keys, are computed in a single pass over the root the template is selected
+ * by.
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+public class ParsedTemplate {
+
+  private static final String DATA_I18N_KEY = "data-i18n-key";
+
+  /**
+   * Elements whose whitespace is significant.
+   */
+  private static final Set<String> PRESERVE_WHITESPACE =
+      new HashSet<>(Arrays.asList("pre", "textarea", "script", "style"));
+
+  /**
+   * Inline styles that make the whitespace of an element significant, a stylesheet can do the same,
+   * that's why the minification is opt-in.
+   */
+  private static final Pattern PRESERVE_WHITESPACE_STYLE =
+      Pattern.compile("white-space\\s*:\\s*(pre|break-spaces)", Pattern.CASE_INSENSITIVE);
+
+  /**
+   * Elements whose whitespace-only text children are never rendered, whatever their display.
+   */
+  private static final Set<String> IGNORE_WHITESPACE = new HashSet<>(
+      Arrays.asList("html", "head", "table", "thead", "tbody", "tfoot", "tr"));
+
+  private final Element root;
+
+  private final Map<String, Element> byDataField = new HashMap<>();
+
+  private final Map<String, Element> byId = new HashMap<>();
+
+  private final Map<String, Element> byClass = new HashMap<>();
+
+  private boolean hasI18nKeys;
+
+  ParsedTemplate(Element root) {
+    this.root = root;
+    index(root, false);
+  }
+
+  /**
+   * Minifies the whole document, the templates selected from it share the result.
+   */
+  static Document minify(Document document) {
+    document.outputSettings().prettyPrint(false);
+    minifyChildren(document);
+    return document;
+  }
+
+  private static void minifyChildren(Element element) {
+    for (Node node : new ArrayList<>(element.childNodes())) {
+      if (node instanceof Comment) {
+        if (!separatesWords(node)) {
+          node.remove();
+        }
+      } else if (node instanceof TextNode) {
+        TextNode text = (TextNode) node;
+        if (text.isBlank() && IGNORE_WHITESPACE.contains(element.tagName())) {
+          text.remove();
+        } else {
+          // a run renders as a single space, dropping it could change the layout
+          text.text(text.getWholeText().replaceAll("\\s+", " "));
+        }
+      } else if (node instanceof Element && !preservesWhitespace((Element) node)) {
+        minifyChildren((Element) node);
+      }
+    }
+  }
+
+  /**
+   * The browser merges the text nodes around a removed comment, a&lt;!-- --&gt;b would become ab,
+   * the i18n keys, that join the text nodes of an element with a space, would change from a_b.
+   */
+  private static boolean separatesWords(Node comment) {
+    return comment.previousSibling() instanceof TextNode
+        && comment.nextSibling() instanceof TextNode
+        && !((TextNode) comment.previousSibling()).getWholeText().matches("(?s).*\\s")
+        && !((TextNode) comment.nextSibling()).getWholeText().matches("(?s)\\s.*");
+  }
+
+  private static boolean preservesWhitespace(Element element) {
+    return PRESERVE_WHITESPACE.contains(element.tagName())
+        || PRESERVE_WHITESPACE_STYLE.matcher(element.attr("style")).find();
+  }
+
+  private void index(Element element, boolean self) {
+    if (self) {
+      byDataField.putIfAbsent(element.attr("data-field"), element);
+      byId.putIfAbsent(element.id(), element);
+      element.classNames().forEach(name -> byClass.putIfAbsent(name, element));
+      hasI18nKeys |= !element.attr(DATA_I18N_KEY).isEmpty();
+    }
+    element.children().forEach(child -> index(child, true));
+  }
+
+  public Element getRoot() {
+    return root;
+  }
+
+  public boolean hasI18nKeys() {
+    return hasI18nKeys;
+  }
+
+  /**
+   * @return indexes of the element children from the root to the element the identifier refers
+   *         to, found the way TemplateUtil does at runtime: by data-field, then by id, then by
+   *         class, or null if there is no such element
+   */
+  public int[] getPath(String identifier) {
+    Element element = byDataField.get(identifier);
+    if (element == null) {
+      element = byId.get(identifier);
+    }
+    if (element == null) {
+      element = byClass.get(identifier);
+    }
+    if (element == null || identifier.isEmpty()) {
+      return null;
+    }
+
+    LinkedList<Integer> path = new LinkedList<>();
+    for (Element elm = element; elm != root; elm = elm.parent()) {
+      path.addFirst(elm.elementSiblingIndex());
+    }
+    return path.stream().mapToInt(Integer::intValue).toArray();
+  }
+}
@@ -71,6 +71,7 @@ public class TemplateWidgetGenerator {
       try (PrintWriter out = new PrintWriter(builderFile.openWriter())) {
         out.append(clazz);
       }
+      iocContext.getProfiler().fileWritten(clazz.toString());
     } catch (FilerException f) {
       // just ignore it
     } catch (IOException e) {
@@ -14,6 +14,7 @@
 
 package io.crysknife.ui.templates.generator;
 
+import com.github.javaparser.ast.NodeList;
 import com.github.javaparser.ast.body.*;
 import com.github.javaparser.ast.expr.*;
 import com.github.javaparser.ast.stmt.*;
@@ -154,11 +155,15 @@ public class TemplatedGenerator extends IOCGenerator<BeanDefinition> {
   private ProcessingEnvironment processingEnvironment;
   private Messager messager;
   private BeanDefinition beanDefinition;
+  private ParsedTemplate template;
+  private final Map<String, Document> documents = new HashMap<>();
+  private final Map<String, ParsedTemplate> templates = new HashMap<>();
   private TemplatedGeneratorUtils templatedGeneratorUtils;
   private EventHandlerTemplatedProcessor eventHandlerTemplatedProcessor;
   private TranslationServiceGenerator translationServiceGenerator;
   private DataFieldProcessor dataFieldProcessor;
   private EventHandlerGenerator eventHandlerGenerator;
+  private final Map<String, String> stylesheets = new HashMap<>();
 
   public TemplatedGenerator(TreeLogger logger, IOCContext iocContext) {
     super(logger, iocContext);
@@ -263,7 +268,8 @@ public class TemplatedGenerator extends IOCGenerator<BeanDefinition> {
             + templateSelector.template;
     context.setTemplateFileName(fqTemplate);
 
-    org.jsoup.nodes.Element root = parseTemplate(type, templateSelector);
+    template = parseTemplate(type, templateSelector);
+    org.jsoup.nodes.Element root = template.getRoot();
     context.setRoot(createRootElementInfo(root, subclass));
 
 
@@ -282,7 +288,7 @@ public class TemplatedGenerator extends IOCGenerator<BeanDefinition> {
     code(builder, context);
 
     // maybe add translation
-    translationServiceGenerator.process(builder, context);
+    translationServiceGenerator.process(builder, context, template);
 
     info("Generated templated implementation [%s] for [%s]", context.getSubclass(),
         context.getBase());
@@ -383,7 +389,7 @@ public class TemplatedGenerator extends IOCGenerator<BeanDefinition> {
     addGetElementMethod(builder, templateContext);
     maybeAddSyntheticGetElementMethod(builder, method.getBody().get(), templateContext);
     setAttributes(method.getBody().get(), templateContext);
-    setInnerHTML(method.getBody().get(), templateContext);
+    setInnerHTML(builder, method.getBody().get(), templateContext);
   }
 
   private MethodCallExpr getDataFieldFieldAccessCallExpr(TemplateContext templateContext) {
@@ -448,21 +454,32 @@ public class TemplatedGenerator extends IOCGenerator<BeanDefinition> {
             .setName("fake_root");
         block.addAndGetStatement(new ExpressionStmt(new VariableDeclarationExpr(root)));
 
-        LambdaExpr lambda = new LambdaExpr();
-        lambda.setEnclosingParameters(true);
-        lambda.getParameters().add(new Parameter().setType(Object.class).setName("o"));
-        lambda.getParameters().add(new Parameter().setType(String.class).setName("property"));
-        lambda.setBody(new ExpressionStmt(
+        CastExpr getElement =
             new CastExpr().setType(new ClassOrInterfaceType().setName("FakeIsElement"))
                 .setExpression(new LambdaExpr().setEnclosingParameters(true)
-                    .setBody(new ExpressionStmt(new NameExpr("fake_root"))))));
-
-        block.addAndGetStatement(
-            new MethodCallExpr(new NameExpr("interceptor"), "addGetMethodInterceptor").addArgument(
-                new MethodCallExpr(new NameExpr(Reflect.class.getCanonicalName()), "objectProperty")
-                    .addArgument(new StringLiteralExpr("m_getElement__"))
-                    .addArgument(new NameExpr("instance")))
-                .addArgument(lambda));
+                    .setBody(new ExpressionStmt(new NameExpr("fake_root"))));
+        MethodCallExpr property =
+            new MethodCallExpr(new NameExpr(Reflect.class.getCanonicalName()), "objectProperty")
+                .addArgument(new StringLiteralExpr("m_getElement__"))
+                .addArgument(new NameExpr("instance"));
+
+        if (generationUtils.isIntercepted(builder.beanDefinition)) {
+          LambdaExpr lambda = new LambdaExpr();
+          lambda.setEnclosingParameters(true);
+          lambda.getParameters().add(new Parameter().setType(Object.class).setName("o"));
+          lambda.getParameters().add(new Parameter().setType(String.class).setName("property"));
+          lambda.setBody(new ExpressionStmt(getElement));
+
+          block.addAndGetStatement(
+              new MethodCallExpr(new NameExpr("interceptor"), "addGetMethodInterceptor")
+                  .addArgument(property).addArgument(lambda));
+        } else {
+          // not proxied, so the method is shadowed by a property of the instance
+          block.addAndGetStatement(new MethodCallExpr(
+              new MethodCallExpr(new NameExpr(Js.class.getCanonicalName()), "asPropertyMap")
+                  .addArgument(new NameExpr("instance")),
+              "set").addArgument(property).addArgument(getElement));
+        }
 
         ClassOrInterfaceDeclaration wrapper = new ClassOrInterfaceDeclaration();
         wrapper.setName("FakeIsElement");
@@ -479,60 +496,48 @@ public class TemplatedGenerator extends IOCGenerator<BeanDefinition> {
     }
   }
 
+  /**
+   * The stylesheet is injected once, by the first instance, and shared by the instances of all
+   * the beans that use the same file, each instance releases it when destroyed.
+   */
   private void setStylesheet(ClassBuilder builder, TemplateContext templateContext) {
     if (templateContext.getStylesheet() != null) {
       builder.getClassCompilationUnit().addImport(StyleInjector.class);
 
-      if (!templateContext.getStylesheet().isLess()) {
-        /*
-         * builder.getClassCompilationUnit().addImport(CssResource.class);
-         * builder.getClassCompilationUnit().addImport(CssResource.NotStrict.class);
-         * builder.getClassCompilationUnit().addImport(Resource.class);
-         * builder.getClassCompilationUnit().addImport(ClientBundle.Source.class);
-         *
-         * ClassOrInterfaceDeclaration inner = new ClassOrInterfaceDeclaration();
-         * inner.setName("Stylesheet"); inner.setInterface(true); inner.addAnnotation("Resource");
-         *
-         * new JavaParser().parseBodyDeclaration("@Source(\"" +
-         * templateContext.getStylesheet().getStyle() +
-         * "\") @NotStrict CssResource getStyle();").ifSuccessful(inner::addMember);
-         * builder.getClassDeclaration().addMember(inner);
-         *
-         * String theName = Utils.getFactoryClassName(beanDefinition.getType()) + "_StylesheetImpl";
-         */
-
-        String css;
-        try {
-          css =
-              IOUtils.toString(templateContext.getStylesheet().getFile(), Charset.defaultCharset());
-        } catch (IOException e) {
-          throw new GenerationException(
-              "Unable to process Css/Gss :" + templateContext.getStylesheet(), e);
-        }
+      String key = templateContext.getPackage().replace('.', '/') + "/"
+          + templateContext.getStylesheet().getStyle();
+      Expression styleInjector =
+          new ClassOrInterfaceType().setName("StyleInjector").getNameAsExpression();
+
+      // TODO Temporary workaround, till gwt-dom StyleInjector ll be fixed
+      builder.getInitInstanceMethod().getBody().get()
+          .addStatement(new MethodCallExpr(styleInjector, "acquire")
+              .addArgument(new StringLiteralExpr(key)).addArgument(new StringLiteralExpr(
+                  escape(getCss(templateContext.getStylesheet())))));
+      builder.getOnDestroyMethod().getBody().get().addStatement(
+          new MethodCallExpr(styleInjector, "release").addArgument(new StringLiteralExpr(key)));
+    }
+  }
 
-        // TODO Temporary workaround, till gwt-dom StyleInjector ll be fixed
-        builder.getInitInstanceMethod().getBody().get()
-            .addStatement(new MethodCallExpr(new MethodCallExpr(
-                new ClassOrInterfaceType().setName("StyleInjector").getNameAsExpression(),
-                "fromString").addArgument(new StringLiteralExpr(escape(css))), "inject"));
-      } else {
-        try {
-          String less =
-              IOUtils.toString(templateContext.getStylesheet().getFile(), Charset.defaultCharset());
-          Less.compile(null, less, false);
-          final String compiledCss = Less.compile(null, less, false);
-          builder.getInitInstanceMethod().getBody().get()
-              .addStatement(new MethodCallExpr(
-                  new MethodCallExpr(
-                      new ClassOrInterfaceType().setName("StyleInjector").getNameAsExpression(),
-                      "fromString").addArgument(new StringLiteralExpr(escape(compiledCss))),
-                  "inject"));
-        } catch (IOException e) {
-          throw new GenerationException(
-              "Unable to process Less " + templateContext.getStylesheet());
+  /**
+   * @return content of the Css/Gss stylesheet or the compiled Less, read and compiled once per
+   *         file
+   */
+  private String getCss(StyleSheet stylesheet) {
+    String file = stylesheet.getFile().toString();
+    String css = stylesheets.get(file);
+    if (css == null) {
+      try {
+        css = IOUtils.toString(stylesheet.getFile(), Charset.defaultCharset());
+        if (stylesheet.isLess()) {
+          css = Less.compile(null, css, false);
         }
+      } catch (IOException e) {
+        throw new GenerationException("Unable to process " + stylesheet, e);
       }
+      stylesheets.put(file, css);
     }
+    return css;
   }
 
   private void addInitTemplateCallMethod(ClassBuilder builder) {
@@ -567,11 +572,13 @@ public class TemplatedGenerator extends IOCGenerator<BeanDefinition> {
             "resolveElementAs")
                 .setTypeArguments(new ClassOrInterfaceType().setName(element.getType().toString()))
                 .addArgument(instance).addArgument(new StringLiteralExpr(element.getSelector()));
+        maybeAddPath(resolveElement, element.getSelector());
       } else {
         resolveElement = new MethodCallExpr(
             new ClassOrInterfaceType().setName("TemplateUtil").getNameAsExpression(),
             "resolveElement").addArgument(instance)
                 .addArgument(new StringLiteralExpr(element.getName()));
+        maybeAddPath(resolveElement, element.getName());
       }
 
       MethodCallExpr fieldSetCallExpr = null;
@@ -588,15 +595,34 @@ public class TemplatedGenerator extends IOCGenerator<BeanDefinition> {
 
       ifStmt.setThenStmt(
           new BlockStmt().addAndGetStatement(fieldSetCallExpr.addArgument(resolveElement)));
-      ifStmt.setElseStmt(new BlockStmt().addAndGetStatement(new MethodCallExpr(
+      MethodCallExpr replaceElement = new MethodCallExpr(
           new ClassOrInterfaceType().setName("TemplateUtil").getNameAsExpression(),
           "replaceElement").addArgument(instance)
               .addArgument(new StringLiteralExpr(element.getSelector()))
-              .addArgument(getInstanceByElementKind(element, fieldAccessCallExpr))));
+              .addArgument(getInstanceByElementKind(element, fieldAccessCallExpr));
+      maybeAddPath(replaceElement, element.getSelector());
+      ifStmt.setElseStmt(new BlockStmt().addAndGetStatement(replaceElement));
       builder.getInitInstanceMethod().getBody().get().addAndGetStatement(ifStmt);
     }
   }
 
+  /**
+   * Adds the path of element child indexes from the root to the element the identifier refers to
+   * in the template, found the way TemplateUtil does at runtime: by data-field, then by id, then
+   * by class. The element is resolved by walking the path, the selectors are only the fallback.
+   */
+  private void maybeAddPath(MethodCallExpr call, String identifier) {
+    int[] path = template.getPath(identifier);
+    if (path != null) {
+      NodeList<Expression> indexes = new NodeList<>();
+      for (int index : path) {
+        indexes.add(new IntegerLiteralExpr(String.valueOf(index)));
+      }
+      call.addArgument(new ArrayCreationExpr().setElementType("int[]")
+          .setInitializer(new ArrayInitializerExpr(indexes)));
+    }
+  }
+
   public MethodCallExpr getFieldAccessCallExpr(String fieldName) {
     VariableElement field = getVariableElement(fieldName);
     return getFieldAccessCallExpr(field);
@@ -671,13 +697,27 @@ public class TemplatedGenerator extends IOCGenerator<BeanDefinition> {
     builder.getClassCompilationUnit().addImport(Reflect.class);
   }
 
-  private void setInnerHTML(BlockStmt block, TemplateContext templateContext) {
+  /**
+   * The template is parsed once, into a prototype built by the first instance, the next instances
+   * get a copy of its nodes instead of parsing the HTML again.
+   */
+  private void setInnerHTML(ClassBuilder builder, BlockStmt block,
+      TemplateContext templateContext) {
     if (templateContext.getRoot().getInnerHtml() != null
         && !templateContext.getRoot().getInnerHtml().isEmpty()) {
-      block.addAndGetStatement(new AssignExpr()
-          .setTarget(new FieldAccessExpr(new MethodCallExpr(new NameExpr("this"), "getElement"),
-              "innerHTML"))
-          .setValue(new StringLiteralExpr(templateContext.getRoot().getInnerHtml())));
+      builder.addField(HTMLTemplateElement.class.getCanonicalName(), "_template",
+          com.github.javaparser.ast.Modifier.Keyword.PRIVATE,
+          com.github.javaparser.ast.Modifier.Keyword.STATIC);
+
+      NameExpr template = new NameExpr("_template");
+      block.addAndGetStatement(new IfStmt().setCondition(
+          new BinaryExpr(template, new NullLiteralExpr(), BinaryExpr.Operator.EQUALS))
+          .setThenStmt(new BlockStmt().addStatement(new AssignExpr().setTarget(template)
+              .setValue(new MethodCallExpr(new NameExpr("TemplateUtil"), "createTemplate")
+                  .addArgument(new StringLiteralExpr(templateContext.getRoot().getInnerHtml()))))));
+      block.addAndGetStatement(new MethodCallExpr(new NameExpr("TemplateUtil"), "cloneTemplate")
+          .addArgument(new MethodCallExpr(new NameExpr("this"), "getElement"))
+          .addArgument(template));
     }
   }
 
@@ -857,8 +897,11 @@ public class TemplatedGenerator extends IOCGenerator<BeanDefinition> {
     return typeParam;
   }
 
-  private org.jsoup.nodes.Element parseTemplate(TypeElement type,
-      TemplateSelector templateSelector) {
+  /**
+   * Each template file is parsed, and minified if enabled, once, and each of its roots is indexed
+   * once, they are shared by all the beans that use them.
+   */
+  private ParsedTemplate parseTemplate(TypeElement type, TemplateSelector templateSelector) {
     org.jsoup.nodes.Element root = null;
     String fqTemplate =
         org.jboss.gwt.elemento.processor.TypeSimplifier.packageNameOf(type).replace('.', '/') + "/"
@@ -871,8 +914,18 @@ public class TemplatedGenerator extends IOCGenerator<BeanDefinition> {
         abortWithError(type, "Cannot find template \"%s\". Please make sure the template exists.",
             fqTemplate);
       }
-      String html = IOUtils.toString(url, Charset.defaultCharset());
-      Document document = Jsoup.parse(html);
+      String key = url + (templateSelector.hasSelector() ? "#" + templateSelector.selector : "");
+      if (templates.containsKey(key)) {
+        return templates.get(key);
+      }
+      Document document = documents.get(url.toString());
+      if (document == null) {
+        document = Jsoup.parse(IOUtils.toString(url, Charset.defaultCharset()));
+        if (iocContext.getGenerationContext().isMinifyTemplates()) {
+          document = ParsedTemplate.minify(document);
+        }
+        documents.put(url.toString(), document);
+      }
       if (templateSelector.hasSelector()) {
         org.jsoup.nodes.Element rootElement = getRoot(document, templateSelector.selector);
         if (rootElement == null) {
@@ -889,10 +942,12 @@ public class TemplatedGenerator extends IOCGenerator<BeanDefinition> {
           root = document.body().children().first();
         }
       }
+      templates.put(key, new ParsedTemplate(root));
+      return templates.get(key);
     } catch (IOException e) {
       abortWithError(type, "Unable to read template \"%s\": %s", fqTemplate, e.getMessage());
     }
-    return root;
+    return null;
   }
 
   private org.jsoup.nodes.Element getRoot(Document document, String selector) {
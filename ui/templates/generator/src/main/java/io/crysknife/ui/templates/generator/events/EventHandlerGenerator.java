@@ -14,10 +14,17 @@
 
 package io.crysknife.ui.templates.generator.events;
 
+import com.github.javaparser.ast.NodeList;
 import com.github.javaparser.ast.body.Parameter;
 import com.github.javaparser.ast.expr.*;
+import com.github.javaparser.ast.stmt.BlockStmt;
+import com.github.javaparser.ast.stmt.BreakStmt;
 import com.github.javaparser.ast.stmt.ExpressionStmt;
+import com.github.javaparser.ast.stmt.IfStmt;
 import com.github.javaparser.ast.stmt.Statement;
+import com.github.javaparser.ast.stmt.SwitchEntry;
+import com.github.javaparser.ast.stmt.SwitchStmt;
+import com.github.javaparser.ast.type.UnknownType;
 import com.google.auto.common.MoreElements;
 import com.google.auto.common.MoreTypes;
 import elemental2.dom.Event;
@@ -26,6 +33,7 @@ import io.crysknife.generator.context.IOCContext;
 import io.crysknife.ui.templates.client.TemplateUtil;
 import io.crysknife.ui.templates.client.annotation.EventHandler;
 import io.crysknife.ui.templates.client.annotation.SinkNative;
+import io.crysknife.ui.templates.client.annotation.Templated;
 import io.crysknife.ui.templates.generator.TemplatedGenerator;
 import io.crysknife.ui.templates.generator.TemplatedGeneratorUtils;
 import io.crysknife.util.GenerationUtils;
@@ -38,10 +46,44 @@ import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.TypeMirror;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 public class EventHandlerGenerator {
 
+  /**
+   * Events that bubble up to the document, only these can be delegated.
+   */
+  private static final Set<String> BUBBLING_EVENTS = new HashSet<>(Arrays.asList("click",
+      "dblclick", "mousedown", "mouseup", "mouseover", "mouseout", "mousemove", "mousewheel",
+      "wheel", "contextmenu", "keydown", "keypress", "keyup", "input", "change", "submit", "paste",
+      "copy", "cut", "touchstart", "touchmove", "touchend", "touchcancel", "pointerdown",
+      "pointerup", "pointermove", "pointerover", "pointerout", "focusin", "focusout", "dragstart",
+      "drag", "dragend", "dragenter", "dragleave", "dragover", "drop"));
+
+  /**
+   * Browsers make the listeners of these events on the document passive, so a delegated handler
+   * couldn't call preventDefault, they stay bound to their elements.
+   */
+  private static final Set<String> PASSIVE_ON_DOCUMENT =
+      new HashSet<>(Arrays.asList("touchstart", "touchmove", "wheel", "mousewheel"));
+
+  /**
+   * Event types of the {@link SinkNative} bits, the same as TemplateUtil.onSinkEvents.
+   */
+  private static final String[] SINK_EVENTS = {"click", "dblclick", "mousedown", "mouseup",
+      "mouseover", "mouseout", "mousemove", "keydown", "keypress", "keyup", "change", "focus",
+      "blur", "losecapture", "scroll", "load", "error", "mousewheel", "contextmenu", "paste",
+      "touchstart", "touchmove", "touchend", "touchcancel", "gesturestart", "gesturechange",
+      "gestureend"};
+
   private final IOCContext iocContext;
   private final TemplatedGenerator templatedGenerator;
   private final TypeElement gwt3Event;
@@ -76,10 +118,143 @@ public class EventHandlerGenerator {
   }
 
   public void generate(ClassBuilder builder, TemplateContext templateContext) {
+    if (MoreTypes.asTypeElement(templateContext.getDataElementType())
+        .getAnnotation(Templated.class).delegateEvents()) {
+      new DelegatedEvents(builder, templateContext).generate();
+      return;
+    }
     templateContext.getEvents().forEach(event -> getGenerator(event)
         .ifPresent(generator -> generator.generate(builder, templateContext, event)));
   }
 
+  /**
+   * Binds the handlers of bubbling events through TemplateUtil.delegate: the elements of the
+   * handlers are numbered and a single listener per instance dispatches the events by a switch
+   * over the element, GWT handlers and the events that don't bubble are bound as usual.
+   */
+  private class DelegatedEvents {
+
+    private final ClassBuilder builder;
+    private final TemplateContext templateContext;
+    private final TemplatedGeneratorUtils templatedGeneratorUtils;
+    private final Map<String, Expression> targets = new LinkedHashMap<>();
+    private final Map<String, List<Statement>> handlers = new LinkedHashMap<>();
+    private final Set<String> types = new LinkedHashSet<>();
+
+    private DelegatedEvents(ClassBuilder builder, TemplateContext templateContext) {
+      this.builder = builder;
+      this.templateContext = templateContext;
+      this.templatedGeneratorUtils = new TemplatedGeneratorUtils(iocContext);
+    }
+
+    private void generate() {
+      for (EventHandlerInfo event : templateContext.getEvents()) {
+        Generator generator = getGenerator(event).get();
+        if (generator == elemental2Generator) {
+          List<String> delegated = new ArrayList<>();
+          List<String> bound = new ArrayList<>();
+          for (String type : event.getEvents()) {
+            if (isDelegated(type)) {
+              delegated.add(type);
+            } else {
+              bound.add(type);
+            }
+          }
+          if (!delegated.isEmpty()) {
+            addHandler(getTarget(event), delegated, generationUtils.generateMethodCall(
+                builder.beanDefinition.getType(), event.getMethod(), new NameExpr("e")));
+          }
+          if (!bound.isEmpty()) {
+            elemental2Generator.generate(builder, templateContext, event,
+                bound.toArray(new String[0]));
+          }
+        } else if (generator == sinkNativeGenerator) {
+          int mask = event.getMethod().getAnnotation(SinkNative.class).value();
+          List<String> delegated = new ArrayList<>();
+          for (int bit = 0; bit < SINK_EVENTS.length; bit++) {
+            if ((mask & (1 << bit)) != 0 && isDelegated(SINK_EVENTS[bit])) {
+              delegated.add(SINK_EVENTS[bit]);
+              mask &= ~(1 << bit);
+            }
+          }
+          if (!delegated.isEmpty()) {
+            addHandler(templatedGenerator.getFieldAccessCallExpr(event.getInfo().getName()),
+                delegated, generationUtils.generateMethodCall(builder.beanDefinition.getType(),
+                    event.getMethod(), new NameExpr("e")));
+          }
+          if (mask != 0) {
+            sinkNativeGenerator.generate(builder, event, mask);
+          }
+        } else {
+          generator.generate(builder, templateContext, event);
+        }
+      }
+
+      if (handlers.isEmpty()) {
+        return;
+      }
+
+      NodeList<SwitchEntry> entries = new NodeList<>();
+      int index = 0;
+      for (List<Statement> statements : handlers.values()) {
+        NodeList<Statement> body = new NodeList<>(statements);
+        body.add(new BreakStmt().removeLabel());
+        entries.add(new SwitchEntry(
+            new NodeList<>(new IntegerLiteralExpr(String.valueOf(index++))),
+            SwitchEntry.Type.STATEMENT_GROUP, body));
+      }
+
+      LambdaExpr listener = new LambdaExpr();
+      listener.setEnclosingParameters(true);
+      listener.getParameters().add(new Parameter(new UnknownType(), "e"));
+      listener.getParameters().add(new Parameter(new UnknownType(), "target"));
+      listener.setBody(
+          new BlockStmt().addStatement(new SwitchStmt(new NameExpr("target"), entries)));
+
+      NodeList<Expression> typeValues = new NodeList<>();
+      types.forEach(type -> typeValues.add(new StringLiteralExpr(type)));
+
+      builder.getInitInstanceMethod().getBody().get()
+          .addAndGetStatement(new MethodCallExpr(
+              new NameExpr(TemplateUtil.class.getCanonicalName()), "delegate")
+                  .addArgument(templatedGeneratorUtils.getInstanceCallExpression(templateContext))
+                  .addArgument(new ArrayCreationExpr().setElementType("String[]")
+                      .setInitializer(new ArrayInitializerExpr(typeValues)))
+                  .addArgument(new ArrayCreationExpr().setElementType("Object[]")
+                      .setInitializer(new ArrayInitializerExpr(
+                          new NodeList<>(targets.values()))))
+                  .addArgument(listener));
+    }
+
+    private Expression getTarget(EventHandlerInfo event) {
+      if (event.getInfo() == null) {
+        return templatedGeneratorUtils.getInstanceCallExpression(templateContext);
+      }
+      return templatedGenerator.getInstanceByElementKind(event.getInfo(),
+          templatedGenerator.getFieldAccessCallExpr(event.getInfo().getName()));
+    }
+
+    private void addHandler(Expression target, List<String> events, Statement call) {
+      targets.putIfAbsent(target.toString(), target);
+      types.addAll(events);
+
+      Expression condition = null;
+      for (String event : events) {
+        Expression matches = new MethodCallExpr(new StringLiteralExpr(event), "equals")
+            .addArgument(new FieldAccessExpr(new NameExpr("e"), "type"));
+        condition = condition == null ? matches
+            : new BinaryExpr(condition, matches, BinaryExpr.Operator.OR);
+      }
+      handlers.computeIfAbsent(target.toString(), key -> new ArrayList<>())
+          .add(new IfStmt().setCondition(condition)
+              .setThenStmt(new BlockStmt().addStatement(call)));
+    }
+  }
+
+  static boolean isDelegated(String type) {
+    return type != null && BUBBLING_EVENTS.contains(type) && !PASSIVE_ON_DOCUMENT.contains(type);
+  }
+
   Optional<Generator> getGenerator(EventHandlerInfo eventHandlerInfo) {
     if (MoreElements.isAnnotationPresent(eventHandlerInfo.getMethod(), SinkNative.class)) {
       return Optional.of(sinkNativeGenerator);
@@ -176,6 +351,11 @@ public class EventHandlerGenerator {
     @Override
     public void generate(ClassBuilder builder, TemplateContext templateContext,
         EventHandlerInfo eventHandlerInfo) {
+      generate(builder, eventHandlerInfo,
+          eventHandlerInfo.getMethod().getAnnotation(SinkNative.class).value());
+    }
+
+    void generate(ClassBuilder builder, EventHandlerInfo eventHandlerInfo, int mask) {
       MethodCallExpr fieldAccessCallExpr =
           templatedGenerator.getFieldAccessCallExpr(eventHandlerInfo.getInfo().getName());
 
@@ -185,8 +365,7 @@ public class EventHandlerGenerator {
       MethodCallExpr theCall =
           new MethodCallExpr(new NameExpr(TemplateUtil.class.getCanonicalName()), "onSinkEvents");
       theCall.addArgument(fieldAccessCallExpr);
-      theCall
-          .addArgument(eventHandlerInfo.getMethod().getAnnotation(SinkNative.class).value() + "");
+      theCall.addArgument(mask + "");
       theCall.addArgument("e -> { " + methodCall + " }");
 
 
@@ -207,7 +386,12 @@ public class EventHandlerGenerator {
     @Override
     public void generate(ClassBuilder builder, TemplateContext templateContext,
         EventHandlerInfo eventHandlerInfo) {
-      for (String event : eventHandlerInfo.getEvents()) {
+      generate(builder, templateContext, eventHandlerInfo, eventHandlerInfo.getEvents());
+    }
+
+    void generate(ClassBuilder builder, TemplateContext templateContext,
+        EventHandlerInfo eventHandlerInfo, String[] events) {
+      for (String event : events) {
 
         if (event == null) {
           templatedGenerator.abortWithError(eventHandlerInfo.getMethod(),
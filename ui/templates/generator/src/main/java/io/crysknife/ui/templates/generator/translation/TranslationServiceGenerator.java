@@ -26,21 +26,14 @@ import com.github.javaparser.ast.stmt.ReturnStmt;
 import com.github.javaparser.ast.type.ClassOrInterfaceType;
 import io.crysknife.generator.api.ClassBuilder;
 import io.crysknife.generator.context.IOCContext;
+import io.crysknife.ui.templates.generator.ParsedTemplate;
 import io.crysknife.ui.templates.generator.TemplatedGeneratorUtils;
 import org.jboss.gwt.elemento.processor.context.TemplateContext;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.NodeVisitor;
-
-import java.util.HashSet;
-import java.util.Set;
 
 public class TranslationServiceGenerator {
 
   private final static String TRANSLATION_SERVICE =
       "io.crysknife.ui.translation.api.spi.TranslationService";
-  private final static String DATA_I18N_KEY = "data-i18n-key";
   private final IOCContext iocContext;
   private boolean isEnabled;
   private TemplatedGeneratorUtils templatedGeneratorUtils;
@@ -58,19 +51,19 @@ public class TranslationServiceGenerator {
     }
   }
 
-  public void process(ClassBuilder builder, TemplateContext context) {
-    if (isEnabled) {
-      String html = context.getRoot().getInnerHtml();
-      if (html == null || html.isEmpty()) {
-        return;
-      }
-      Document document = Jsoup.parse(html);
-      I18NKeyVisitor i18NKeyVisitor = new I18NKeyVisitor();
-      org.jsoup.select.NodeTraversor.traverse(i18NKeyVisitor, document);
-      if (!i18NKeyVisitor.result.isEmpty()) {
-        addGetI18nValue(builder);
-        addI18nTranslationCall(builder, context);
-      }
+  /**
+   * The template is translated at runtime by TemplateTranslationVisitor, as before. There is no
+   * compile-time table of i18n keys and element paths: the visitor also translates the text-only
+   * elements by keys generated from their text, the title and placeholder attributes, and the
+   * elements of the injected data fields, none of them is known from the template alone. Only the
+   * check for i18n keys comes from the parsed template.
+   *
+   * @param template the parsed template, its i18n keys are collected while it is indexed
+   */
+  public void process(ClassBuilder builder, TemplateContext context, ParsedTemplate template) {
+    if (isEnabled && template.hasI18nKeys()) {
+      addGetI18nValue(builder);
+      addI18nTranslationCall(builder, context);
     }
   }
 
@@ -103,23 +96,6 @@ public class TranslationServiceGenerator {
             .addArgument("translationKey")));
   }
 
-  private static class I18NKeyVisitor implements NodeVisitor {
-
-    private Set<Element> result = new HashSet<>();
-
-    @Override
-    public void head(org.jsoup.nodes.Node node, int i) {
-      if (node.hasAttr(DATA_I18N_KEY) && !node.attr(DATA_I18N_KEY).isEmpty()) {
-        result.add((Element) node);
-      }
-    }
-
-    @Override
-    public void tail(org.jsoup.nodes.Node node, int i) {
-
-    }
-  }
-
   public static String getI18nPrefix(final String templateFile) {
     final int idx1 = templateFile.lastIndexOf('/');
     final int idx2 = templateFile.lastIndexOf('.');
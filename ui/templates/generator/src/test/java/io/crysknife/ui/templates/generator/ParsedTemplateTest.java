@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.ui.templates.generator;
+
+import org.jsoup.Jsoup;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+public class ParsedTemplateTest {
+
+  @Test
+  public void testPreAndTextareaAreKept() {
+    assertEquals("<div> <pre>  a\n    b</pre> <textarea>  c\n  d</textarea> </div>",
+        minify("<div>\n  <pre>  a\n    b</pre>\n  <textarea>  c\n  d</textarea>\n</div>"));
+  }
+
+  @Test
+  public void testSpaceBetweenInlineSiblingsIsKept() {
+    assertEquals("<span>a</span> <b>b</b> <i>c</i>d",
+        minify("<span>a</span>\n    <b>b</b>   <i>c</i>d"));
+  }
+
+  @Test
+  public void testSpaceNextToBlocksIsCollapsed() {
+    assertEquals("<div> <p>a</p> <span>b</span> <p>c</p> </div>",
+        minify("<div>\n  <p>a</p>\n  <span>b</span>\n  <p>c</p>\n</div>"));
+  }
+
+  @Test
+  public void testPreWhiteSpaceStyleIsKept() {
+    assertEquals("<div style=\"white-space: pre-wrap\">  a\n  <span>  b  </span></div>"
+        + "<div> c </div>", minify("<div style=\"white-space: pre-wrap\">  a\n  <span>  b  </span>"
+            + "</div><div>  c  </div>"));
+  }
+
+  @Test
+  public void testSpaceBetweenRowsIsRemoved() {
+    assertEquals("<table><tbody><tr><td> a </td><td>b</td></tr></tbody></table>",
+        minify("<table>\n  <tr>\n    <td>\n a\n </td>\n    <td>b</td>\n  </tr>\n</table>"));
+  }
+
+  @Test
+  public void testSpaceBetweenListItemsIsKept() {
+    // list items and options may be displayed inline
+    assertEquals("<ul> <li>a </li> <li>b</li> </ul>",
+        minify("<ul>\n  <li>a\n  </li>\n  <li>b</li>\n</ul>"));
+    assertEquals("<select> <option>a</option> <option>b</option> </select>",
+        minify("<select>\n  <option>a</option>\n  <option>b</option>\n</select>"));
+  }
+
+  @Test
+  public void testCommentsAreRemoved() {
+    assertEquals("<span>a</span><span>b</span>  <p>c</p>",
+        minify("<span>a</span><!-- first --><span>b</span>\n<!-- second -->\n<p>c</p>"));
+  }
+
+  @Test
+  public void testCommentBetweenWordsIsKept() {
+    // the i18n key of the paragraph stays a_b
+    assertEquals("<p>a<!-- -->b</p><p>a b</p>", minify("<p>a<!-- -->b</p><p>a <!-- -->b</p>"));
+  }
+
+  private String minify(String html) {
+    return ParsedTemplate.minify(Jsoup.parse(html)).body().html();
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2021 Treblereel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.crysknife.ui.templates.generator.events;
+
+import io.crysknife.ProcessorRunner;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Generates a @Templated(delegateEvents = true) bean, its template is in the test resources.
+ *
+ * @author Dmitrii Tikhomirov Created by treblereel 10/18/21
+ */
+public class DelegatedEventsTest {
+
+  @Test
+  public void testTouchAndWheelEventsStayBound() throws IOException {
+    ProcessorRunner runner =
+        new ProcessorRunner("org.treblereel.delegated", "-Acrysknife.executionEnv=J2CL")
+            .source("App", "@io.crysknife.annotation.Application public class App {"
+                + " @javax.inject.Inject DelegatedWidget widget; }")
+            .source("DelegatedWidget", "import elemental2.dom.*;"
+                + " import io.crysknife.ui.templates.client.annotation.*;"
+                + " @Templated(delegateEvents = true)"
+                + " @javax.enterprise.context.Dependent"
+                + " public class DelegatedWidget"
+                + " implements io.crysknife.client.IsElement<HTMLDivElement> {"
+                + " @DataField HTMLButtonElement button;"
+                + " @EventHandler(\"button\") public void onClick(@ForEvent({\"click\","
+                + " \"touchstart\", \"wheel\"}) Event e) {} }");
+
+    assertTrue(runner.run());
+    assertEquals(Collections.emptyList(), runner.getErrors());
+    String generated = runner.getGenerated();
+
+    int delegate = generated.indexOf("TemplateUtil.delegate(");
+    assertTrue(delegate >= 0);
+    String types = generated.substring(delegate, generated.indexOf("new Object[]", delegate));
+    assertTrue(types.contains("\"click\""));
+    assertFalse(types.contains("\"touchstart\""));
+    assertFalse(types.contains("\"wheel\""));
+
+    String dispatcher = generated.substring(delegate);
+    assertTrue(dispatcher.contains("switch"));
+    assertTrue(dispatcher.contains("\"click\".equals(e.type)"));
+
+    assertTrue(generated.contains("addEventListener(\"touchstart\""));
+    assertTrue(generated.contains("addEventListener(\"wheel\""));
+  }
+}
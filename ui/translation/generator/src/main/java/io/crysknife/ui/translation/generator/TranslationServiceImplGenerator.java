@@ -151,6 +151,7 @@ public class TranslationServiceImplGenerator {
       try (PrintWriter out = new PrintWriter(builderFile.openWriter())) {
         out.append(source);
       }
+      context.getProfiler().fileWritten(source);
     } catch (javax.annotation.processing.FilerException e) {
       // ignores
     } catch (IOException e) {